@@ -0,0 +1,68 @@
+package benchmarks;
+
+import logic.ASKDemodulator;
+import logic.ASKModulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Demodulación ASK a 1 kbps con portadora de 2 kHz. Aquí el escenario
+ * "fs/segundos" es la duración de la señal ASK: para seguir el tiempo real en
+ * un núcleo, el tiempo medido debe quedar por debajo de esos segundos.
+ * Se mide por bloques de 4096 muestras, como en la cadena en streaming, con
+ * el sincronismo conocido y con la estimación automática.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class ASKDemodulatorBenchmark {
+
+    private static final int BLOCK = 4096;
+
+    @Param({"48000/1", "48000/60"})
+    public String scenario;
+
+    @Param({"COHERENT", "NONCOHERENT"})
+    public ASKDemodulator.Detection detection;
+
+    private double fs;
+    private double[] ask;
+    private boolean[] out;
+
+    @Setup
+    public void setup() {
+        fs = BenchmarkData.fs(scenario);
+        int nBits = (int) Math.round(BenchmarkData.seconds(scenario) * 1000);
+        boolean[] bits = new boolean[nBits];
+        Random rnd = new Random(1);
+        for (int i = 0; i < nBits; i++) {
+            bits[i] = rnd.nextBoolean();
+        }
+        ask = new double[ASKModulator.modulatedLength(nBits, fs, 1000)];
+        ASKModulator.modulate(bits, 2000, fs, 1000, 0.1, 1.0, ask);
+        out = new boolean[nBits + 1];
+    }
+
+    @Benchmark
+    public int demodulate() {
+        return run(new ASKDemodulator(detection, 2000, fs, 1000, 0.1, 1.0));
+    }
+
+    @Benchmark
+    public int demodulateAutoTiming() {
+        return run(new ASKDemodulator(detection, 2000, fs, 1000, 0.1, 1.0, ASKDemodulator.AUTO_TIMING));
+    }
+
+    private int run(ASKDemodulator demod) {
+        int bits = 0;
+        for (int off = 0; off < ask.length; off += BLOCK) {
+            bits += demod.process(ask, off, Math.min(BLOCK, ask.length - off), out, bits);
+        }
+        return bits + demod.finish(out, bits);
+    }
+}
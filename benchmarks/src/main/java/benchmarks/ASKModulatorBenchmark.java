@@ -0,0 +1,50 @@
+package benchmarks;
+
+import logic.ASKModulator;
+import logic.PCMEncoder;
+import models.Signal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modulación ASK a 1 kbps. La salida tiene bits · fs/bitRate muestras
+ * (384 por muestra de entrada a 48 kHz), por eso los escenarios son cortos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class ASKModulatorBenchmark {
+
+    @Param({"8000/0.01", "8000/1", "48000/1"})
+    public String scenario;
+
+    private double fs;
+    private boolean[] bits;
+    private Signal carrier;
+    private double[] out;
+
+    @Setup
+    public void setup() {
+        fs = BenchmarkData.fs(scenario);
+        PCMEncoder pcm = new PCMEncoder(8, -1.0, 1.0);
+        bits = pcm.levelsToPackedBits(pcm.quantizeLevels(BenchmarkData.tone(scenario))).toBooleans();
+        int n = ASKModulator.modulatedLength(bits.length, fs, 1000);
+        carrier = ASKModulator.carrierSine(2000, fs, n / fs, 1.0);
+        out = new double[n];
+    }
+
+    @Benchmark
+    public Signal modulate() {
+        return ASKModulator.modulate(bits, carrier, 1000, 0.1, 1.0);
+    }
+
+    @Benchmark
+    public double[] modulateFused() {
+        ASKModulator.modulate(bits, 2000, fs, 1000, 0.1, 1.0, out);
+        return out;
+    }
+}
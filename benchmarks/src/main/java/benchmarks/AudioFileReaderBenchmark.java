@@ -0,0 +1,57 @@
+package benchmarks;
+
+import logic.AudioGenerator;
+import logic.AudioStreamReader;
+import logic.MappedWavFile;
+import models.Signal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de un WAV PCM 16-bit generado con AudioGenerator en un archivo temporal.
+ *
+ * Se miden directamente los dos caminos de AudioFileReader.readAudioFile
+ * (mapeado en memoria y por bloques con javax.sound) sin sus mensajes por
+ * consola, que de otro modo entrarían en el tiempo medido.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class AudioFileReaderBenchmark {
+
+    @Param({"8000/0.01", "8000/1", "48000/60", "48000/3600"})
+    public String scenario;
+
+    private File wav;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        wav = File.createTempFile("bench-", ".wav");
+        AudioGenerator.generateToneWAV(wav.getPath(), 440.0,
+                BenchmarkData.seconds(scenario), (float) BenchmarkData.fs(scenario));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (wav != null) wav.delete();
+    }
+
+    @Benchmark
+    public Signal mapped() throws Exception {
+        try (MappedWavFile file = MappedWavFile.open(wav.getPath())) {
+            return file.toSignal();
+        }
+    }
+
+    @Benchmark
+    public Signal streamed() throws Exception {
+        try (AudioStreamReader reader = AudioStreamReader.open(wav.getPath(), 0)) {
+            return reader.readAll();
+        }
+    }
+}
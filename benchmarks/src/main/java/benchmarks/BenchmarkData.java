@@ -0,0 +1,41 @@
+package benchmarks;
+
+/**
+ * Datos de entrada compartidos por los benchmarks.
+ *
+ * Los escenarios se escriben como "fs/segundos", desde 10 ms a 8 kHz hasta
+ * 1 hora a 48 kHz. Cada benchmark declara solo los escenarios cuyo resultado
+ * cabe en un arreglo Java (por ejemplo la salida ASK crece fs/bitRate veces
+ * por bit y no admite una hora a 48 kHz).
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static double fs(String scenario) {
+        return Double.parseDouble(scenario.substring(0, scenario.indexOf('/')));
+    }
+
+    static double seconds(String scenario) {
+        return Double.parseDouble(scenario.substring(scenario.indexOf('/') + 1));
+    }
+
+    /**
+     * Tono de 300 Hz más un armónico, normalizado a [-0.9, 0.9]
+     * (se genera sin Sampling.sample para no medir ni imprimir nada en el setup)
+     */
+    static double[] tone(double fs, double seconds) {
+        int n = (int) Math.round(fs * seconds);
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            double t = i / fs;
+            x[i] = 0.6 * Math.sin(2 * Math.PI * 300 * t) + 0.3 * Math.sin(2 * Math.PI * 1100 * t);
+        }
+        return x;
+    }
+
+    static double[] tone(String scenario) {
+        return tone(fs(scenario), seconds(scenario));
+    }
+}
@@ -0,0 +1,40 @@
+package benchmarks;
+
+import logic.ASKModulator;
+import logic.Oscillator;
+import models.Signal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación de la portadora con cada modo del oscilador
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class CarrierBenchmark {
+
+    @Param({"8000/0.01", "8000/1", "48000/60", "48000/3600"})
+    public String scenario;
+
+    @Param({"EXACT", "RECURSIVE", "TABLE"})
+    public Oscillator.Mode mode;
+
+    private double fs;
+    private double seconds;
+
+    @Setup
+    public void setup() {
+        fs = BenchmarkData.fs(scenario);
+        seconds = BenchmarkData.seconds(scenario);
+    }
+
+    @Benchmark
+    public Signal carrierSine() {
+        return ASKModulator.carrierSine(2000, fs, seconds, 1.0, mode);
+    }
+}
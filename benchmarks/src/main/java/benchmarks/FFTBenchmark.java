@@ -0,0 +1,41 @@
+package benchmarks;
+
+import logic.FFT;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Espectro de Welch de toda la señal (lo que calcula el panel de espectro)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class FFTBenchmark {
+
+    @Param({"8000/0.01", "8000/1", "48000/60", "48000/3600"})
+    public String scenario;
+
+    @Param({"256", "1024", "4096"})
+    public int fftSize;
+
+    private FFT fft;
+    private double[] samples;
+    private double[] power;
+
+    @Setup
+    public void setup() {
+        fft = new FFT(fftSize);
+        samples = BenchmarkData.tone(scenario);
+        power = new double[fftSize / 2 + 1];
+    }
+
+    @Benchmark
+    public double[] welch() {
+        fft.welch(samples, power);
+        return power;
+    }
+}
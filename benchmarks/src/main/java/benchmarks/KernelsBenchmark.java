@@ -0,0 +1,64 @@
+package benchmarks;
+
+import logic.Kernels;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Núcleos de cuantización y modulación: implementación escalar frente a la
+ * elegida por {@link Kernels#get()} (Vector API, ya que el fork se lanza con
+ * el módulo jdk.incubator.vector)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class KernelsBenchmark {
+
+    @Param({"scalar", "best"})
+    public String kernels;
+
+    @Param({"8000/1", "48000/60"})
+    public String scenario;
+
+    @Param({"6", "48"})
+    public int samplesPerBit;
+
+    private Kernels k;
+    private double[] samples;
+    private int[] levels;
+    private boolean[] bits;
+    private double[] carrier;
+    private double[] ask;
+
+    @Setup
+    public void setup() {
+        k = "scalar".equals(kernels) ? Kernels.scalar() : Kernels.get();
+        samples = BenchmarkData.tone(scenario);
+        levels = new int[samples.length];
+        // Bits suficientes para una señal ASK del mismo número de muestras que la entrada
+        bits = new boolean[Math.max(1, samples.length / samplesPerBit)];
+        Random rnd = new Random(42);
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = rnd.nextBoolean();
+        }
+        carrier = BenchmarkData.tone(scenario);
+        ask = new double[bits.length * samplesPerBit];
+    }
+
+    @Benchmark
+    public int[] quantize() {
+        k.quantize(samples, 0, samples.length, levels, 0, -1.0, 1.0 - 1e-12, 2.0 / 256, 255);
+        return levels;
+    }
+
+    @Benchmark
+    public double[] modulate() {
+        k.modulate(bits, 0, bits.length, carrier, 0, samplesPerBit, 0.2, 1.0, ask, 0);
+        return ask;
+    }
+}
@@ -0,0 +1,46 @@
+package benchmarks;
+
+import logic.PCMEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * levelsToBits y flatten. boolean[][] ocupa un arreglo por muestra
+ * (~24 bytes de cabecera más los bits), así que una hora a 48 kHz no cabe.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class PCMBooleanBitsBenchmark {
+
+    @Param({"8000/0.01", "8000/1", "48000/60"})
+    public String scenario;
+
+    @Param({"8"})
+    public int nBits;
+
+    private PCMEncoder pcm;
+    private int[] levels;
+    private boolean[][] bitsPerSample;
+
+    @Setup
+    public void setup() {
+        pcm = new PCMEncoder(nBits, -1.0, 1.0);
+        levels = pcm.quantizeLevels(BenchmarkData.tone(scenario));
+        bitsPerSample = pcm.levelsToBits(levels);
+    }
+
+    @Benchmark
+    public boolean[][] levelsToBits() {
+        return pcm.levelsToBits(levels);
+    }
+
+    @Benchmark
+    public boolean[] flatten() {
+        return pcm.flatten(bitsPerSample);
+    }
+}
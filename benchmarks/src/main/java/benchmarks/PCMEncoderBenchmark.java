@@ -0,0 +1,47 @@
+package benchmarks;
+
+import logic.PCMEncoder;
+import models.PackedBits;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Etapas de PCMEncoder que escalan hasta una hora a 48 kHz
+ * (las que usan boolean[][] están en {@link PCMBooleanBitsBenchmark})
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class PCMEncoderBenchmark {
+
+    @Param({"8000/0.01", "8000/1", "48000/60", "48000/3600"})
+    public String scenario;
+
+    @Param({"8"})
+    public int nBits;
+
+    private PCMEncoder pcm;
+    private double[] samples;
+    private int[] levels;
+
+    @Setup
+    public void setup() {
+        pcm = new PCMEncoder(nBits, -1.0, 1.0);
+        samples = BenchmarkData.tone(scenario);
+        levels = pcm.quantizeLevels(samples);
+    }
+
+    @Benchmark
+    public int[] quantizeLevels() {
+        return pcm.quantizeLevels(samples);
+    }
+
+    @Benchmark
+    public PackedBits levelsToPackedBits() {
+        return pcm.levelsToPackedBits(levels);
+    }
+}
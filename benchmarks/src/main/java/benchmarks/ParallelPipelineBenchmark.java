@@ -0,0 +1,58 @@
+package benchmarks;
+
+import logic.ASKModulator;
+import logic.Oscillator;
+import logic.PCMEncoder;
+import logic.ParallelPipeline;
+import models.Signal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cadena completa PCM → ASK secuencial frente a ParallelPipeline con distintos hilos
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class ParallelPipelineBenchmark {
+
+    @Param({"8000/1", "48000/1"})
+    public String scenario;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Signal signal;
+    private PCMEncoder pcm;
+    private ForkJoinPool pool;
+    private ParallelPipeline pipeline;
+
+    @Setup
+    public void setup() {
+        signal = new Signal(BenchmarkData.tone(scenario), BenchmarkData.fs(scenario));
+        pcm = new PCMEncoder(8, -1.0, 1.0);
+        pool = new ForkJoinPool(threads);
+        pipeline = new ParallelPipeline(pcm, pool, 4096);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Signal sequential() {
+        int[] levels = pcm.quantizeLevels(signal.getSamples());
+        return ASKModulator.modulate(pcm.levelsToPackedBits(levels), 2000, signal.getFs(), 1000, 0.1, 1.0);
+    }
+
+    @Benchmark
+    public Signal parallel() {
+        return pipeline.encodeAndModulate(signal, 2000, 1000, 0.1, 1.0, Oscillator.Mode.EXACT);
+    }
+}
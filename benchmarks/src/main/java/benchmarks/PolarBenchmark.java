@@ -0,0 +1,45 @@
+package benchmarks;
+
+import logic.PCMEncoder;
+import logic.Polar;
+import models.PackedBits;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polar.encode produce un double por bit (8 por muestra con 8 bits):
+ * una hora a 48 kHz supera el tamaño máximo de un arreglo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class PolarBenchmark {
+
+    @Param({"8000/0.01", "8000/1", "48000/60"})
+    public String scenario;
+
+    private boolean[] bits;
+    private PackedBits packed;
+
+    @Setup
+    public void setup() {
+        PCMEncoder pcm = new PCMEncoder(8, -1.0, 1.0);
+        int[] levels = pcm.quantizeLevels(BenchmarkData.tone(scenario));
+        packed = pcm.levelsToPackedBits(levels);
+        bits = packed.toBooleans();
+    }
+
+    @Benchmark
+    public double[] encode() {
+        return Polar.encode(bits);
+    }
+
+    @Benchmark
+    public double[] encodePacked() {
+        return Polar.encode(packed);
+    }
+}
@@ -0,0 +1,41 @@
+package benchmarks;
+
+import logic.AudioFileReader;
+import logic.Resampler;
+import models.Signal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AudioFileReader.resample hacia 8 kHz (decimación) y 44.1 kHz, en cada calidad del filtro
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class ResampleBenchmark {
+
+    @Param({"8000/0.01", "8000/1", "48000/60", "48000/3600"})
+    public String scenario;
+
+    @Param({"8000", "44100"})
+    public double targetFs;
+
+    @Param({"FAST", "STANDARD", "HIGH"})
+    public Resampler.Quality quality;
+
+    private Signal signal;
+
+    @Setup
+    public void setup() {
+        signal = new Signal(BenchmarkData.tone(scenario), BenchmarkData.fs(scenario));
+    }
+
+    @Benchmark
+    public Signal resample() {
+        return AudioFileReader.resample(signal, targetFs, quality);
+    }
+}
@@ -0,0 +1,48 @@
+package benchmarks;
+
+import logic.STFT;
+import models.Signal;
+import models.Spectrogram;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Espectrograma completo (FFT de 512 puntos, salto 128) con 1 hilo y con el pool común
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class STFTBenchmark {
+
+    @Param({"8000/1", "48000/60"})
+    public String scenario;
+
+    @Param({"1", "0"})
+    public int threads; // 0 = pool común
+
+    private STFT stft;
+    private ForkJoinPool pool;
+    private Signal signal;
+
+    @Setup
+    public void setup() {
+        pool = threads == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(threads);
+        stft = new STFT(512, 128, pool);
+        signal = new Signal(BenchmarkData.tone(scenario), BenchmarkData.fs(scenario));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+    }
+
+    @Benchmark
+    public Spectrogram compute() {
+        return stft.compute(signal);
+    }
+}
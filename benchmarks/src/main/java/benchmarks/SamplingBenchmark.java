@@ -0,0 +1,36 @@
+package benchmarks;
+
+import logic.Sampling;
+import models.Signal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class SamplingBenchmark {
+
+    @Param({"8000/0.01", "8000/1", "48000/60", "48000/3600"})
+    public String scenario;
+
+    private DoubleUnaryOperator f;
+    private double fs;
+    private double seconds;
+
+    @Setup
+    public void setup() {
+        f = t -> Math.sin(2 * Math.PI * 300 * t);
+        fs = BenchmarkData.fs(scenario);
+        seconds = BenchmarkData.seconds(scenario);
+    }
+
+    @Benchmark
+    public Signal sample() {
+        return Sampling.sample(f, fs, seconds);
+    }
+}
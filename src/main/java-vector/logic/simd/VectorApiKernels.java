@@ -0,0 +1,79 @@
+package logic.simd;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+import logic.Kernels;
+
+/**
+ * Implementación SIMD de {@link Kernels} con la Vector API (jdk.incubator.vector).
+ *
+ * Se compila con el perfil "vector" (JDK 17+) y solo se carga si la JVM
+ * se lanzó con {@code --add-modules jdk.incubator.vector}; ver {@link Kernels#get()}.
+ * Produce exactamente los mismos valores que la versión escalar.
+ *
+ * @author xexpl
+ */
+public final class VectorApiKernels implements Kernels {
+
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+
+    /** Tamaño del bloque intermedio de la cuantización */
+    private static final int CHUNK = 1024;
+
+    /** Bloque intermedio por hilo: quantize no asigna memoria en cada llamada */
+    private static final ThreadLocal<double[]> SCRATCH = ThreadLocal.withInitial(() -> new double[CHUNK]);
+
+    @Override
+    public void quantize(double[] x, int off, int len, int[] out, int outOff,
+                         double xmin, double xmaxClamp, double q, int maxLevel) {
+        // La conversión vectorial double → int con cambio de forma no está bien
+        // optimizada en JDK 17, así que se calcula el nivel en double por bloques
+        // y se convierte con un bucle escalar que el JIT sí vectoriza
+        double top = maxLevel;
+        double[] tmp = SCRATCH.get();
+        for (int base = 0; base < len; base += CHUNK) {
+            int n = Math.min(CHUNK, len - base);
+            int upper = D.loopBound(n);
+            int i = 0;
+            for (; i < upper; i += D.length()) {
+                // Saturar a [xmin, xmax) y escalar. Como (v - xmin) >= 0, truncar equivale a floor
+                DoubleVector.fromArray(D, x, off + base + i)
+                        .min(xmaxClamp).max(xmin).sub(xmin).div(q).min(top).max(0.0)
+                        .intoArray(tmp, i);
+            }
+            for (int j = 0; j < upper; j++) {
+                out[outOff + base + j] = (int) tmp[j];
+            }
+            // Resto escalar
+            for (; i < n; i++) {
+                double xi = Math.max(xmin, Math.min(xmaxClamp, x[off + base + i]));
+                int k = (int) Math.floor((xi - xmin) / q);
+                out[outOff + base + i] = Math.max(0, Math.min(maxLevel, k));
+            }
+        }
+    }
+
+    @Override
+    public void modulate(boolean[] bits, int off, int len, double[] carrier, int carrierOff,
+                         int samplesPerBit, double A0, double A1, double[] out, int outOff) {
+        int lanes = D.length();
+        int n = 0;
+        for (int b = 0; b < len; b++) {
+            double A = bits[off + b] ? A1 : A0;
+            int k = 0;
+            for (; k + lanes <= samplesPerBit; k += lanes) {
+                DoubleVector.fromArray(D, carrier, carrierOff + n + k).mul(A).intoArray(out, outOff + n + k);
+            }
+            // Resto del bit (y bits completos si samplesPerBit < número de carriles)
+            for (; k < samplesPerBit; k++) {
+                out[outOff + n + k] = A * carrier[carrierOff + n + k];
+            }
+            n += samplesPerBit;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector-api (" + D.length() + " x double)";
+    }
+}
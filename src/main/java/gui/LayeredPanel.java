@@ -0,0 +1,97 @@
+package gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Panel que dibuja en dos capas: una estática (fondo, ejes, títulos, y todo
+ * lo que no depende de la vista) que se pinta una sola vez en una imagen
+ * fuera de pantalla, y una de datos que se repinta en cada cambio de zoom o
+ * desplazamiento. La capa estática se regenera solo cuando cambia el tamaño
+ * del panel o se llama a {@link #invalidateStatic()}.
+ * <p>
+ * Las fuentes se comparten como constantes para no crear objetos
+ * {@link Font} en cada repintado.
+ */
+abstract class LayeredPanel extends JPanel {
+    static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 14);
+    static final Font LABEL_FONT = new Font("Arial", Font.PLAIN, 10);
+    static final Font TEXT_FONT = new Font("Arial", Font.PLAIN, 12);
+    static final Font BOLD_TEXT_FONT = new Font("Arial", Font.BOLD, 12);
+
+    private Image staticLayer;
+    private int layerWidth = -1;
+    private int layerHeight = -1;
+    private double layerScale = 1.0;
+
+    LayeredPanel() {
+        setBackground(Color.WHITE);
+        setOpaque(true);
+    }
+
+    /**
+     * Dibuja lo que no depende de la vista (se llama solo al regenerar la capa)
+     */
+    protected abstract void paintStatic(Graphics2D g2, int width, int height);
+
+    /**
+     * Dibuja la capa que depende de la vista, encima de la estática
+     */
+    protected void paintData(Graphics2D g2, int width, int height) {
+    }
+
+    /**
+     * Descarta la capa estática para que se vuelva a dibujar en el próximo repintado
+     */
+    void invalidateStatic() {
+        staticLayer = null;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        int width = getWidth(), height = getHeight();
+        if (width <= 0 || height <= 0) return;
+
+        // En pantallas HiDPI la imagen se crea a la resolución real del dispositivo
+        AffineTransform tx = g2.getTransform();
+        double scale = Math.max(1.0, Math.max(tx.getScaleX(), tx.getScaleY()));
+        if (staticLayer == null || width != layerWidth || height != layerHeight || scale != layerScale) {
+            staticLayer = renderStatic(width, height, scale);
+            layerWidth = width;
+            layerHeight = height;
+            layerScale = scale;
+        }
+        g2.drawImage(staticLayer, 0, 0, width, height, null);
+
+        Graphics2D dg = (Graphics2D) g2.create();
+        try {
+            dg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            paintData(dg, width, height);
+        } finally {
+            dg.dispose();
+        }
+    }
+
+    private Image renderStatic(int width, int height, double scale) {
+        int pw = (int) Math.ceil(width * scale), ph = (int) Math.ceil(height * scale);
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        BufferedImage img = gc != null
+                ? gc.createCompatibleImage(pw, ph, Transparency.OPAQUE)
+                : new BufferedImage(pw, ph, BufferedImage.TYPE_INT_RGB);
+        Graphics2D sg = img.createGraphics();
+        try {
+            sg.scale(scale, scale);
+            sg.setColor(getBackground());
+            sg.fillRect(0, 0, width, height);
+            sg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            sg.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            paintStatic(sg, width, height);
+        } finally {
+            sg.dispose();
+        }
+        return img;
+    }
+}
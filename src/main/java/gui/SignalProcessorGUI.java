@@ -1,6 +1,7 @@
 package gui;
 
 import logic.*;
+import models.PackedBits;
 import models.Signal;
 
 import javax.swing.*;
@@ -530,15 +531,14 @@ public class SignalProcessorGUI extends JFrame {
         results.append("💻 PASO 1: CODIFICACIÓN PCM\n");
         PCMEncoder pcm = new PCMEncoder(8, -1.0, 1.0);
         int[] levels = pcm.quantizeLevels(signal.getSamples());
-        boolean[][] bitsPerSample = pcm.levelsToBits(levels);
-        boolean[] pcmBits = pcm.flatten(bitsPerSample);
+        PackedBits pcmBits = pcm.levelsToPackedBits(levels);
         
         results.append("  • Bits por muestra: 8\n");
         results.append("  • Rango de cuantización: [-1.0, 1.0]\n");
-        results.append("  • Total de bits PCM: ").append(pcmBits.length).append("\n");
+        results.append("  • Total de bits PCM: ").append(pcmBits.length()).append("\n");
         results.append("  • Primeros 32 bits: ");
-        for (int i = 0; i < 32 && i < pcmBits.length; i++) {
-            results.append(pcmBits[i] ? "1" : "0");
+        for (int i = 0; i < 32 && i < pcmBits.length(); i++) {
+            results.append(pcmBits.get(i) ? "1" : "0");
             if ((i + 1) % 8 == 0) results.append(" ");
         }
         results.append("\n\n");
@@ -556,9 +556,7 @@ public class SignalProcessorGUI extends JFrame {
         
         // 3. Modulación ASK
         results.append("📡 PASO 3: MODULACIÓN ASK\n");
-        double duration = signal.getSamples().length / signal.getFs();
-        Signal carrier = ASKModulator.carrierSine(2000, signal.getFs(), duration, 1.0);
-        Signal askSignal = ASKModulator.modulate(pcmBits, carrier, 1000, 0.1, 1.0);
+        Signal askSignal = ASKModulator.modulate(pcmBits, 2000, signal.getFs(), 1000, 0.1, 1.0);
         
         results.append("  • Frecuencia portadora: 2000 Hz\n");
         results.append("  • Tasa de bits: 1000 bps\n");
@@ -572,6 +570,33 @@ public class SignalProcessorGUI extends JFrame {
         }
         results.append("\n\n");
         
+        // 4. Demodulación y reconstrucción
+        results.append("🔁 PASO 4: DEMODULACIÓN Y RECONSTRUCCIÓN\n");
+        boolean[] received = ASKDemodulator.demodulate(askSignal, ASKDemodulator.Detection.COHERENT, 2000, 1000, 0.1, 1.0);
+        int bitErrors = 0;
+        for (int i = 0; i < received.length; i++) {
+            if (received[i] != pcmBits.get(i)) bitErrors++;
+        }
+        double[] reconstructed = new PCMDecoder(pcm).decode(received);
+        Quantizer muLaw = new CompandingQuantizer(CompandingQuantizer.Law.MU_LAW);
+        double[] muLawValues = new PCMDecoder(muLaw).levelsToValues(muLaw.quantizeLevels(samples));
+        results.append("  • Bits recuperados: ").append(received.length)
+               .append(" (").append(bitErrors).append(" errores)\n");
+        results.append("  • SNR de cuantización: ").append(snrText(samples, reconstructed)).append("\n");
+        results.append("  • SNR con ley μ (G.711, 8 bits): ").append(snrText(samples, muLawValues)).append("\n");
+        ImaAdpcmEncoder adpcm = new ImaAdpcmEncoder();
+        int[] adpcmCodes = adpcm.quantizeLevels(samples);
+        double[] adpcmValues = new double[adpcmCodes.length];
+        adpcm.decoder().decode(adpcmCodes, 0, adpcmCodes.length, adpcmValues, 0);
+        results.append("  • SNR con IMA ADPCM (4 bits, ").append((long) adpcmCodes.length * 4)
+               .append(" bits en lugar de ").append(pcmBits.length()).append("): ")
+               .append(snrText(samples, adpcmValues)).append("\n");
+        results.append("  • Primeras 10 muestras reconstruidas: ");
+        for (int i = 0; i < 10 && i < reconstructed.length; i++) {
+            results.append(df.format(reconstructed[i])).append(" ");
+        }
+        results.append("\n\n");
+        
         // Resumen final
         results.append("✅ PROCESAMIENTO COMPLETADO\n");
         results.append("La señal está lista para transmisión por radiofrecuencia.\n\n");
@@ -579,6 +604,21 @@ public class SignalProcessorGUI extends JFrame {
         return results.toString();
     }
     
+    /**
+     * SNR de una reconstrucción frente a la señal original, como texto
+     */
+    private String snrText(double[] original, double[] reconstructed) {
+        double noise = 0, power = 0;
+        for (int i = 0; i < reconstructed.length; i++) {
+            double e = original[i] - reconstructed[i];
+            noise += e * e;
+            power += original[i] * original[i];
+        }
+        if (power == 0) return "-";
+        if (noise == 0) return "∞";
+        return df.format(10 * Math.log10(power / noise)) + " dB";
+    }
+
     /**
      * Limpia el área de resultados
      */
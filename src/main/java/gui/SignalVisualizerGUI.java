@@ -1,22 +1,38 @@
 package gui;
 
 import logic.ASKModulator;
+import logic.AudioPlayer;
+import logic.FFT;
+import logic.LineSource;
+import logic.Oscillator;
+import logic.PCMDecoder;
 import logic.PCMEncoder;
 import logic.Polar;
+import logic.RealtimeChain;
 import logic.Sampling;
+import logic.StreamingPipeline;
+import models.MinMaxPyramid;
 import models.Signal;
+import models.Spectrogram;
 
 import javax.imageio.ImageIO;
-import javax.sound.sampled.*;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.DoubleUnaryOperator;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Visualizador de señales con pestañas: original, cuantizada, comparación, bits, polar, ASK, espectro y micrófono.
@@ -29,7 +45,11 @@ public class SignalVisualizerGUI extends JFrame {
     private int[] quantizedLevels;
     private boolean[] pcmBits;
     private double[] polarSignal;
+    private double[] quantizedValues;
     private PCMEncoder pcmEncoder;
+    private MicrophonePanel micPanel;
+    private PipelineResult current; // Último resultado publicado (pirámides ya calculadas)
+    private Signal externalSignal;  // Señal cargada desde fuera: sustituye a la etapa de muestreo
 
     // Parámetros configurables
     private JSpinner freqSpinner;
@@ -44,13 +64,28 @@ public class SignalVisualizerGUI extends JFrame {
     private int viewStart = 0; // percent 0..100
     private int zoomLevel = 1; // 1..100 (1 = full view)
 
-    private AudioPlayer audioPlayer = new AudioPlayer();
+    private final AudioPlayer audioPlayer = new AudioPlayer();
+
+    // Agrupa los repintados de zoom/scroll (como máximo uno cada ~16 ms)
+    private final Timer repaintTimer = new Timer(16, e -> repaintSelectedPanel());
+
+    // Recalculo en segundo plano: un solo hilo; cada petición nueva cancela la anterior
+    private final ExecutorService computeExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "visualizer-compute"); t.setDaemon(true); return t;
+    });
+    private final AtomicLong generation = new AtomicLong();
+    private Future<?> inFlight;
+    private JLabel statusLabel;
+    // Espera corta tras cambiar un parámetro para no lanzar un cálculo por cada pulsación
+    private final Timer recomputeTimer = new Timer(150, e -> generateSignals());
 
     public SignalVisualizerGUI() {
         this(null);
     }
 
     public SignalVisualizerGUI(Signal externalSignal) {
+        repaintTimer.setRepeats(false);
+        recomputeTimer.setRepeats(false);
         setTitle("Visualizador de Señales - PCM y ASK");
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLayout(new BorderLayout());
@@ -65,28 +100,33 @@ public class SignalVisualizerGUI extends JFrame {
         add(infoPanel, BorderLayout.SOUTH);
 
         if (externalSignal != null) {
-            this.originalSignal = externalSignal;
-            setupPipelineFromSignal();
-            updateVisualizations();
-            updateInfoPanel();
-        } else {
-            generateSignals();
+            setupPipelineFromSignal(externalSignal);
         }
+        generateSignals();
 
         setSize(1200, 800);
         setLocationRelativeTo(null);
+
+        addWindowListener(new WindowAdapter() {
+            @Override public void windowClosed(WindowEvent e) {
+                generation.incrementAndGet();
+                computeExecutor.shutdownNow();
+                if (micPanel != null) micPanel.stopCapture();
+                audioPlayer.close();
+            }
+        });
     }
 
-    private void setupPipelineFromSignal() {
-        int nBits = 8;
-        double carrierFreq = 2000;
-        pcmEncoder = new PCMEncoder(nBits, -1.0, 1.0);
-        quantizedLevels = pcmEncoder.quantizeLevels(originalSignal.getSamples());
-        boolean[][] bitsPerSample = pcmEncoder.levelsToBits(quantizedLevels);
-        pcmBits = pcmEncoder.flatten(bitsPerSample);
-        polarSignal = Polar.encode(pcmBits);
-        double duration = originalSignal.getSamples().length / originalSignal.getFs();
-        askSignal = ASKModulator.modulate(pcmBits, ASKModulator.carrierSine(carrierFreq, originalSignal.getFs(), duration, 1.0), 1000, 0.1, 1.0);
+    /**
+     * Usa una señal externa como etapa de muestreo. Los parámetros de la señal
+     * sintética (tipo, frecuencia, fs, duración) no se aplican y se desactivan;
+     * los bits y la portadora siguen los controles.
+     */
+    private void setupPipelineFromSignal(Signal signal) {
+        this.externalSignal = signal;
+        for (JComponent c : new JComponent[]{signalTypeCombo, freqSpinner, samplingRateSpinner, durationSpinner}) {
+            c.setEnabled(false);
+        }
     }
 
     private JPanel createControlPanel() {
@@ -139,6 +179,16 @@ public class SignalVisualizerGUI extends JFrame {
         updateButton.addActionListener(e -> generateSignals());
         panel.add(updateButton, gbc);
 
+        gbc.gridx = 7;
+        statusLabel = new JLabel(" ");
+        panel.add(statusLabel, gbc);
+
+        // Cualquier cambio de parámetro relanza el cálculo (y cancela el que esté en curso)
+        for (JSpinner sp : new JSpinner[]{freqSpinner, samplingRateSpinner, durationSpinner, bitsSpinner, carrierFreqSpinner}) {
+            sp.addChangeListener(e -> recomputeTimer.restart());
+        }
+        signalTypeCombo.addActionListener(e -> recomputeTimer.restart());
+
         return panel;
     }
 
@@ -157,7 +207,14 @@ public class SignalVisualizerGUI extends JFrame {
 
         JButton playBtn = new JButton("▶ Reproducir");
         JButton stopBtn = new JButton("■ Detener");
-        playBtn.addActionListener(e -> { if (askSignal != null) audioPlayer.play(askSignal.getSamples(), (float) askSignal.getFs()); });
+        playBtn.addActionListener(e -> {
+            if (askSignal == null) return;
+            try {
+                audioPlayer.play(askSignal.getSamples(), (float) askSignal.getFs());
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage());
+            }
+        });
         stopBtn.addActionListener(e -> audioPlayer.stop());
         p.add(playBtn); p.add(stopBtn);
 
@@ -183,7 +240,23 @@ public class SignalVisualizerGUI extends JFrame {
         repaintAllPanels();
     }
 
-    private void repaintAllPanels() { for (int i=0;i<tabbedPane.getTabCount();i++) tabbedPane.getComponentAt(i).repaint(); }
+    /**
+     * Pide repintar la vista; los eventos de zoom/scroll que llegan antes de que
+     * venza el temporizador se agrupan en un solo repintado
+     */
+    private void repaintAllPanels() { if (!repaintTimer.isRunning()) repaintTimer.start(); }
+
+    /**
+     * Repinta solo la pestaña seleccionada (las ocultas se pintan al mostrarse)
+     */
+    private void repaintSelectedPanel() {
+        for (int i=0;i<tabbedPane.getTabCount();i++) {
+            Component c = tabbedPane.getComponentAt(i);
+            if (c instanceof SpectrogramPanel) ((SpectrogramPanel) c).setView(viewStart / 100.0, 1.0 / zoomLevel);
+        }
+        Component selected = tabbedPane.getSelectedComponent();
+        if (selected != null) selected.repaint();
+    }
 
     private void saveCurrentViewAsImage() {
         Component comp = tabbedPane.getSelectedComponent();
@@ -197,31 +270,211 @@ public class SignalVisualizerGUI extends JFrame {
         }
     }
 
+    /**
+     * Lee los parámetros en el EDT y lanza el cálculo en segundo plano
+     */
     private void generateSignals() {
+        recomputeTimer.stop();
+        int nBits = (int)bitsSpinner.getValue();
+        double carrierFreq = (double)(int)carrierFreqSpinner.getValue();
+        if (externalSignal != null) {
+            Signal signal = externalSignal;
+            submitComputation(signal, () -> signal, nBits, carrierFreq);
+            return;
+        }
         double freq = (double)(int)freqSpinner.getValue();
         double fs = (double)(int)samplingRateSpinner.getValue();
         double duration = (double)durationSpinner.getValue();
-        int nBits = (int)bitsSpinner.getValue();
-        double carrierFreq = (double)(int)carrierFreqSpinner.getValue();
         String signalType = (String)signalTypeCombo.getSelectedItem();
 
         DoubleUnaryOperator modulatingSignal = createSignalFunction(signalType, freq);
-        originalSignal = Sampling.sample(modulatingSignal, fs, duration);
+        submitComputation(Arrays.asList(signalType, freq, fs, duration),
+                () -> Sampling.sample(modulatingSignal, fs, duration), nBits, carrierFreq);
+    }
 
-        pcmEncoder = new PCMEncoder(nBits, -1.0, 1.0);
-        quantizedLevels = pcmEncoder.quantizeLevels(originalSignal.getSamples());
-        boolean[][] bitsPerSample = pcmEncoder.levelsToBits(quantizedLevels);
-        pcmBits = pcmEncoder.flatten(bitsPerSample);
+    /**
+     * Cancela el cálculo en curso y ejecuta la cadena en el hilo de cálculo.
+     * El resultado solo se publica (en el EDT, de una vez) si ninguna
+     * petición posterior lo ha reemplazado.
+     *
+     * @param samplingKey Parámetros de los que depende la señal muestreada
+     */
+    private void submitComputation(Object samplingKey, Supplier<Signal> source, int nBits, double carrierFreq) {
+        long gen = generation.incrementAndGet();
+        if (inFlight != null) inFlight.cancel(true);
+        statusLabel.setText("Calculando...");
+        inFlight = computeExecutor.submit(() -> {
+            try {
+                PipelineResult result = computePipeline(samplingKey, source, nBits, carrierFreq, gen);
+                SwingUtilities.invokeLater(() -> publish(result, gen));
+            } catch (CancellationException ignored) {
+                // Reemplazado por una petición más nueva
+            } catch (RuntimeException | OutOfMemoryError ex) {
+                SwingUtilities.invokeLater(() -> {
+                    if (gen != generation.get()) return;
+                    statusLabel.setText(" ");
+                    JOptionPane.showMessageDialog(this, "Error al calcular la señal: " + ex, "Error", JOptionPane.ERROR_MESSAGE);
+                });
+            }
+        });
+    }
 
-        polarSignal = Polar.encode(pcmBits);
+    /**
+     * Muestreo → PCM (niveles, bits, polar) → ASK → espectros, fuera del EDT.
+     *
+     * Cada etapa se memoriza junto con sus parámetros y el resultado de la
+     * etapa anterior: muestreo ← tipo/frecuencia/fs/duración, PCM ← muestreo
+     * y nBits, ASK ← PCM y portadora. Si solo cambia la portadora se reutilizan
+     * la señal muestreada y los bits; si cambia nBits, solo la señal muestreada.
+     * El espectro de Welch y la STFT de la señal ASK dependen solo de ella, así
+     * que los paneles ya no calculan nada al pintarse.
+     * Las memorias solo se tocan desde el hilo de cálculo, y una etapa
+     * cancelada a medias no se guarda.
+     */
+    private PipelineResult computePipeline(Object samplingKey, Supplier<Signal> source, int nBits, double carrierFreq, long gen) {
+        SampledStage sampled = samplingStage.get(samplingKey, () -> {
+            Signal original = source.get();
+            checkCurrent(gen);
+            return new SampledStage(original, new MinMaxPyramid(original.getSamples()));
+        });
+        checkCurrent(gen);
+        PcmStage pcm = pcmStage.get(Arrays.asList(sampled, nBits), () -> computePcm(sampled, nBits, gen));
+        checkCurrent(gen);
+        AskStage ask = askStage.get(Arrays.asList(pcm, carrierFreq), () -> computeAsk(sampled, pcm, carrierFreq, gen));
+        checkCurrent(gen);
+        SpectralStage spectra = spectralStage.get(ask, () -> computeSpectra(ask, gen));
+        checkCurrent(gen);
+        return new PipelineResult(sampled, pcm, ask, spectra);
+    }
 
-        Signal carrier = ASKModulator.carrierSine(carrierFreq, fs, duration, 1.0);
-        askSignal = ASKModulator.modulate(pcmBits, carrier, 1000, 0.1, 1.0);
+    private PcmStage computePcm(SampledStage sampled, int nBits, long gen) {
+        PCMEncoder encoder = new PCMEncoder(nBits, -1.0, 1.0);
+        int[] levels = encoder.quantizeLevels(sampled.signal.getSamples());
+        boolean[] bits = new boolean[levels.length * nBits];
+        encoder.levelsToBits(levels, 0, levels.length, bits, 0);
+        checkCurrent(gen);
+        double[] polar = Polar.encode(bits);
+        checkCurrent(gen);
+        double[] quantized = new PCMDecoder(encoder).levelsToValues(levels);
+        return new PcmStage(encoder, levels, bits, polar, quantized,
+                new MinMaxPyramid(quantized), new MinMaxPyramid(polar));
+    }
 
+    private AskStage computeAsk(SampledStage sampled, PcmStage pcm, double carrierFreq, long gen) {
+        double fs = sampled.signal.getFs();
+        boolean[] bits = pcm.bits;
+        int spb = ASKModulator.samplesPerBit(fs, 1000);
+        double[] y = new double[ASKModulator.modulatedLength(bits.length, fs, 1000)];
+        Oscillator osc = new Oscillator(Oscillator.Mode.EXACT, carrierFreq, fs, 1.0);
+        for (int from = 0; from < bits.length; from += MODULATION_CHUNK_BITS) {
+            int len = Math.min(MODULATION_CHUNK_BITS, bits.length - from);
+            ASKModulator.modulate(bits, from, len, osc, spb, 0.1, 1.0, y, from * spb);
+            checkCurrent(gen);
+        }
+        return new AskStage(new Signal(y, fs), new MinMaxPyramid(y));
+    }
+
+    private SpectralStage computeSpectra(AskStage ask, long gen) {
+        double[] y = ask.signal.getSamples();
+        FFT fft = new FFT(Math.min(SPECTRUM_FFT_SIZE, FFT.nextPowerOfTwo(y.length)));
+        double[] magnitude = new double[fft.size() / 2 + 1];
+        int segments = fft.welch(y, magnitude);
+        double maxMag = 0;
+        for (int k = 0; k < magnitude.length; k++) { magnitude[k] = Math.sqrt(magnitude[k]); if (magnitude[k] > maxMag) maxMag = magnitude[k]; }
+        if (maxMag > 0) for (int k = 0; k < magnitude.length; k++) magnitude[k] /= maxMag;
+        checkCurrent(gen);
+        return new SpectralStage(magnitude, segments, SpectrogramPanel.compute(ask.signal));
+    }
+
+    private void checkCurrent(long gen) {
+        if (Thread.currentThread().isInterrupted() || gen != generation.get()) throw new CancellationException();
+    }
+
+    /**
+     * Publica un resultado en el EDT si sigue siendo el más reciente
+     */
+    private void publish(PipelineResult r, long gen) {
+        if (gen != generation.get()) return; // Llegó tarde: hay un cálculo más nuevo
+        current = r;
+        originalSignal = r.sampled.signal; pcmEncoder = r.pcm.encoder; quantizedLevels = r.pcm.levels;
+        pcmBits = r.pcm.bits; polarSignal = r.pcm.polar; quantizedValues = r.pcm.quantized; askSignal = r.ask.signal;
+        statusLabel.setText(" ");
         updateVisualizations();
         updateInfoPanel();
     }
 
+    /** Bits modulados entre comprobaciones de cancelación */
+    private static final int MODULATION_CHUNK_BITS = 1 << 16;
+    /** Puntos máximos de la FFT del espectro de Welch */
+    private static final int SPECTRUM_FFT_SIZE = 1024;
+
+    // Última ejecución de cada etapa (solo se usan desde el hilo de cálculo)
+    private final Memo<SampledStage> samplingStage = new Memo<>();
+    private final Memo<PcmStage> pcmStage = new Memo<>();
+    private final Memo<AskStage> askStage = new Memo<>();
+    private final Memo<SpectralStage> spectralStage = new Memo<>();
+
+    /**
+     * Memoria de una etapa: guarda el último resultado y la clave con la que
+     * se calculó. Las claves incluyen el resultado de la etapa anterior, que
+     * se compara por identidad, así que un cambio aguas arriba invalida todo
+     * lo que depende de él.
+     */
+    private static final class Memo<V> {
+        private Object key;
+        private V value;
+
+        V get(Object key, Supplier<V> compute) {
+            if (value == null || !key.equals(this.key)) {
+                V v = compute.get(); // Si se cancela, la memoria conserva el valor anterior
+                this.key = key;
+                this.value = v;
+            }
+            return value;
+        }
+    }
+
+    private static final class SampledStage {
+        final Signal signal; final MinMaxPyramid pyramid;
+        SampledStage(Signal signal, MinMaxPyramid pyramid) {
+            this.signal = signal; this.pyramid = pyramid;
+        }
+    }
+
+    private static final class PcmStage {
+        final PCMEncoder encoder; final int[] levels; final boolean[] bits; final double[] polar; final double[] quantized;
+        final MinMaxPyramid quantizedPyramid, polarPyramid;
+        PcmStage(PCMEncoder encoder, int[] levels, boolean[] bits, double[] polar, double[] quantized,
+                 MinMaxPyramid quantizedPyramid, MinMaxPyramid polarPyramid) {
+            this.encoder = encoder; this.levels = levels; this.bits = bits; this.polar = polar; this.quantized = quantized;
+            this.quantizedPyramid = quantizedPyramid; this.polarPyramid = polarPyramid;
+        }
+    }
+
+    private static final class AskStage {
+        final Signal signal; final MinMaxPyramid pyramid;
+        AskStage(Signal signal, MinMaxPyramid pyramid) {
+            this.signal = signal; this.pyramid = pyramid;
+        }
+    }
+
+    private static final class SpectralStage {
+        final double[] magnitude; final int segments; final Spectrogram spectrogram;
+        SpectralStage(double[] magnitude, int segments, Spectrogram spectrogram) {
+            this.magnitude = magnitude; this.segments = segments; this.spectrogram = spectrogram;
+        }
+    }
+
+    /**
+     * Resultado inmutable de una ejecución de la cadena
+     */
+    private static final class PipelineResult {
+        final SampledStage sampled; final PcmStage pcm; final AskStage ask; final SpectralStage spectra;
+        PipelineResult(SampledStage sampled, PcmStage pcm, AskStage ask, SpectralStage spectra) {
+            this.sampled = sampled; this.pcm = pcm; this.ask = ask; this.spectra = spectra;
+        }
+    }
+
     private DoubleUnaryOperator createSignalFunction(String type, double freq) {
         switch(type) {
             case "Seno": return t -> Math.sin(2 * Math.PI * freq * t);
@@ -237,16 +490,12 @@ public class SignalVisualizerGUI extends JFrame {
         tabbedPane.removeAll();
 
         JPanel wrapOriginal = new JPanel(new BorderLayout());
-        SignalPanel originalPanel = new SignalPanel(originalSignal.getSamples(), "Señal Original Muestreada", Color.BLUE, true);
+        SignalPanel originalPanel = new SignalPanel(originalSignal.getSamples(), current.sampled.pyramid, "Señal Original Muestreada", Color.BLUE, true);
         wrapOriginal.add(createToolbar(), BorderLayout.NORTH);
         wrapOriginal.add(originalPanel, BorderLayout.CENTER);
         tabbedPane.addTab("Señal Original", wrapOriginal);
 
-        double[] quantizedValues = new double[quantizedLevels.length];
-        for (int i = 0; i < quantizedLevels.length; i++) {
-            quantizedValues[i] = pcmEncoder.getXmin() + quantizedLevels[i] * pcmEncoder.getQ() + pcmEncoder.getQ() / 2;
-        }
-        SignalPanel quantizedPanel = new SignalPanel(quantizedValues, "Señal Cuantizada (Niveles PCM)", Color.RED, true);
+        SignalPanel quantizedPanel = new SignalPanel(quantizedValues, current.pcm.quantizedPyramid, "Señal Cuantizada (Niveles PCM)", Color.RED, true);
         tabbedPane.addTab("Señal Cuantizada", quantizedPanel);
 
         ComparisonPanel compPanel = new ComparisonPanel(originalSignal.getSamples(), quantizedValues);
@@ -255,17 +504,21 @@ public class SignalVisualizerGUI extends JFrame {
         BitsPanel bitsPanel = new BitsPanel(pcmBits, "Bits PCM");
         tabbedPane.addTab("Bits PCM", bitsPanel);
 
-        SignalPanel polarPanel = new SignalPanel(polarSignal, "Codificación Polar NRZ", Color.MAGENTA, false);
+        SignalPanel polarPanel = new SignalPanel(polarSignal, current.pcm.polarPyramid, "Codificación Polar NRZ", Color.MAGENTA, false);
         tabbedPane.addTab("Señal Polar", polarPanel);
 
-        SignalPanel askPanel = new SignalPanel(askSignal.getSamples(), "Señal ASK Modulada", Color.GREEN, true);
+        SignalPanel askPanel = new SignalPanel(askSignal.getSamples(), current.ask.pyramid, "Señal ASK Modulada", Color.GREEN, true);
         tabbedPane.addTab("Señal ASK", askPanel);
 
-        MicrophonePanel micPanel = new MicrophonePanel();
+        if (micPanel == null) micPanel = new MicrophonePanel(); // Se conserva entre recálculos (puede estar capturando)
         tabbedPane.addTab("Mic (Realtime)", micPanel);
 
-        SpectrumPanel spectrumPanel = new SpectrumPanel(askSignal.getSamples(), askSignal.getFs());
+        SpectrumPanel spectrumPanel = new SpectrumPanel(current.spectra.magnitude, current.spectra.segments, askSignal.getFs());
         tabbedPane.addTab("Espectro", spectrumPanel);
+
+        SpectrogramPanel spectrogramPanel = new SpectrogramPanel(current.spectra.spectrogram);
+        spectrogramPanel.setView(viewStart / 100.0, 1.0 / zoomLevel);
+        tabbedPane.addTab("Espectrograma", spectrogramPanel);
     }
 
     private void updateInfoPanel() {
@@ -285,18 +538,23 @@ public class SignalVisualizerGUI extends JFrame {
     }
 
     // --- Panels (inner classes) ---
-    class SignalPanel extends JPanel {
+    class SignalPanel extends LayeredPanel {
         private double[] samples;
+        private MinMaxPyramid pyramid; // Mínimos/máximos por niveles: cada repintado cuesta O(píxeles)
         private String title;
         private Color color;
         private boolean smooth;
 
         public SignalPanel(double[] samples, String title, Color color, boolean smooth) {
+            this(samples, new MinMaxPyramid(samples), title, color, smooth);
+        }
+
+        public SignalPanel(double[] samples, MinMaxPyramid pyramid, String title, Color color, boolean smooth) {
             this.samples = samples;
+            this.pyramid = pyramid;
             this.title = title;
             this.color = color;
             this.smooth = smooth;
-            setBackground(Color.WHITE);
 
             MouseAdapter ma = new MouseAdapter() {
                 private int lastX = -1;
@@ -319,28 +577,35 @@ public class SignalVisualizerGUI extends JFrame {
             addMouseListener(ma); addMouseMotionListener(ma);
         }
 
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            int width = getWidth(); int height = getHeight(); int margin = 50;
+        private double plotMin() { double min = pyramid.getMin(); return min == Double.POSITIVE_INFINITY ? 0 : min; }
+        private double plotMax() { double max = pyramid.getMax(), min = plotMin(); return (max == Double.NEGATIVE_INFINITY || max == min) ? min + 1e-6 : max; }
 
+        @Override
+        protected void paintStatic(Graphics2D g2, int width, int height) {
+            int margin = 50;
             g2.setColor(Color.BLACK);
             g2.drawLine(margin, height/2, width - margin, height/2);
             g2.drawLine(margin, margin, margin, height - margin);
 
-            g2.setFont(new Font("Arial", Font.BOLD, 14));
+            g2.setFont(TITLE_FONT);
             FontMetrics fm = g2.getFontMetrics();
             int titleWidth = fm.stringWidth(title);
             g2.drawString(title, (width - titleWidth) / 2, 30);
 
-            double max = Double.NEGATIVE_INFINITY; double min = Double.POSITIVE_INFINITY;
-            for (double s : samples) { if (s > max) max = s; if (s < min) min = s; }
-            if (max == min) { max = min + 1e-6; }
+            g2.setFont(LABEL_FONT);
+            g2.drawString("Tiempo", width - margin - 30, height/2 + 20);
+            g2.drawString("Amplitud", margin - 40, margin - 10);
+            g2.drawString(String.format("%.2f", plotMax()), margin - 35, margin);
+            g2.drawString(String.format("%.2f", plotMin()), margin - 35, height - margin);
+        }
 
+        @Override
+        protected void paintData(Graphics2D g2, int width, int height) {
+            int margin = 50;
             int total = samples.length;
+            if (total == 0) return;
+            double max = plotMax(); double min = plotMin();
+
             int viewSamples = Math.max(1, total / Math.max(1, zoomLevel));
             int startIdx = (int) ((viewStart / 100.0) * Math.max(0, total - viewSamples));
             startIdx = Math.max(0, Math.min(total - viewSamples, startIdx));
@@ -361,14 +626,17 @@ public class SignalVisualizerGUI extends JFrame {
                     prevX = x; prevY = y;
                 }
             } else {
+                // Columnas verticales de un píxel: sin antialiasing se dibujan mucho más rápido y se ven igual
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
                 int plotWidth = width - 2 * margin;
+                double[] range = new double[2];
                 for (int px = 0; px < plotWidth; px++) {
                     int idx0 = startIdx + (int) ((long) px * visible / plotWidth);
                     int idx1 = startIdx + (int) ((long) (px + 1) * visible / plotWidth);
                     idx0 = Math.max(0, Math.min(total - 1, idx0));
                     idx1 = Math.max(0, Math.min(total, idx1));
-                    double minv = Double.POSITIVE_INFINITY, maxv = Double.NEGATIVE_INFINITY;
-                    for (int k = idx0; k < idx1 && k < total; k++) { double v = samples[k]; if (v < minv) minv = v; if (v > maxv) maxv = v; }
+                    pyramid.minMax(idx0, idx1, range);
+                    double minv = range[0], maxv = range[1];
                     if (minv==Double.POSITIVE_INFINITY) minv = 0; if (maxv==Double.NEGATIVE_INFINITY) maxv = 0;
                     int x = margin + px;
                     int y1p = height/2 - (int)((maxv - min) * scaleY - (height - 2 * margin) / 2);
@@ -376,96 +644,73 @@ public class SignalVisualizerGUI extends JFrame {
                     g2.drawLine(x, y1p, x, y2p);
                 }
             }
-
-            g2.setColor(Color.BLACK); g2.setFont(new Font("Arial", Font.PLAIN, 10));
-            g2.drawString("Tiempo", width - margin - 30, height/2 + 20);
-            g2.drawString("Amplitud", margin - 40, margin - 10);
-            g2.drawString(String.format("%.2f", max), margin - 35, margin);
-            g2.drawString(String.format("%.2f", min), margin - 35, height - margin);
         }
     }
 
-    class ComparisonPanel extends JPanel {
-        private double[] original; private double[] quantized;
-        public ComparisonPanel(double[] original, double[] quantized) { this.original = original; this.quantized = quantized; setBackground(Color.WHITE); }
-        @Override protected void paintComponent(Graphics g) {
-            super.paintComponent(g); Graphics2D g2 = (Graphics2D) g; g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            int width = getWidth(); int height = getHeight(); int margin = 50;
+    class ComparisonPanel extends LayeredPanel {
+        private double[] original; private double[] quantized; private double mse;
+        public ComparisonPanel(double[] original, double[] quantized) { this.original = original; this.quantized = quantized;
+            for (int i = 0; i < original.length; i++) { mse += Math.pow(original[i] - quantized[i], 2); } mse /= original.length; }
+        // No depende del zoom: todo se dibuja una vez en la capa estática
+        @Override protected void paintStatic(Graphics2D g2, int width, int height) {
+            int margin = 50;
             g2.setColor(Color.BLACK); g2.drawLine(margin, height/2, width - margin, height/2); g2.drawLine(margin, margin, margin, height - margin);
-            g2.setFont(new Font("Arial", Font.BOLD, 14)); g2.drawString("Comparación: Original vs Cuantizada", width/2 - 120, 30);
+            g2.setFont(TITLE_FONT); g2.drawString("Comparación: Original vs Cuantizada", width/2 - 120, 30);
             double scaleX = (double)(width - 2 * margin) / original.length; double scaleY = (height - 2 * margin) / 2.0;
             g2.setColor(new Color(0, 0, 255, 128)); g2.setStroke(new BasicStroke(2));
             for (int i = 0; i < original.length - 1; i++) { int x1 = margin + (int)(i * scaleX); int y1 = height/2 - (int)(original[i] * scaleY); int x2 = margin + (int)((i + 1) * scaleX); int y2 = height/2 - (int)(original[i + 1] * scaleY); g2.drawLine(x1, y1, x2, y2); }
             g2.setColor(new Color(255, 0, 0, 200)); g2.setStroke(new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
             for (int i = 0; i < quantized.length - 1; i++) { int x1 = margin + (int)(i * scaleX); int y1 = height/2 - (int)(quantized[i] * scaleY); int x2 = margin + (int)((i + 1) * scaleX); int y2 = height/2 - (int)(quantized[i + 1] * scaleY); g2.drawLine(x1, y1, x2, y1); g2.drawLine(x2, y1, x2, y2); }
-            g2.setFont(new Font("Arial", Font.PLAIN, 12)); g2.setColor(Color.BLUE); g2.fillRect(width - 150, 50, 15, 15); g2.setColor(Color.BLACK); g2.drawString("Original", width - 130, 62);
+            g2.setFont(TEXT_FONT); g2.setColor(Color.BLUE); g2.fillRect(width - 150, 50, 15, 15); g2.setColor(Color.BLACK); g2.drawString("Original", width - 130, 62);
             g2.setColor(Color.RED); g2.fillRect(width - 150, 70, 15, 15); g2.setColor(Color.BLACK); g2.drawString("Cuantizada", width - 130, 82);
-            double mse = 0; for (int i = 0; i < original.length; i++) { mse += Math.pow(original[i] - quantized[i], 2); } mse /= original.length; g2.setColor(Color.BLACK); g2.drawString(String.format("Error cuadrático medio: %.6f", mse), margin, height - 20);
+            g2.setColor(Color.BLACK); g2.drawString(String.format("Error cuadrático medio: %.6f", mse), margin, height - 20);
         }
     }
 
-    class BitsPanel extends JPanel { private boolean[] bits; private String title; public BitsPanel(boolean[] bits, String title) { this.bits = bits; this.title = title; setBackground(Color.WHITE); }
-        @Override protected void paintComponent(Graphics g) { super.paintComponent(g); Graphics2D g2 = (Graphics2D) g; g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            int width = getWidth(); int height = getHeight(); int margin = 50; g2.setFont(new Font("Arial", Font.BOLD, 14)); g2.drawString(title, width/2 - 40, 30);
-            int maxBitsToShow = Math.min(bits.length, 64); int bitWidth = (width - 2 * margin) / maxBitsToShow; int bitHeight = 40; int y = height/2 - bitHeight/2;
-            for (int i = 0; i < maxBitsToShow; i++) { int x = margin + i * bitWidth; if (bits[i]) { g2.setColor(new Color(0, 150, 0)); g2.fillRect(x, y - bitHeight, bitWidth - 2, bitHeight); } else { g2.setColor(new Color(150, 0, 0)); g2.fillRect(x, y, bitWidth - 2, bitHeight); } g2.setColor(Color.WHITE); g2.setFont(new Font("Arial", Font.BOLD, 12)); String bitValue = bits[i] ? "1" : "0"; g2.drawString(bitValue, x + bitWidth/2 - 4, y + 5); }
-            g2.setColor(Color.BLACK); g2.setStroke(new BasicStroke(2)); g2.drawLine(margin, y, width - margin, y); g2.setFont(new Font("Arial", Font.PLAIN, 12)); g2.drawString("Total de bits: " + bits.length, margin, height - 30); if (bits.length > maxBitsToShow) { g2.drawString("(Mostrando primeros " + maxBitsToShow + " bits)", margin, height - 15); }
+    class BitsPanel extends LayeredPanel { private boolean[] bits; private String title; public BitsPanel(boolean[] bits, String title) { this.bits = bits; this.title = title; }
+        @Override protected void paintStatic(Graphics2D g2, int width, int height) {
+            int margin = 50; g2.setColor(Color.BLACK); g2.setFont(TITLE_FONT); g2.drawString(title, width/2 - 40, 30);
+            int maxBitsToShow = Math.min(bits.length, 64); if (maxBitsToShow == 0) return; int bitWidth = (width - 2 * margin) / maxBitsToShow; int bitHeight = 40; int y = height/2 - bitHeight/2;
+            g2.setFont(BOLD_TEXT_FONT);
+            for (int i = 0; i < maxBitsToShow; i++) { int x = margin + i * bitWidth; if (bits[i]) { g2.setColor(new Color(0, 150, 0)); g2.fillRect(x, y - bitHeight, bitWidth - 2, bitHeight); } else { g2.setColor(new Color(150, 0, 0)); g2.fillRect(x, y, bitWidth - 2, bitHeight); } g2.setColor(Color.WHITE); String bitValue = bits[i] ? "1" : "0"; g2.drawString(bitValue, x + bitWidth/2 - 4, y + 5); }
+            g2.setColor(Color.BLACK); g2.setStroke(new BasicStroke(2)); g2.drawLine(margin, y, width - margin, y); g2.setFont(TEXT_FONT); g2.drawString("Total de bits: " + bits.length, margin, height - 30); if (bits.length > maxBitsToShow) { g2.drawString("(Mostrando primeros " + maxBitsToShow + " bits)", margin, height - 15); }
         }
     }
 
-    class SpectrumPanel extends JPanel {
-        private double[] samples; private double fs; public SpectrumPanel(double[] samples, double fs) { this.samples = samples; this.fs = fs; setBackground(Color.WHITE); }
-        @Override protected void paintComponent(Graphics g) { super.paintComponent(g); Graphics2D g2 = (Graphics2D) g; g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            int width = getWidth(); int height = getHeight(); int margin = 50; g2.setFont(new Font("Arial", Font.BOLD, 14)); g2.drawString("Espectro de Frecuencia (Aproximado)", width/2 - 120, 30);
-            int N = Math.min(samples.length, 256); double[] magnitude = new double[N/2]; for (int k = 0; k < N/2; k++) { double real = 0; double imag = 0; for (int n = 0; n < N; n++) { double angle = -2 * Math.PI * k * n / N; real += samples[n] * Math.cos(angle); imag += samples[n] * Math.sin(angle); } magnitude[k] = Math.sqrt(real * real + imag * imag); }
-            double maxMag = 0; for (double m : magnitude) if (m > maxMag) maxMag = m; if (maxMag > 0) for (int i = 0; i < magnitude.length; i++) magnitude[i] /= maxMag;
-            g2.setColor(Color.BLACK); g2.drawLine(margin, height - margin, width - margin, height - margin); g2.drawLine(margin, margin, margin, height - margin);
-            int barWidth = (width - 2 * margin) / Math.max(1, magnitude.length); for (int i = 0; i < magnitude.length; i++) { int x = margin + i * barWidth; int barHeight = (int)(magnitude[i] * (height - 2 * margin)); float hue = (float)i / magnitude.length; g2.setColor(Color.getHSBColor(hue, 0.8f, 0.9f)); g2.fillRect(x, height - margin - barHeight, barWidth - 1, barHeight); }
-            g2.setColor(Color.BLACK); g2.setFont(new Font("Arial", Font.PLAIN, 10)); g2.drawString("Frecuencia (Hz)", width/2 - 40, height - 10); g2.drawString("Magnitud", 5, margin - 5); g2.drawString("0", margin - 10, height - margin + 15); g2.drawString(String.format("%.0f", fs/2), width - margin - 20, height - margin + 15);
-        }
-    }
+    class SpectrumPanel extends LayeredPanel {
+        private final double[] magnitude; // Espectro de Welch normalizado (calculado en computeSpectra)
+        private final int segments; private final double fs;
+        public SpectrumPanel(double[] magnitude, int segments, double fs) { this.magnitude = magnitude; this.segments = segments; this.fs = fs; }
 
-    // Simple audio player for double[] samples (assumes normalized -1..1)
-    class AudioPlayer {
-        private Thread playThread;
-        private final AtomicBoolean running = new AtomicBoolean(false);
-        public void play(double[] samples, float fs) {
-            stop();
-            running.set(true);
-            playThread = new Thread(() -> {
-                AudioFormat fmt = new AudioFormat(fs, 16, 1, true, false);
-                try (SourceDataLine line = AudioSystem.getSourceDataLine(fmt)) {
-                    line.open(fmt, 4096);
-                    line.start();
-                    byte[] buffer = new byte[4096];
-                    int idx = 0; int n = samples.length;
-                    while (running.get() && idx < n) {
-                        int toWrite = Math.min((buffer.length/2), n - idx);
-                        int bi = 0;
-                        for (int i = 0; i < toWrite; i++) {
-                            int val = (int) Math.max(Math.min(32767, samples[idx+i]*32767), -32768);
-                            buffer[bi++] = (byte)(val & 0xff);
-                            buffer[bi++] = (byte)((val>>8) & 0xff);
-                        }
-                        line.write(buffer, 0, bi);
-                        idx += toWrite;
-                    }
-                    line.drain();
-                } catch (LineUnavailableException ex) {
-                    SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(SignalVisualizerGUI.this, "Audio line error: "+ex.getMessage()));
-                }
-            }, "audio-play");
-            playThread.start();
+        // El espectro no depende del zoom: se dibuja una vez en la capa estática
+        @Override protected void paintStatic(Graphics2D g2, int width, int height) {
+            int margin = 50; g2.setColor(Color.BLACK); g2.setFont(TITLE_FONT); g2.drawString("Espectro de Frecuencia (Welch)", width/2 - 110, 30);
+            double[] mag = magnitude;
+            g2.setColor(Color.BLACK); g2.drawLine(margin, height - margin, width - margin, height - margin); g2.drawLine(margin, margin, margin, height - margin);
+            // Una barra por bin si caben; si no, cada columna muestra el máximo de los bins que cubre
+            int plotWidth = Math.max(1, width - 2 * margin); int columns = Math.min(mag.length, plotWidth); double colWidth = (double) plotWidth / columns;
+            for (int c = 0; c < columns; c++) { int k0 = (int) ((long) c * mag.length / columns); int k1 = Math.max(k0 + 1, (int) ((long) (c + 1) * mag.length / columns)); double m = 0; for (int k = k0; k < k1; k++) if (mag[k] > m) m = mag[k];
+                int x = margin + (int) (c * colWidth); int w = Math.max(1, (int) ((c + 1) * colWidth) - (int) (c * colWidth) - (colWidth > 2 ? 1 : 0)); int barHeight = (int)(m * (height - 2 * margin)); float hue = (float) c / columns; g2.setColor(Color.getHSBColor(hue, 0.8f, 0.9f)); g2.fillRect(x, height - margin - barHeight, w, barHeight); }
+            g2.setColor(Color.BLACK); g2.setFont(LABEL_FONT); g2.drawString("Frecuencia (Hz)", width/2 - 40, height - 10); g2.drawString("Magnitud", 5, margin - 5); g2.drawString("0", margin - 10, height - margin + 15); g2.drawString(String.format("%.0f", fs/2), width - margin - 20, height - margin + 15);
+            g2.drawString(String.format("FFT %d puntos, %d segmentos, resolución %.1f Hz", 2 * (mag.length - 1), segments, fs / (2 * (mag.length - 1))), width - margin - 260, margin - 5);
         }
-        public void stop() { running.set(false); if (playThread!=null) { try { playThread.join(100); } catch (InterruptedException ignored) {} playThread=null; } }
     }
 
-    // Microphone realtime panel (uses a small buffer and paints it)
+    // Panel de micrófono en tiempo real: captura → buffer circular → PCM → Polar → ASK
     class MicrophonePanel extends JPanel {
-        private volatile double[] buffer = new double[0];
-        private TargetDataLine line;
-        private Thread captureThread;
-        private final AtomicBoolean capturing = new AtomicBoolean(false);
+        private static final float MIC_FS = 8000f;
+        private static final int BLOCK_SAMPLES = 256;              // 32 ms a 8 kHz
+        private static final int SCOPE_SAMPLES = (int) MIC_FS * 2; // Últimos 2 s de entrada
+
+        // Solo los escribe el hilo de proceso; el repintado tolera leerlos a medias
+        private final double[] scope = new double[SCOPE_SAMPLES];
+        private final double[] askScope = new double[SCOPE_SAMPLES];
+        private volatile int scopePos = 0;
+        private volatile int askScopePos = 0;
+
+        private RealtimeChain chain;
+        private final Timer refresh = new Timer(33, e -> { updateStats(); repaint(); });
+        private final JLabel stats = new JLabel(" ");
 
         public MicrophonePanel() {
             setBackground(Color.WHITE);
@@ -473,51 +718,98 @@ public class SignalVisualizerGUI extends JFrame {
             JButton stop = new JButton("Detener captura");
             start.addActionListener(e -> startCapture());
             stop.addActionListener(e -> stopCapture());
-            JPanel ctrl = new JPanel(new FlowLayout(FlowLayout.LEFT)); ctrl.add(start); ctrl.add(stop);
+            JPanel ctrl = new JPanel(new FlowLayout(FlowLayout.LEFT)); ctrl.add(start); ctrl.add(stop); ctrl.add(stats);
             setLayout(new BorderLayout()); add(ctrl, BorderLayout.NORTH);
         }
 
         private void startCapture() {
-            if (capturing.get()) return;
-            AudioFormat fmt = new AudioFormat(8000f, 16, 1, true, false);
-            DataLine.Info info = new DataLine.Info(TargetDataLine.class, fmt);
+            if (chain != null) return;
+            PCMEncoder encoder = new PCMEncoder((int) bitsSpinner.getValue(), -1.0, 1.0);
+            double carrierFreq = (double)(int) carrierFreqSpinner.getValue();
+            StreamingPipeline pipeline = new StreamingPipeline(encoder, carrierFreq, 1000, 0.1, 1.0, BLOCK_SAMPLES);
+            RealtimeChain c = new RealtimeChain(LineSource.microphone(MIC_FS), pipeline);
             try {
-                line = (TargetDataLine) AudioSystem.getLine(info);
-                line.open(fmt, 4096);
-                line.start();
-                capturing.set(true);
-                captureThread = new Thread(() -> {
-                    byte[] buf = new byte[2048];
-                    while (capturing.get()) {
-                        int r = line.read(buf, 0, buf.length);
-                        int samplesRead = r/2;
-                        double[] s = new double[samplesRead];
-                        for (int i=0;i<samplesRead;i++) {
-                            int lo = buf[2*i] & 0xff; int hi = buf[2*i+1];
-                            int val = (hi<<8) | lo;
-                            s[i] = val / 32768.0;
-                        }
-                        buffer = s;
-                        repaint();
-                        try { Thread.sleep(40); } catch (InterruptedException ignored) {}
-                    }
-                }, "mic-capture");
-                captureThread.start();
-            } catch (LineUnavailableException ex) {
-                JOptionPane.showMessageDialog(this, "No se pudo abrir el micrófono: "+ex.getMessage());
+                c.start(this::onBlock);
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage());
+                return;
             }
+            chain = c;
+            refresh.start();
         }
 
         private void stopCapture() {
-            capturing.set(false);
-            if (line!=null) { line.stop(); line.close(); line=null; }
-            if (captureThread!=null) { try { captureThread.join(100); } catch (InterruptedException ignored) {} captureThread=null; }
+            refresh.stop();
+            RealtimeChain c = chain;
+            chain = null;
+            if (c != null) {
+                // stop() espera a los hilos de la cadena (hasta ~2 s): fuera del EDT
+                Thread t = new Thread(c::stop, "mic-stop"); t.setDaemon(true); t.start();
+            }
+            repaint();
+        }
+
+        /**
+         * Actualiza la línea de estadísticas (en el temporizador, no al pintar)
+         */
+        private void updateStats() {
+            RealtimeChain c = chain;
+            if (c == null) return;
+            Throwable failure = c.getFailure();
+            stats.setText(failure != null ? "Error: " + failure.getMessage() : String.format(
+                    "Latencia %.1f ms (media %.1f, máx %.1f) | en buffer %d/%d | desbordamientos %d (%d muestras) | bloques %d",
+                    c.getLastLatencyMillis(), c.getMeanLatencyMillis(), c.getMaxLatencyMillis(),
+                    c.getBuffered(), c.getRingCapacity(), c.getOverrunEvents(), c.getOverrunSamples(), c.getBlocksProcessed()));
+        }
+
+        /**
+         * Copia el bloque a los osciloscopios circulares (hilo de proceso, sin reservar memoria)
+         */
+        private void onBlock(StreamingPipeline.Block block) {
+            scopePos = copyCircular(block.samples, block.nSamples, scope, scopePos);
+            askScopePos = copyCircular(block.ask, block.nAsk, askScope, askScopePos);
+        }
+
+        private int copyCircular(double[] src, int n, double[] dst, int pos) {
+            int from = Math.max(0, n - dst.length);
+            for (int i = from; i < n; i++) {
+                dst[pos] = src[i];
+                if (++pos == dst.length) pos = 0;
+            }
+            return pos;
+        }
+
+        @Override protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            int w = getWidth(), h = getHeight(), margin = 20, top = 50;
+            int plotW = w - 2 * margin, plotH = (h - top - margin) / 2 - 10;
+            if (plotW <= 0 || plotH <= 0) return;
+            g2.setColor(Color.BLACK); g2.setFont(LayeredPanel.BOLD_TEXT_FONT);
+            g2.drawString("Micrófono (últimos 2 s)", margin, top - 5);
+            g2.drawString("ASK en tiempo real (últimos 2 s)", margin, top + plotH + 15);
+            drawScope(g2, scope, scopePos, margin, top, plotW, plotH, Color.BLUE);
+            drawScope(g2, askScope, askScopePos, margin, top + plotH + 20, plotW, plotH, new Color(0, 150, 0));
         }
 
-        @Override protected void paintComponent(Graphics g) { super.paintComponent(g); Graphics2D g2=(Graphics2D)g; g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            int w=getWidth(), h=getHeight(); int margin=20; g2.setColor(Color.BLACK); g2.drawString("Micrófono (último buffer)", margin, 20);
-            double[] s = buffer; if (s==null || s.length==0) return; int plotH=h-40; int plotW=w-2*margin; int N = s.length; double max=Double.NEGATIVE_INFINITY,min=Double.POSITIVE_INFINITY; for (double v: s){ if (v>max) max=v; if (v<min) min=v;} if (max==min){max=min+1e-6;} double scaleY=(double)plotH/(max-min);
-            int prevX=margin; int prevY=margin+plotH/2; for (int i=0;i<N;i+=Math.max(1,N/plotW)) { int x = margin + i*plotW/N; int y = margin + plotH/2 - (int)((s[i]- (min+max)/2)*scaleY); g2.drawLine(prevX, prevY, x, y); prevX=x; prevY=y; }
+        /**
+         * Dibuja el buffer circular (de la muestra más antigua a la más nueva) como envolvente mín/máx por columna
+         */
+        private void drawScope(Graphics2D g2, double[] buf, int pos, int x0, int y0, int plotW, int plotH, Color color) {
+            g2.setColor(Color.LIGHT_GRAY); g2.drawRect(x0, y0, plotW, plotH);
+            g2.setColor(color);
+            int N = buf.length, mid = y0 + plotH / 2;
+            for (int x = 0; x < plotW; x++) {
+                int a = (int) ((long) x * N / plotW), b = (int) Math.max(a + 1, (long) (x + 1) * N / plotW);
+                double mn = Double.POSITIVE_INFINITY, mx = Double.NEGATIVE_INFINITY;
+                for (int i = a; i < b; i++) {
+                    double v = buf[(pos + i) % N];
+                    if (v < mn) mn = v;
+                    if (v > mx) mx = v;
+                }
+                g2.drawLine(x0 + x, mid - (int) (mx * plotH / 2), x0 + x, mid - (int) (mn * plotH / 2));
+            }
         }
     }
 }
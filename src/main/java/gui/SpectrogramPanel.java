@@ -0,0 +1,177 @@
+package gui;
+
+import logic.STFT;
+import models.SampleSource;
+import models.Spectrogram;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Espectrograma de una señal larga dibujado por mosaicos.
+ *
+ * Las tramas de la STFT se calculan una sola vez (en paralelo) con
+ * {@link #compute(SampleSource)}, fuera del EDT, y el panel solo las lee al
+ * repintar. Para dibujar se elige un nivel de zoom z en el que cada columna
+ * de la imagen resume 2^z tramas (el máximo en dB de cada bin), y la vista se
+ * compone con mosaicos de {@link #TILE_COLUMNS} columnas. Los mosaicos se
+ * guardan en una caché LRU indexada por (nivel, mosaico), así que al
+ * desplazarse por la grabación solo se generan los que aún no se han visto.
+ */
+public class SpectrogramPanel extends LayeredPanel {
+    static final int TILE_COLUMNS = 256;
+    private static final int MAX_TILES = 96;        // Mosaicos en caché (~25 MB con 512 bins)
+    private static final int FFT_SIZE = 512;
+    private static final int MIN_HOP = FFT_SIZE / 4;
+    private static final int MAX_FRAMES = 1 << 15;  // Acota la matriz a ~32 MB
+    private static final float DYNAMIC_RANGE_DB = 90f;
+    private static final int[] PALETTE = buildPalette();
+
+    private final Spectrogram spectrogram;
+    private double startFraction = 0.0;   // Inicio de la vista (0..1 del desplazamiento posible)
+    private double visibleFraction = 1.0; // Parte visible de la señal (0..1)
+    private int tilesRendered = 0;
+
+    private final Map<Long, BufferedImage> tiles = new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) { return size() > MAX_TILES; }
+    };
+
+    /**
+     * @param spectrogram Espectrograma ya calculado con {@link #compute(SampleSource)}
+     */
+    public SpectrogramPanel(Spectrogram spectrogram) {
+        this.spectrogram = spectrogram;
+    }
+
+    /**
+     * Calcula la STFT de toda la señal (costoso: llamar fuera del EDT)
+     */
+    public static Spectrogram compute(SampleSource source) {
+        // Aumentar el salto si la señal es tan larga que la matriz no cabría
+        int hop = (int) Math.max(MIN_HOP, (source.length() + MAX_FRAMES - 1) / MAX_FRAMES);
+        return new STFT(FFT_SIZE, hop).compute(source);
+    }
+
+    /**
+     * Ajusta la ventana visible (mismo criterio que el zoom/pan del visualizador)
+     *
+     * @param startFraction   Posición de la vista, de 0 (inicio) a 1 (final)
+     * @param visibleFraction Fracción de la señal que se ve (1 = toda)
+     */
+    public void setView(double startFraction, double visibleFraction) {
+        this.startFraction = Math.max(0, Math.min(1, startFraction));
+        this.visibleFraction = Math.max(1e-9, Math.min(1, visibleFraction));
+    }
+
+    /**
+     * @return Mosaicos generados desde que se creó el panel (para diagnóstico de la caché)
+     */
+    public int getTilesRendered() {
+        return tilesRendered;
+    }
+
+    @Override protected void paintStatic(Graphics2D g2, int width, int height) {
+        int margin = 50;
+        g2.setColor(Color.BLACK); g2.setFont(TITLE_FONT);
+        g2.drawString("Espectrograma (STFT)", width/2 - 80, 30);
+        g2.setFont(LABEL_FONT);
+        g2.drawString(String.format("%.0f Hz", spectrogram.getFs() / 2), 5, margin + 10);
+        g2.drawString("0 Hz", 15, height - margin);
+    }
+
+    @Override protected void paintData(Graphics2D g2, int width, int height) {
+        int margin = 50;
+        Spectrogram sg = spectrogram;
+        int frames = sg.getFrames();
+        int plotW = width - 2 * margin, plotH = height - 2 * margin;
+        if (frames == 0 || plotW <= 0 || plotH <= 0) return;
+
+        // Ventana visible en tramas y nivel de zoom: columnas de 2^z tramas, al menos tan finas como un píxel
+        double visibleFrames = Math.max(1.0, frames * visibleFraction);
+        double startFrame = startFraction * (frames - visibleFrames);
+        int z = 0;
+        while ((double) (1 << (z + 1)) <= visibleFrames / plotW && z < 30) z++;
+        double c0 = startFrame / (1 << z);
+        double c1 = (startFrame + visibleFrames) / (1 << z);
+        double pxPerColumn = plotW / (c1 - c0);
+
+        Shape oldClip = g2.getClip();
+        g2.clipRect(margin, margin, plotW, plotH);
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        int firstTile = (int) Math.floor(c0 / TILE_COLUMNS);
+        int lastTile = (int) Math.floor((Math.ceil(c1) - 1) / TILE_COLUMNS);
+        for (int t = firstTile; t <= lastTile; t++) {
+            BufferedImage img = tile(sg, z, t);
+            int x1 = margin + (int) Math.round(((long) t * TILE_COLUMNS - c0) * pxPerColumn);
+            int x2 = margin + (int) Math.round(((long) (t + 1) * TILE_COLUMNS - c0) * pxPerColumn);
+            g2.drawImage(img, x1, margin, x2, margin + plotH, 0, 0, TILE_COLUMNS, img.getHeight(), null);
+        }
+        g2.setClip(oldClip);
+
+        g2.setColor(Color.BLACK); g2.drawRect(margin, margin, plotW, plotH);
+        g2.setFont(LABEL_FONT);
+        double t0 = startFrame * sg.getHop() / sg.getFs();
+        double t1 = (startFrame + visibleFrames) * sg.getHop() / sg.getFs();
+        g2.drawString(String.format("%.3f s", t0), margin, height - margin + 15);
+        g2.drawString(String.format("%.3f s", t1), width - margin - 50, height - margin + 15);
+        g2.drawString(String.format("%d tramas, FFT %d, salto %d, nivel %d, mosaicos en caché %d",
+                frames, sg.getFftSize(), sg.getHop(), z, tiles.size()), margin, height - 10);
+    }
+
+    /**
+     * Devuelve el mosaico t del nivel z, generándolo si no está en caché
+     */
+    private BufferedImage tile(Spectrogram sg, int z, int t) {
+        long key = ((long) z << 32) | (t & 0xFFFFFFFFL);
+        BufferedImage img = tiles.get(key);
+        if (img == null) {
+            img = renderTile(sg, z, t);
+            tiles.put(key, img);
+            tilesRendered++;
+        }
+        return img;
+    }
+
+    private static BufferedImage renderTile(Spectrogram sg, int z, int t) {
+        int bins = sg.getBins(), frames = sg.getFrames();
+        float[] db = sg.data();
+        float top = sg.getMaxDb(), floor = top - DYNAMIC_RANGE_DB;
+        BufferedImage img = new BufferedImage(TILE_COLUMNS, bins, BufferedImage.TYPE_INT_RGB);
+        int[] column = new int[bins];
+        float[] peak = new float[bins];
+        for (int c = 0; c < TILE_COLUMNS; c++) {
+            long f0 = ((long) t * TILE_COLUMNS + c) << z;
+            long f1 = Math.min(frames, f0 + (1L << z));
+            if (f0 < 0 || f0 >= frames) continue; // Fuera de la señal: queda en negro
+            Arrays.fill(peak, Float.NEGATIVE_INFINITY);
+            for (long f = f0; f < f1; f++) {
+                int base = (int) f * bins;
+                for (int k = 0; k < bins; k++) if (db[base + k] > peak[k]) peak[k] = db[base + k];
+            }
+            for (int k = 0; k < bins; k++) {
+                int idx = (int) ((peak[k] - floor) / DYNAMIC_RANGE_DB * (PALETTE.length - 1));
+                column[bins - 1 - k] = PALETTE[Math.max(0, Math.min(PALETTE.length - 1, idx))]; // Frecuencias bajas abajo
+            }
+            img.setRGB(c, 0, 1, bins, column, 0, 1);
+        }
+        return img;
+    }
+
+    /**
+     * Escala negro → azul → rojo → amarillo → blanco
+     */
+    private static int[] buildPalette() {
+        int[] p = new int[256];
+        for (int i = 0; i < 256; i++) {
+            float v = i / 255f;
+            float r = Math.min(1f, Math.max(0f, 3 * v - 1));
+            float gr = Math.min(1f, Math.max(0f, 3 * v - 2));
+            float b = v < 0.33f ? 3 * v : Math.max(0f, 1 - 3 * (v - 0.33f)) + Math.max(0f, 3 * v - 2);
+            p[i] = new Color(r, gr, Math.min(1f, b)).getRGB();
+        }
+        return p;
+    }
+}
@@ -1,6 +1,7 @@
 package interfacee;
 
 import logic.*;
+import models.PackedBits;
 import models.Signal;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import java.io.IOException;
@@ -111,22 +112,17 @@ public class AudioSignalApp {
         System.out.println("\n--- Codificación PCM ---");
         PCMEncoder pcm = new PCMEncoder(8, -1.0, 1.0); // 8 bits, rango [-1,1]
         int[] levels = pcm.quantizeLevels(modSignal.getSamples());
-        boolean[][] bitsPerSample = pcm.levelsToBits(levels);
-        boolean[] pcmBits = pcm.flatten(bitsPerSample);
-        System.out.println("Bits PCM generados: " + pcmBits.length);
+        PackedBits pcmBits = pcm.levelsToPackedBits(levels);
+        System.out.println("Bits PCM generados: " + pcmBits.length());
 
         // 2. Codificación Polar
         System.out.println("\n--- Codificación Polar ---");
         double[] polarSignal = Polar.encode(pcmBits);
         System.out.println("Señal polar generada: " + polarSignal.length + " símbolos");
 
-        // 3. Generar portadora para ASK
+        // 3. Modulación ASK (la portadora de 2 kHz se genera al vuelo)
         System.out.println("\n--- Modulación ASK ---");
-        double duration = modSignal.getSamples().length / modSignal.getFs();
-        Signal carrier = ASKModulator.carrierSine(2000, modSignal.getFs(), duration, 1.0); // 2 kHz
-        
-        // 4. Modulación ASK
-        Signal askSignal = ASKModulator.modulate(pcmBits, carrier, 1000, 0.1, 1.0); // bitRate=1 kHz
+        Signal askSignal = ASKModulator.modulate(pcmBits, 2000, modSignal.getFs(), 1000, 0.1, 1.0); // bitRate=1 kHz
         System.out.println("Señal ASK generada: " + askSignal.getSamples().length + " muestras");
 
         // 5. Mostrar resultados
@@ -136,7 +132,7 @@ public class AudioSignalApp {
     /**
      * Muestra los resultados del procesamiento
      */
-    private static void showResults(Signal modSignal, boolean[] pcmBits, Signal askSignal) {
+    private static void showResults(Signal modSignal, PackedBits pcmBits, Signal askSignal) {
         System.out.println("\n=== RESULTADOS ===");
         
         System.out.println("Señal original (primeros 10 valores):");
@@ -146,8 +142,8 @@ public class AudioSignalApp {
         }
         
         System.out.println("\n\nBits PCM (primeros 32 bits):");
-        for (int i = 0; i < 32 && i < pcmBits.length; i++) {
-            System.out.print((pcmBits[i] ? "1" : "0"));
+        for (int i = 0; i < 32 && i < pcmBits.length(); i++) {
+            System.out.print((pcmBits.get(i) ? "1" : "0"));
             if ((i + 1) % 8 == 0) System.out.print(" "); // Espacio cada byte
         }
         
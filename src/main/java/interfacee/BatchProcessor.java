@@ -0,0 +1,438 @@
+package interfacee;
+
+import logic.AudioStreamReader;
+import logic.BitstreamWriter;
+import logic.CompandingQuantizer;
+import logic.DPCMEncoder;
+import logic.ImaAdpcmEncoder;
+import logic.PCMEncoder;
+import logic.Quantizer;
+import logic.Resampler;
+import logic.SampleEncoder;
+import logic.SignalContainerFile;
+import logic.SignalContainerWriter;
+import logic.StreamingPipeline;
+import logic.WavWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static interfacee.CliArgs.number;
+import static interfacee.CliArgs.value;
+
+/**
+ * Procesamiento por lotes sin interfaz gráfica.
+ *
+ * Recibe directorios o patrones glob de archivos de audio y pasa cada archivo
+ * por la cadena PCM → Polar → ASK por bloques ({@link StreamingPipeline}),
+ * así que la memoria por archivo es constante. Por cada entrada se escriben
+ * los bits PCM empaquetados ({@code .bits}) y la señal ASK ({@code .ask.wav})
+ * bajo el directorio de salida, conservando la ruta relativa; con
+ * {@code --format float32|int16} se escribe en su lugar un único contenedor
+ * binario ({@code .sgnc}, ver {@link SignalContainerFile}). Si dos entradas
+ * darían la misma salida (a.wav y a.mp3 en un directorio) no se procesa
+ * nada y se termina con código 2. Los archivos se
+ * reparten en un pool de hilos de tamaño fijo con cola acotada: si la cola se
+ * llena, el hilo principal procesa el siguiente archivo en lugar de encolarlo.
+ *
+ * Uso:
+ * <pre>
+ *   java -cp projectSignals.jar interfacee.BatchProcessor [opciones] &lt;directorio|patrón&gt;...
+ * </pre>
+ */
+public class BatchProcessor {
+
+    private static final String[] AUDIO_EXTENSIONS = {".wav", ".mp3", ".au", ".aiff", ".aif"};
+
+    private static final String USAGE = String.join("\n",
+            "Uso: BatchProcessor [opciones] <directorio|patrón>...",
+            "  Patrones glob: 'grabaciones/*.wav', 'datos/**/*.mp3'",
+            "Opciones:",
+            "  -o <dir>           Directorio de salida (por defecto batch-out)",
+            "  -j <n>             Hilos de trabajo (por defecto, núcleos disponibles)",
+            "  -r                 Recorrer subdirectorios de los directorios indicados",
+            "  --bits <n>         Bits por muestra PCM (por defecto 8)",
+            "  --law <ley>        uniform | mu | a: cuantización uniforme o G.711 de 8 bits (por defecto uniform)",
+            "  --codec <c>        pcm | dpcm | adpcm: DPCM e IMA ADPCM usan 4 bits por muestra (por defecto pcm)",
+            "  --carrier <Hz>     Frecuencia de la portadora ASK (por defecto 2000)",
+            "  --bitrate <bps>    Tasa de bits ASK (por defecto 1000)",
+            "  --fs <Hz>          Remuestrear antes de codificar; 0 = conservar (por defecto 8000)",
+            "  --max-seconds <s>  Procesar solo los primeros s segundos de cada archivo",
+            "  --format <f>       wav: .bits + .ask.wav (por defecto); float32 | int16: contenedor .sgnc",
+            "  --no-ask           Escribir solo los bits PCM");
+
+    /**
+     * Parámetros de la línea de comandos
+     */
+    static class Options {
+        Path outDir = Paths.get("batch-out");
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean recursive = false;
+        int bits = 8;
+        CompandingQuantizer.Law law; // null = uniforme
+        String codec = "pcm";
+        double carrier = 2000;
+        double bitRate = 1000;
+        double fs = 8000;
+        double maxSeconds = 0;
+        boolean writeAsk = true;
+        SignalContainerFile.SampleFormat container; // null = .bits + .ask.wav
+        List<String> inputs = new ArrayList<>();
+    }
+
+    /**
+     * Resultado de un archivo
+     */
+    static class FileResult {
+        final Path input;
+        long samples;
+        long bits;
+        long askSamples;
+        double fs;
+        long nanos;
+        Exception error;
+
+        FileResult(Path input) {
+            this.input = input;
+        }
+
+        double seconds() {
+            return fs > 0 ? samples / fs : 0;
+        }
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Map<Path, Path> files; // Archivo → directorio base (para la ruta relativa de salida)
+        try {
+            files = expand(options.inputs, options.recursive);
+        } catch (IOException e) {
+            System.err.println("Error al buscar archivos: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (files.isEmpty()) {
+            System.err.println("No se encontraron archivos de audio");
+            System.exit(1);
+            return;
+        }
+        List<String> collisions = collisions(files, options);
+        if (!collisions.isEmpty()) {
+            // Dos hilos escribirían el mismo archivo de salida a la vez
+            System.err.println("Error: varios archivos de entrada darían la misma salida:");
+            collisions.forEach(c -> System.err.println("  " + c));
+            System.exit(2);
+            return;
+        }
+
+        System.out.printf(Locale.ROOT, "Procesando %d archivos con %d hilos → %s%n",
+                files.size(), options.threads, options.outDir.toAbsolutePath());
+        List<FileResult> results = run(files, options);
+        System.exit(printSummary(results) ? 0 : 1);
+    }
+
+    /**
+     * Procesa todos los archivos en el pool y devuelve los resultados en el orden de entrada
+     */
+    static List<FileResult> run(Map<Path, Path> files, Options options) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(options.threads, options.threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(2 * options.threads), new ThreadPoolExecutor.CallerRunsPolicy());
+        List<FileResult> results = new ArrayList<>(files.size());
+        AtomicInteger done = new AtomicInteger();
+        int total = files.size();
+        for (Map.Entry<Path, Path> e : files.entrySet()) {
+            FileResult r = new FileResult(e.getKey());
+            results.add(r);
+            pool.execute(() -> {
+                processFile(r, e.getValue(), options);
+                printLine(r, done.incrementAndGet(), total);
+            });
+        }
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Seguir esperando: los lotes nocturnos pueden tardar horas
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        return results;
+    }
+
+    /**
+     * Lee, codifica y escribe un archivo por bloques
+     */
+    static void processFile(FileResult r, Path base, Options options) {
+        long t0 = System.nanoTime();
+        try (AudioStreamReader reader = AudioStreamReader.open(r.input.toString(), options.maxSeconds)) {
+            double fs = reader.getSampleRate();
+            StreamingPipeline.BlockSource source = reader;
+            if (options.fs > 0 && options.fs != fs) {
+                Resampler resampler = new Resampler(fs, options.fs);
+                source = Resampler.source(reader, resampler);
+                fs = resampler.getOutputRate(); // Igual a options.fs salvo si la relación se aproximó
+            }
+            r.fs = fs;
+
+            Path out = outputStem(r.input, base, options);
+            String stem = out.getFileName().toString();
+            if (out.getParent() != null) Files.createDirectories(out.getParent());
+            SampleEncoder pcm = encoder(options);
+            StreamingPipeline pipeline = new StreamingPipeline(pcm, options.carrier, options.bitRate, 0.1, 1.0);
+
+            if (options.container != null) {
+                Path containerPath = out.resolveSibling(stem + ".sgnc");
+                try (SignalContainerWriter w = new SignalContainerWriter(containerPath, (Quantizer) pcm, fs, options.bitRate,
+                        options.carrier, 0.1, 1.0, options.writeAsk ? options.container : null)) {
+                    r.askSamples = pipeline.run(source, fs, block -> {
+                        w.accept(block);
+                        r.samples += block.nSamples;
+                        r.bits += block.nBits;
+                    });
+                }
+                if (!options.writeAsk) r.askSamples = 0;
+                r.nanos = System.nanoTime() - t0;
+                return;
+            }
+
+            Path bitsPath = out.resolveSibling(stem + ".bits");
+            Path askPath = out.resolveSibling(stem + ".ask.wav");
+            try (BitstreamWriter bits = new BitstreamWriter(new BufferedOutputStream(Files.newOutputStream(bitsPath)));
+                 WavWriter ask = options.writeAsk ? new WavWriter(askPath, (float) fs) : null) {
+                r.askSamples = pipeline.run(source, fs, block -> {
+                    bits.write(block.bits, 0, block.nBits);
+                    if (ask != null) ask.write(block.ask, 0, block.nAsk);
+                    r.samples += block.nSamples;
+                });
+                r.bits = bits.getBitsWritten();
+            }
+        } catch (Exception e) {
+            r.error = e;
+        }
+        r.nanos = System.nanoTime() - t0;
+    }
+
+    private static synchronized void printLine(FileResult r, int done, int total) {
+        if (r.error != null) {
+            System.out.printf(Locale.ROOT, "[%d/%d] ERROR %s: %s%n", done, total, r.input, r.error.getMessage());
+            return;
+        }
+        double secs = r.nanos / 1e9;
+        System.out.printf(Locale.ROOT, "[%d/%d] %s  %.2f s de audio  %d bits  %d muestras ASK  %.0f ms  %.1fx tiempo real  %.2f Mmuestras/s%n",
+                done, total, r.input, r.seconds(), r.bits, r.askSamples, secs * 1e3,
+                r.seconds() / secs, (r.samples + r.askSamples) / secs / 1e6);
+    }
+
+    /**
+     * Imprime los totales
+     *
+     * @return true si todos los archivos se procesaron sin error
+     */
+    static boolean printSummary(List<FileResult> results) {
+        int failed = 0;
+        double audio = 0, cpu = 0;
+        long bits = 0, ask = 0;
+        for (FileResult r : results) {
+            if (r.error != null) { failed++; continue; }
+            audio += r.seconds();
+            cpu += r.nanos / 1e9;
+            bits += r.bits;
+            ask += r.askSamples;
+        }
+        System.out.printf(Locale.ROOT, "%nArchivos: %d correctos, %d con error%n", results.size() - failed, failed);
+        System.out.printf(Locale.ROOT, "Audio: %.1f s  Bits PCM: %d  Muestras ASK: %d%n", audio, bits, ask);
+        if (cpu > 0) {
+            System.out.printf(Locale.ROOT, "Tiempo de proceso (suma de hilos): %.1f s  → %.1fx tiempo real por hilo%n", cpu, audio / cpu);
+        }
+        return failed == 0;
+    }
+
+    static Options parse(String[] args) {
+        Options o = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            switch (a) {
+                case "-o": o.outDir = Paths.get(value(args, ++i, a)); break;
+                case "-j": o.threads = (int) number(args, ++i, a, 1); break;
+                case "-r": o.recursive = true; break;
+                case "--bits": o.bits = (int) number(args, ++i, a, 1); break;
+                case "--law": o.law = law(value(args, ++i, a)); break;
+                case "--codec": o.codec = value(args, ++i, a).toLowerCase(Locale.ROOT); break;
+                case "--carrier": o.carrier = number(args, ++i, a, 0); break;
+                case "--bitrate": o.bitRate = number(args, ++i, a, 0); break;
+                case "--fs": o.fs = number(args, ++i, a, 0); break;
+                case "--max-seconds": o.maxSeconds = number(args, ++i, a, 0); break;
+                case "--no-ask": o.writeAsk = false; break;
+                case "--format": o.container = format(value(args, ++i, a)); break;
+                case "-h": case "--help": throw new IllegalArgumentException("ayuda");
+                default:
+                    if (a.startsWith("-")) throw new IllegalArgumentException("Opción desconocida: " + a);
+                    o.inputs.add(a);
+            }
+        }
+        if (o.inputs.isEmpty()) throw new IllegalArgumentException("Falta el directorio o patrón de entrada");
+        if (o.bits > 16) throw new IllegalArgumentException("--bits debe estar entre 1 y 16");
+        if (!Arrays.asList("pcm", "dpcm", "adpcm").contains(o.codec)) {
+            throw new IllegalArgumentException("Códec desconocido: " + o.codec);
+        }
+        if (!o.codec.equals("pcm") && o.container != null) {
+            throw new IllegalArgumentException("El contenedor .sgnc solo admite --codec pcm");
+        }
+        if (o.bitRate <= 0) throw new IllegalArgumentException("--bitrate debe ser positivo");
+        return o;
+    }
+
+    /**
+     * Codificador de un archivo (los diferenciales tienen estado: uno por archivo)
+     */
+    private static SampleEncoder encoder(Options options) {
+        switch (options.codec) {
+            case "dpcm": return new DPCMEncoder(4, 0.5);
+            case "adpcm": return new ImaAdpcmEncoder();
+            default:
+                return options.law != null
+                        ? new CompandingQuantizer(options.law)
+                        : new PCMEncoder(options.bits, -1.0, 1.0);
+        }
+    }
+
+    private static CompandingQuantizer.Law law(String v) {
+        switch (v.toLowerCase(Locale.ROOT)) {
+            case "uniform": return null;
+            case "mu": return CompandingQuantizer.Law.MU_LAW;
+            case "a": return CompandingQuantizer.Law.A_LAW;
+            default: throw new IllegalArgumentException("Ley desconocida: " + v);
+        }
+    }
+
+    private static SignalContainerFile.SampleFormat format(String v) {
+        switch (v.toLowerCase(Locale.ROOT)) {
+            case "wav": return null;
+            case "float32": return SignalContainerFile.SampleFormat.FLOAT32;
+            case "int16": return SignalContainerFile.SampleFormat.INT16;
+            default: throw new IllegalArgumentException("Formato desconocido: " + v);
+        }
+    }
+
+    /**
+     * Convierte las entradas (archivos, directorios o patrones glob) en la
+     * lista de archivos de audio, sin repetidos y en orden alfabético por entrada
+     */
+    static Map<Path, Path> expand(List<String> inputs, boolean recursive) throws IOException {
+        Map<Path, Path> files = new LinkedHashMap<>();
+        for (String input : inputs) {
+            Path base;
+            List<Path> found;
+            if (!isGlob(input)) {
+                Path p = Paths.get(input).toAbsolutePath().normalize();
+                if (Files.isDirectory(p)) {
+                    base = p;
+                    try (Stream<Path> s = recursive ? Files.walk(p) : Files.list(p)) {
+                        found = s.filter(f -> Files.isRegularFile(f) && isAudio(f)).sorted().collect(Collectors.toList());
+                    }
+                } else if (Files.isRegularFile(p)) {
+                    base = p.getParent();
+                    found = List.of(p);
+                } else {
+                    throw new IOException("No existe: " + input);
+                }
+            } else {
+                // Directorio base = segmentos anteriores al primero con comodines
+                String norm = input.replace('\\', '/');
+                int glob = firstGlobChar(norm);
+                int slash = norm.lastIndexOf('/', glob);
+                base = Paths.get(slash < 0 ? "." : norm.substring(0, Math.max(1, slash))).toAbsolutePath().normalize();
+                String pattern = slash < 0 ? norm : norm.substring(slash + 1);
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+                int depth = pattern.contains("**") ? Integer.MAX_VALUE : pattern.split("/").length;
+                Path b = base;
+                if (!Files.isDirectory(b)) throw new IOException("No existe el directorio: " + b);
+                try (Stream<Path> s = Files.walk(b, depth)) {
+                    found = s.filter(f -> Files.isRegularFile(f) && matcher.matches(b.relativize(f)))
+                            .sorted().collect(Collectors.toList());
+                }
+            }
+            for (Path f : found) files.putIfAbsent(f, base);
+        }
+        return files;
+    }
+
+    private static boolean isGlob(String s) {
+        return firstGlobChar(s) < s.length();
+    }
+
+    private static int firstGlobChar(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') return i;
+        }
+        return s.length();
+    }
+
+    private static boolean isAudio(Path p) {
+        String name = p.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (String ext : AUDIO_EXTENSIONS) {
+            if (name.endsWith(ext)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ruta de salida sin extensión: se le añade .bits, .ask.wav o .sgnc
+     */
+    static Path outputStem(Path input, Path base, Options options) {
+        Path out = options.outDir.resolve(base.relativize(input)).normalize();
+        return out.resolveSibling(stripExtension(out.getFileName().toString()));
+    }
+
+    /**
+     * Busca entradas que producirían los mismos archivos de salida (por
+     * ejemplo a.wav y a.mp3 en el mismo directorio)
+     *
+     * @return Una línea por salida repetida, vacía si no hay colisiones
+     */
+    static List<String> collisions(Map<Path, Path> files, Options options) {
+        Map<Path, Path> seen = new LinkedHashMap<>();
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<Path, Path> e : files.entrySet()) {
+            Path stem = outputStem(e.getKey(), e.getValue(), options);
+            Path previous = seen.putIfAbsent(stem, e.getKey());
+            if (previous != null) {
+                out.add(previous + " y " + e.getKey() + " → " + stem);
+            }
+        }
+        return out;
+    }
+
+    private static String stripExtension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
@@ -0,0 +1,161 @@
+package interfacee;
+
+import logic.ASKDemodulator;
+import logic.Channel;
+import logic.ChannelSimulator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import static interfacee.CliArgs.integer;
+import static interfacee.CliArgs.number;
+import static interfacee.CliArgs.value;
+
+/**
+ * Curva BER frente a Eb/N0 del enlace ASK por simulación de Monte Carlo
+ * ({@link ChannelSimulator}), sin interfaz gráfica.
+ *
+ * Imprime una tabla por consola y, con {@code -o}, escribe el CSV.
+ *
+ * Uso:
+ * <pre>
+ *   java -cp projectSignals.jar interfacee.ChannelSweep [opciones]
+ * </pre>
+ */
+public class ChannelSweep {
+
+    private static final String USAGE = String.join("\n",
+            "Uso: ChannelSweep [opciones]",
+            "Opciones:",
+            "  --from <dB>          Primer punto de Eb/N0 (por defecto 0)",
+            "  --to <dB>            Último punto de Eb/N0 (por defecto 14)",
+            "  --step <dB>          Paso entre puntos (por defecto 1)",
+            "  --bits <n>           Bits simulados por punto (por defecto 1000000)",
+            "  --detection <d>      coherent | noncoherent (por defecto coherent)",
+            "  --fading <f>         none | rayleigh (por defecto none)",
+            "  --coherence-bits <n> Bits con desvanecimiento constante (por defecto 16)",
+            "  --attenuation <dB>   Atenuación del trayecto (por defecto 0)",
+            "  --carrier <Hz>       Frecuencia de la portadora (por defecto 2000)",
+            "  --fs <Hz>            Frecuencia de muestreo (por defecto 8000)",
+            "  --bitrate <bps>      Tasa de bits (por defecto 1000)",
+            "  --a0 <A> / --a1 <A>  Amplitudes para bit 0 y bit 1 (por defecto 0.1 y 1.0)",
+            "  --seed <n>           Semilla (por defecto 1)",
+            "  -j <n>               Hilos (por defecto, núcleos disponibles)",
+            "  -o <archivo.csv>     Escribir el resultado en CSV");
+
+    /**
+     * Parámetros de la línea de comandos
+     */
+    static class Options {
+        double from = 0, to = 14, step = 1;
+        long bits = 1_000_000;
+        ASKDemodulator.Detection detection = ASKDemodulator.Detection.COHERENT;
+        Channel.Fading fading = Channel.Fading.NONE;
+        int coherenceBits = 16;
+        double attenuation = 0;
+        double carrier = 2000, fs = 8000, bitRate = 1000;
+        double A0 = 0.1, A1 = 1.0;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path csv;
+    }
+
+    public static void main(String[] args) {
+        Options o;
+        try {
+            o = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        int n = (int) Math.floor((o.to - o.from) / o.step + 1e-9) + 1;
+        double[] points = new double[n];
+        for (int i = 0; i < n; i++) points[i] = o.from + i * o.step;
+
+        ChannelSimulator sim = new ChannelSimulator(o.detection, o.carrier, o.fs, o.bitRate, o.A0, o.A1,
+                o.attenuation, o.fading, o.coherenceBits);
+        ForkJoinPool pool = new ForkJoinPool(o.threads);
+        long t0 = System.nanoTime();
+        List<ChannelSimulator.Point> result;
+        try {
+            result = sim.sweep(points, o.bits, o.seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        System.out.println("Eb/N0(dB)  SNR(dB)        BER     teórica   errores");
+        for (ChannelSimulator.Point p : result) {
+            System.out.printf(Locale.ROOT, "%9.2f %8.2f %10.3e %11s %9d%n", p.ebN0Db, p.snrDb, p.ber(),
+                    Double.isNaN(p.theory) ? "-" : String.format(Locale.ROOT, "%.3e", p.theory), p.errors);
+        }
+        System.out.printf(Locale.ROOT, "%d bits en %.2f s con %d hilos (%.1f Mbits/s)%n",
+                o.bits * n, secs, o.threads, o.bits * n / secs / 1e6);
+
+        if (o.csv != null) {
+            try (Writer w = Files.newBufferedWriter(o.csv, StandardCharsets.UTF_8)) {
+                ChannelSimulator.writeCsv(result, w);
+            } catch (IOException e) {
+                System.err.println("Error al escribir " + o.csv + ": " + e.getMessage());
+                System.exit(1);
+            }
+        }
+    }
+
+    static Options parse(String[] args) {
+        Options o = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            switch (a) {
+                case "--from": o.from = number(args, ++i, a, -Double.MAX_VALUE); break;
+                case "--to": o.to = number(args, ++i, a, -Double.MAX_VALUE); break;
+                case "--step": o.step = number(args, ++i, a, 0); break;
+                case "--bits": o.bits = (long) number(args, ++i, a, 1); break;
+                case "--detection": o.detection = detection(value(args, ++i, a)); break;
+                case "--fading": o.fading = fading(value(args, ++i, a)); break;
+                case "--coherence-bits": o.coherenceBits = (int) number(args, ++i, a, 1); break;
+                case "--attenuation": o.attenuation = number(args, ++i, a, -Double.MAX_VALUE); break;
+                case "--carrier": o.carrier = number(args, ++i, a, 0); break;
+                case "--fs": o.fs = number(args, ++i, a, 0); break;
+                case "--bitrate": o.bitRate = number(args, ++i, a, 0); break;
+                case "--a0": o.A0 = number(args, ++i, a, -Double.MAX_VALUE); break;
+                case "--a1": o.A1 = number(args, ++i, a, -Double.MAX_VALUE); break;
+                case "--seed": o.seed = integer(args, ++i, a); break;
+                case "-j": o.threads = (int) number(args, ++i, a, 1); break;
+                case "-o": o.csv = Paths.get(value(args, ++i, a)); break;
+                case "-h": case "--help": throw new IllegalArgumentException("ayuda");
+                default: throw new IllegalArgumentException("Opción desconocida: " + a);
+            }
+        }
+        if (o.step <= 0) throw new IllegalArgumentException("--step debe ser positivo");
+        if (o.to < o.from) throw new IllegalArgumentException("--to debe ser mayor o igual que --from");
+        if (o.bitRate <= 0 || o.fs <= 0) throw new IllegalArgumentException("--fs y --bitrate deben ser positivos");
+        return o;
+    }
+
+    private static ASKDemodulator.Detection detection(String v) {
+        switch (v.toLowerCase(Locale.ROOT)) {
+            case "coherent": return ASKDemodulator.Detection.COHERENT;
+            case "noncoherent": return ASKDemodulator.Detection.NONCOHERENT;
+            default: throw new IllegalArgumentException("Detección desconocida: " + v);
+        }
+    }
+
+    private static Channel.Fading fading(String v) {
+        switch (v.toLowerCase(Locale.ROOT)) {
+            case "none": return Channel.Fading.NONE;
+            case "rayleigh": return Channel.Fading.RAYLEIGH;
+            default: throw new IllegalArgumentException("Desvanecimiento desconocido: " + v);
+        }
+    }
+}
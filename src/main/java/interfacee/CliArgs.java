@@ -0,0 +1,46 @@
+package interfacee;
+
+/**
+ * Lectura de valores de opciones de línea de comandos, común a
+ * {@link BatchProcessor} y {@link ChannelSweep}. Los errores se señalan con
+ * IllegalArgumentException, que cada programa muestra junto con su uso.
+ */
+final class CliArgs {
+
+    private CliArgs() {
+    }
+
+    /**
+     * @return Valor de la opción en args[i]
+     */
+    static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException("Falta el valor de " + option);
+        return args[i];
+    }
+
+    /**
+     * @return Valor numérico de la opción, no menor que min
+     */
+    static double number(String[] args, int i, String option, double min) {
+        String v = value(args, i, option);
+        try {
+            double d = Double.parseDouble(v);
+            if (d < min) throw new IllegalArgumentException(option + " debe ser al menos " + min);
+            return d;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no numérico para " + option + ": " + v);
+        }
+    }
+
+    /**
+     * Valor entero de 64 bits, sin pasar por double (semillas, por ejemplo)
+     */
+    static long integer(String[] args, int i, String option) {
+        String v = value(args, i, option);
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor entero no válido para " + option + ": " + v);
+        }
+    }
+}
@@ -31,13 +31,10 @@ public class SignalApp {
         // 3. Codificación Polar
         double[] polarSignal = Polar.encode(pcmBits);
 
-        // 4. Generar portadora para ASK
-        Signal carrier = ASKModulator.carrierSine(2000, fs, duration, 1.0); // 2 kHz
+        // 4. Modulación ASK con la señal PCM (portadora de 2 kHz generada al vuelo)
+        Signal askSignal = ASKModulator.modulate(pcmBits, 2000, fs, 1000, 0.1, 1.0); // bitRate=1 kHz
 
-        // 5. Modulación ASK con la señal PCM polar
-        Signal askSignal = ASKModulator.modulate(pcmBits, carrier, 1000, 0.1, 1.0); // bitRate=1 kHz
-
-        // 6. Mostrar resultados
+        // 5. Mostrar resultados
         System.out.println("Señal moduladora (primeros 10 valores):");
         for (int i = 0; i < 10 && i < modSignal.getSamples().length; i++) {
             System.out.printf("%.4f ", modSignal.getSamples()[i]);
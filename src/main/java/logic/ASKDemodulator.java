@@ -0,0 +1,315 @@
+package logic;
+
+import models.Signal;
+
+import java.util.Arrays;
+
+/**
+ * Demodulador ASK: recupera los bits de una señal generada por
+ * {@link ASKModulator}.
+ *
+ * Para cada bit se correlaciona la señal con la portadora en fase y en
+ * cuadratura (integración y volcado sobre las samplesPerBit muestras del bit):
+ * <pre>
+ *   I = Σ x[n]·sin(θn)      Q = Σ x[n]·cos(θn)      θ = 2π·fc/fs
+ * </pre>
+ * <ul>
+ *   <li>{@link Detection#COHERENT}: se conoce la fase de la portadora y el
+ *       estadístico es la proyección (2/spb)·(I·cos φ − Q·sin φ), con φ el
+ *       desfase debido al retardo del bit. Conserva el signo de la amplitud.</li>
+ *   <li>{@link Detection#NONCOHERENT}: detección de envolvente,
+ *       (2/spb)·√(I² + Q²); no depende de la fase de la portadora pero con
+ *       ruido necesita unos 1-2 dB más de SNR para la misma tasa de error.</li>
+ * </ul>
+ * Cada estadístico se compara con el umbral (A0 + A1)/2 (en detección de
+ * envolvente, (|A0| + |A1|)/2). Se supone que la portadora completa varios
+ * ciclos por bit, como en los valores por defecto del proyecto.
+ * <p>
+ * Sincronismo de bit: con un retardo fijo conocido (0 para la salida directa
+ * del modulador) o, con {@link #AUTO_TIMING}, estimado a partir de los
+ * primeros {@link #ACQUISITION_BITS} bits eligiendo el desfase que más aleja
+ * los estadísticos del umbral (un desfase incorrecto mezcla bits vecinos y
+ * los acerca al umbral). El retardo se busca en [0, samplesPerBit).
+ * <p>
+ * La demodulación es por bloques: {@link #process} puede llamarse con trozos
+ * de cualquier tamaño y conserva entre llamadas el bit a medio integrar y la
+ * fase de la portadora, así que el resultado no depende de cómo se trocee la
+ * señal. Las referencias seno/coseno se generan por rotación compleja,
+ * recalculadas con {@code Math.sin/Math.cos} cada
+ * {@link Oscillator#RESYNC_INTERVAL} muestras, sin asignar memoria por bloque.
+ *
+ * @author xexpl
+ */
+public class ASKDemodulator {
+
+    /**
+     * Tipo de detección
+     */
+    public enum Detection {
+        COHERENT, NONCOHERENT
+    }
+
+    /** Valor de retardo que activa la estimación automática del sincronismo de bit */
+    public static final int AUTO_TIMING = -1;
+
+    /** Bits que se usan para estimar el sincronismo */
+    public static final int ACQUISITION_BITS = 64;
+
+    private final Detection detection;
+    private final double fc, fs;
+    private final int samplesPerBit;
+    private final double threshold;
+    private final double scale;               // 2 / samplesPerBit
+    private final double sinDelta, cosDelta;
+    private final boolean autoTiming;
+
+    private int delay;                        // Retardo del primer bit (muestras), o AUTO_TIMING
+    private double cosPhi, sinPhi;            // Desfase de la portadora por el retardo (coherente)
+
+    // Estado entre bloques
+    private long n = 0;                       // Índice absoluto de la próxima muestra
+    private double s, c;                      // sin y cos de θ·n
+    private double accI, accQ;                // Integradores del bit en curso
+    private int inBit = 0;                    // Muestras integradas del bit en curso
+    private long bitsDecoded = 0;
+
+    // Ventana de adquisición del modo automático
+    private double[] acquisition;
+    private int acquired = 0;
+
+    /**
+     * @param detection Tipo de detección
+     * @param fc        Frecuencia de la portadora (Hz)
+     * @param fs        Frecuencia de muestreo (Hz)
+     * @param bitRate   Tasa de bits (bits por segundo)
+     * @param A0        Amplitud para bit 0
+     * @param A1        Amplitud para bit 1
+     * @param delay     Muestras antes del primer bit, o {@link #AUTO_TIMING}
+     */
+    public ASKDemodulator(Detection detection, double fc, double fs, double bitRate,
+                          double A0, double A1, int delay) {
+        if (delay < AUTO_TIMING) {
+            throw new IllegalArgumentException("Retardo no válido: " + delay);
+        }
+        this.detection = detection;
+        this.fc = fc;
+        this.fs = fs;
+        this.samplesPerBit = ASKModulator.samplesPerBit(fs, bitRate);
+        this.threshold = detection == Detection.COHERENT
+                ? (A0 + A1) / 2
+                : (Math.abs(A0) + Math.abs(A1)) / 2;
+        this.scale = 2.0 / samplesPerBit;
+        double delta = 2 * Math.PI * fc / fs;
+        this.sinDelta = Math.sin(delta);
+        this.cosDelta = Math.cos(delta);
+        this.autoTiming = delay == AUTO_TIMING;
+        reset(delay);
+    }
+
+    /**
+     * Demodulador sincronizado con la salida directa del modulador (retardo 0)
+     */
+    public ASKDemodulator(Detection detection, double fc, double fs, double bitRate, double A0, double A1) {
+        this(detection, fc, fs, bitRate, A0, A1, 0);
+    }
+
+    /**
+     * Demodula una señal completa
+     *
+     * @return Bits recuperados (uno por cada bit completo de la señal)
+     */
+    public static boolean[] demodulate(Signal ask, Detection detection, double fc, double bitRate,
+                                       double A0, double A1) {
+        ASKDemodulator d = new ASKDemodulator(detection, fc, ask.getFs(), bitRate, A0, A1);
+        double[] x = ask.getSamples();
+        boolean[] bits = new boolean[d.maxBits(x.length)];
+        int nBits = d.process(x, 0, x.length, bits, 0);
+        nBits += d.finish(bits, nBits);
+        return nBits == bits.length ? bits : Arrays.copyOf(bits, nBits);
+    }
+
+    /**
+     * Procesa un bloque de muestras
+     *
+     * @param x      Muestras de la señal ASK
+     * @param off    Posición inicial
+     * @param len    Número de muestras
+     * @param out    Destino de los bits decididos, con espacio para {@link #maxBits}(len)
+     * @param outOff Posición inicial en el destino
+     * @return       Número de bits escritos
+     */
+    public int process(double[] x, int off, int len, boolean[] out, int outOff) {
+        if (acquisition != null) {
+            // Acumular la ventana de adquisición; al llenarse, estimar el retardo y demodularla
+            int take = Math.min(len, acquisition.length - acquired);
+            System.arraycopy(x, off, acquisition, acquired, take);
+            acquired += take;
+            if (acquired < acquisition.length) return 0;
+            int written = releaseAcquisition(out, outOff);
+            return written + integrate(x, off + take, len - take, out, outOff + written);
+        }
+        return integrate(x, off, len, out, outOff);
+    }
+
+    /**
+     * Termina la señal: si todavía se estaba adquiriendo el sincronismo, se
+     * estima con lo recibido y se demodula. El bit incompleto final se descarta.
+     *
+     * @return Número de bits escritos
+     */
+    public int finish(boolean[] out, int outOff) {
+        if (acquisition == null) return 0;
+        return releaseAcquisition(out, outOff);
+    }
+
+    private int releaseAcquisition(boolean[] out, int outOff) {
+        double[] window = acquisition;
+        int count = acquired;
+        acquisition = null;
+        setDelay(estimateDelay(window, count));
+        return integrate(window, 0, count, out, outOff);
+    }
+
+    private int integrate(double[] x, int off, int len, boolean[] out, int outOff) {
+        int written = 0;
+        int end = off + len;
+        int i = off;
+        // Muestras previas al primer bit
+        while (i < end && n < delay) {
+            i++;
+            advance();
+        }
+        for (; i < end; i++) {
+            double v = x[i];
+            accI += v * s;
+            accQ += v * c;
+            advance();
+            if (++inBit == samplesPerBit) {
+                out[outOff + written++] = decide(accI, accQ);
+                accI = 0;
+                accQ = 0;
+                inBit = 0;
+            }
+        }
+        bitsDecoded += written;
+        return written;
+    }
+
+    private boolean decide(double i, double q) {
+        double z = detection == Detection.COHERENT
+                ? scale * (i * cosPhi - q * sinPhi)
+                : scale * Math.sqrt(i * i + q * q);
+        return z > threshold;
+    }
+
+    /**
+     * Desfase que maximiza la distancia media de las envolventes al umbral.
+     * Se usa la envolvente también en detección coherente: la proyección con
+     * un desfase erróneo puede invertir el signo y parecer una decisión clara.
+     */
+    private int estimateDelay(double[] x, int count) {
+        // Sumas acumuladas de x·sin y x·cos: la integral de cualquier bit es una resta
+        double[] pI = new double[count + 1];
+        double[] pQ = new double[count + 1];
+        for (int k = 0; k < count; k++) {
+            double theta = 2 * Math.PI * fc * (k / fs);
+            pI[k + 1] = pI[k] + x[k] * Math.sin(theta);
+            pQ[k + 1] = pQ[k] + x[k] * Math.cos(theta);
+        }
+        double envelopeThreshold = detection == Detection.COHERENT ? Math.abs(threshold) : threshold;
+        int best = 0;
+        double bestScore = -1;
+        for (int d = 0; d < samplesPerBit; d++) {
+            double score = 0;
+            int windows = 0;
+            for (int from = d; from + samplesPerBit <= count; from += samplesPerBit) {
+                double i = pI[from + samplesPerBit] - pI[from];
+                double q = pQ[from + samplesPerBit] - pQ[from];
+                score += Math.abs(scale * Math.sqrt(i * i + q * q) - envelopeThreshold);
+                windows++;
+            }
+            // Media y no suma: los desfases grandes caben un bit menos en la ventana
+            if (windows > 0) score /= windows;
+            if (score > bestScore) {
+                bestScore = score;
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    private void setDelay(int delay) {
+        this.delay = delay;
+        // El bit que empieza en n lleva la portadora del modulador en n - delay
+        double phi = delay > 0 ? 2 * Math.PI * fc * (delay / fs) : 0;
+        this.cosPhi = Math.cos(phi);
+        this.sinPhi = Math.sin(phi);
+    }
+
+    private void advance() {
+        n++;
+        if ((n & (Oscillator.RESYNC_INTERVAL - 1)) == 0) {
+            resync();
+        } else {
+            double s1 = s * cosDelta + c * sinDelta;
+            c = c * cosDelta - s * sinDelta;
+            s = s1;
+        }
+    }
+
+    private void resync() {
+        double theta = 2 * Math.PI * fc * (n / fs);
+        s = Math.sin(theta);
+        c = Math.cos(theta);
+    }
+
+    /**
+     * Vuelve al estado inicial (mismo retardo, o nueva adquisición en modo automático)
+     */
+    public void reset() {
+        reset(autoTiming ? AUTO_TIMING : delay);
+    }
+
+    private void reset(int delay) {
+        n = 0;
+        accI = 0;
+        accQ = 0;
+        inBit = 0;
+        bitsDecoded = 0;
+        setDelay(delay);
+        acquisition = autoTiming ? new double[(ACQUISITION_BITS + 1) * samplesPerBit] : null;
+        acquired = 0;
+        resync();
+    }
+
+    /**
+     * @return Máximo de bits que puede producir una llamada a {@link #process} con len muestras
+     */
+    public int maxBits(int len) {
+        int pending = acquisition != null ? acquisition.length : samplesPerBit;
+        return (len + pending) / samplesPerBit + 1;
+    }
+
+    /**
+     * @return Retardo del primer bit en muestras ({@link #AUTO_TIMING} mientras se adquiere)
+     */
+    public int getDelay() {
+        return acquisition != null ? AUTO_TIMING : delay;
+    }
+
+    public int getSamplesPerBit() {
+        return samplesPerBit;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public long getBitsDecoded() {
+        return bitsDecoded;
+    }
+
+    public Detection getDetection() {
+        return detection;
+    }
+}
@@ -4,6 +4,7 @@
  */
 package logic;
 
+import models.PackedBits;
 import models.Signal;
 
 /**
@@ -34,9 +35,30 @@ public class ASKModulator {
         return new Signal(s, fs);
     }
 
+    /**
+     * Genera una portadora seno eligiendo el método de cálculo
+     *
+     * @param fc        Frecuencia de la portadora (Hz)
+     * @param fs        Frecuencia de muestreo (Hz)
+     * @param duration  Duración de la señal (s)
+     * @param amplitude Amplitud de la portadora
+     * @param mode      Método de cálculo del seno (ver {@link Oscillator})
+     * @return          Objeto Signal con la onda seno generada
+     */
+    public static Signal carrierSine(double fc, double fs, double duration, double amplitude, Oscillator.Mode mode) {
+        int N = (int) Math.round(duration * fs);  // Número de muestras
+        double[] s = new double[N];
+        new Oscillator(mode, fc, fs, amplitude).fill(s, 0, N);
+        return new Signal(s, fs);
+    }
+
     /**
      * Modulación ASK (Amplitude Shift Keying)
      *
+     * Las muestras para las que la portadora no alcanza quedan en cero; si no se
+     * tiene ya una portadora de longitud suficiente es preferible la variante
+     * fusionada {@link #modulate(boolean[], double, double, double, double, double, double[])}.
+     *
      * @param bits      Arreglo de bits boolean[] a modular
      * @param carrier   Señal portadora
      * @param bitRate   Tasa de bits (bits por segundo)
@@ -52,8 +74,12 @@ public class ASKModulator {
         int N = samplesPerBit * bits.length;
         double[] y = new double[N]; // Arreglo de la señal modulada
 
-        // Iteramos sobre cada bit
-        for (int i = 0; i < bits.length; i++) {
+        // Los bits cuya portadora está completa los procesa el núcleo (escalar o SIMD)
+        int fullBits = Math.min(bits.length, carrier.getSamples().length / samplesPerBit);
+        Kernels.get().modulate(bits, 0, fullBits, carrier.getSamples(), 0, samplesPerBit, A0, A1, y, 0);
+
+        // Iteramos sobre cada bit restante
+        for (int i = fullBits; i < bits.length; i++) {
             double A = bits[i] ? A1 : A0; // Seleccionamos amplitud según el bit
 
             // Iteramos sobre cada muestra que corresponde a ese bit
@@ -69,5 +95,199 @@ public class ASKModulator {
         // Devolvemos la señal modulada encapsulada en un objeto Signal
         return new Signal(y, carrier.getFs());
     }
-}
 
+    /**
+     * Modulación ASK de una secuencia de bits empaquetada
+     * (mismo resultado que {@link #modulate(boolean[], Signal, double, double, double)})
+     *
+     * @param bits      Secuencia de bits empaquetada
+     * @param carrier   Señal portadora
+     * @param bitRate   Tasa de bits (bits por segundo)
+     * @param A0        Amplitud para bit 0
+     * @param A1        Amplitud para bit 1
+     * @return          Señal modulada ASK
+     */
+    public static Signal modulate(PackedBits bits, Signal carrier, double bitRate, double A0, double A1) {
+        int samplesPerBit = samplesPerBit(carrier.getFs(), bitRate);
+        long total = bits.length() * samplesPerBit;
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Señal ASK demasiado larga para un arreglo: " + total + " muestras");
+        }
+        double[] c = carrier.getSamples();
+        double[] y = new double[(int) total];
+        PackedBits.Reader reader = bits.reader();
+
+        int n = 0;
+        while (reader.hasNext()) {
+            double A = reader.nextBit() ? A1 : A0; // Seleccionamos amplitud según el bit
+            for (int k = 0; k < samplesPerBit; k++, n++) {
+                y[n] = (n < c.length) ? A * c[n] : 0.0;
+            }
+        }
+        return new Signal(y, carrier.getFs());
+    }
+
+    /**
+     * Modulación ASK fusionada: genera la portadora al vuelo y aplica la
+     * amplitud A0/A1 en una sola pasada sobre los bits, sin arreglo de portadora.
+     * La salida siempre tiene bits.length * samplesPerBit muestras.
+     *
+     * @param bits      Arreglo de bits a modular
+     * @param fc        Frecuencia de la portadora (Hz)
+     * @param fs        Frecuencia de muestreo (Hz)
+     * @param bitRate   Tasa de bits (bits por segundo)
+     * @param A0        Amplitud para bit 0
+     * @param A1        Amplitud para bit 1
+     * @return          Señal modulada ASK
+     */
+    public static Signal modulate(boolean[] bits, double fc, double fs, double bitRate, double A0, double A1) {
+        double[] y = new double[modulatedLength(bits.length, fs, bitRate)];
+        modulate(bits, fc, fs, bitRate, A0, A1, y);
+        return new Signal(y, fs);
+    }
+
+    /**
+     * Modulación ASK fusionada escribiendo en un buffer del llamador
+     *
+     * @param bits      Arreglo de bits a modular
+     * @param fc        Frecuencia de la portadora (Hz)
+     * @param fs        Frecuencia de muestreo (Hz)
+     * @param bitRate   Tasa de bits (bits por segundo)
+     * @param A0        Amplitud para bit 0
+     * @param A1        Amplitud para bit 1
+     * @param out       Buffer destino, de al menos {@link #modulatedLength} muestras
+     * @return          Número de muestras escritas
+     */
+    public static int modulate(boolean[] bits, double fc, double fs, double bitRate,
+                               double A0, double A1, double[] out) {
+        int samplesPerBit = samplesPerBit(fs, bitRate);
+        Oscillator osc = new Oscillator(Oscillator.Mode.EXACT, fc, fs, 1.0);
+        modulate(bits, 0, bits.length, osc, samplesPerBit, A0, A1, out, 0);
+        return bits.length * samplesPerBit;
+    }
+
+    /**
+     * Modulación ASK fusionada de una secuencia de bits empaquetada
+     */
+    public static Signal modulate(PackedBits bits, double fc, double fs, double bitRate, double A0, double A1) {
+        double[] y = new double[modulatedLength(bits.length(), fs, bitRate)];
+        modulate(bits, fc, fs, bitRate, A0, A1, y);
+        return new Signal(y, fs);
+    }
+
+    /**
+     * Modulación ASK fusionada de una secuencia empaquetada escribiendo en un buffer del llamador
+     *
+     * @return Número de muestras escritas
+     */
+    public static int modulate(PackedBits bits, double fc, double fs, double bitRate,
+                               double A0, double A1, double[] out) {
+        int samplesPerBit = samplesPerBit(fs, bitRate);
+        int nBits = modulatedLength(bits.length(), fs, bitRate) / samplesPerBit;
+        Oscillator osc = new Oscillator(Oscillator.Mode.EXACT, fc, fs, 1.0);
+        modulate(bits, 0, nBits, osc, samplesPerBit, A0, A1, out, 0);
+        return nBits * samplesPerBit;
+    }
+
+    /**
+     * Núcleo de la modulación fusionada: para cada bit el oscilador escribe
+     * samplesPerBit muestras ya multiplicadas por A0 o A1. El oscilador conserva
+     * su posición, así que llamadas sucesivas continúan la fase de la portadora.
+     *
+     * @param bits          Arreglo de bits
+     * @param off           Posición del primer bit
+     * @param len           Número de bits
+     * @param osc           Oscilador de la portadora (amplitud 1 normalmente)
+     * @param samplesPerBit Muestras de portadora por bit
+     * @param A0            Amplitud para bit 0
+     * @param A1            Amplitud para bit 1
+     * @param out           Arreglo destino (len * samplesPerBit muestras)
+     * @param outOff        Posición inicial en el destino
+     */
+    public static void modulate(boolean[] bits, int off, int len, Oscillator osc, int samplesPerBit,
+                                double A0, double A1, double[] out, int outOff) {
+        int idx = outOff;
+        for (int i = 0; i < len; i++) {
+            osc.fill(out, idx, samplesPerBit, bits[off + i] ? A1 : A0);
+            idx += samplesPerBit;
+        }
+    }
+
+    /**
+     * Variante del núcleo fusionado que lee los bits de una secuencia empaquetada
+     */
+    public static void modulate(PackedBits bits, long start, int len, Oscillator osc, int samplesPerBit,
+                                double A0, double A1, double[] out, int outOff) {
+        PackedBits.Reader reader = bits.reader();
+        reader.seek(start);
+        int idx = outOff;
+        for (int i = 0; i < len; i++) {
+            osc.fill(out, idx, samplesPerBit, reader.nextBit() ? A1 : A0);
+            idx += samplesPerBit;
+        }
+    }
+
+    /**
+     * Número de muestras de la señal ASK para una cantidad de bits
+     *
+     * @param nBits   Número de bits
+     * @param fs      Frecuencia de muestreo (Hz)
+     * @param bitRate Tasa de bits (bits por segundo)
+     * @return        nBits * samplesPerBit
+     */
+    public static int modulatedLength(long nBits, double fs, double bitRate) {
+        long total = nBits * samplesPerBit(fs, bitRate);
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Señal ASK demasiado larga para un arreglo: " + total + " muestras");
+        }
+        return (int) total;
+    }
+
+    /**
+     * Número de muestras de portadora que ocupa cada bit
+     *
+     * @param fs      Frecuencia de muestreo (Hz)
+     * @param bitRate Tasa de bits (bits por segundo)
+     * @return        Muestras por bit (mínimo 1)
+     */
+    public static int samplesPerBit(double fs, double bitRate) {
+        return (int) Math.max(1, Math.round(fs / bitRate));
+    }
+
+    /**
+     * Modulación ASK de un bloque de bits dentro de una transmisión más larga.
+     * La portadora se evalúa en el índice absoluto de cada muestra, de modo que
+     * la fase es continua entre bloques consecutivos.
+     *
+     * @param bits          Arreglo de bits
+     * @param off           Posición del primer bit del bloque
+     * @param len           Número de bits del bloque
+     * @param firstSample   Índice absoluto de la primera muestra de salida del bloque
+     * @param fc            Frecuencia de la portadora (Hz)
+     * @param fs            Frecuencia de muestreo (Hz)
+     * @param samplesPerBit Muestras de portadora por bit
+     * @param A0            Amplitud para bit 0
+     * @param A1            Amplitud para bit 1
+     * @param out           Arreglo destino (len * samplesPerBit muestras)
+     * @param outOff        Posición inicial en el destino
+     */
+    public static void modulateBlock(boolean[] bits, int off, int len, long firstSample,
+                                     double fc, double fs, int samplesPerBit,
+                                     double A0, double A1, double[] out, int outOff) {
+        Oscillator osc = new Oscillator(Oscillator.Mode.EXACT, fc, fs, 1.0);
+        osc.seek(firstSample);
+        modulate(bits, off, len, osc, samplesPerBit, A0, A1, out, outOff);
+    }
+
+    /**
+     * Variante de {@link #modulateBlock(boolean[], int, int, long, double, double, int, double, double, double[], int)}
+     * que lee los bits de una secuencia empaquetada
+     */
+    public static void modulateBlock(PackedBits bits, long start, int len, long firstSample,
+                                     double fc, double fs, int samplesPerBit,
+                                     double A0, double A1, double[] out, int outOff) {
+        Oscillator osc = new Oscillator(Oscillator.Mode.EXACT, fc, fs, 1.0);
+        osc.seek(firstSample);
+        modulate(bits, start, len, osc, samplesPerBit, A0, A1, out, outOff);
+    }
+}
@@ -4,8 +4,6 @@ import models.Signal;
 import javax.sound.sampled.*;
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Clase para leer archivos de audio (WAV, MP3) y convertirlos en señales digitales
@@ -28,102 +26,67 @@ public class AudioFileReader {
         
         File audioFile = new File(filePath);
         
-        // Verificar que el archivo existe
-        if (!audioFile.exists()) {
-            throw new IOException("El archivo no existe: " + filePath);
-        }
-        
-        // Obtener el stream de audio
-        AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(audioFile);
-        AudioFormat format = audioInputStream.getFormat();
-        
-        // Información del audio
-        float sampleRate = format.getSampleRate();
-        int channels = format.getChannels();
-        int sampleSizeInBits = format.getSampleSizeInBits();
-        boolean bigEndian = format.isBigEndian();
-        
-        System.out.println("=== INFORMACIÓN DEL ARCHIVO DE AUDIO ===");
-        System.out.println("Archivo: " + audioFile.getName());
-        System.out.println("Frecuencia de muestreo: " + sampleRate + " Hz");
-        System.out.println("Canales: " + channels);
-        System.out.println("Bits por muestra: " + sampleSizeInBits);
-        System.out.println("Formato: " + format.toString());
-        
-        // Convertir a formato estándar si es necesario (PCM 16-bit)
-        AudioFormat targetFormat = new AudioFormat(
-            AudioFormat.Encoding.PCM_SIGNED,
-            sampleRate,
-            16,  // 16 bits por muestra
-            channels,
-            channels * 2,  // frame size (2 bytes por muestra por canal)
-            sampleRate,
-            false  // little endian
-        );
-        
-        // Convertir si el formato no es el deseado
-        if (!format.equals(targetFormat)) {
-            System.out.println("Convirtiendo formato de audio...");
-            audioInputStream = AudioSystem.getAudioInputStream(targetFormat, audioInputStream);
-            format = targetFormat;
-        }
-        
-        // Calcular cuántas muestras leer
-        long totalFrames = audioInputStream.getFrameLength();
-        long framesToRead = totalFrames;
-        
-        if (maxDurationSeconds > 0) {
-            long maxFrames = (long) (maxDurationSeconds * sampleRate);
-            framesToRead = Math.min(totalFrames, maxFrames);
-            System.out.println("Limitando a " + maxDurationSeconds + " segundos (" + framesToRead + " frames)");
-        }
-        
-        // Leer las muestras
-        List<Double> samples = new ArrayList<>();
-        byte[] buffer = new byte[4096]; // Buffer de lectura
-        int bytesPerFrame = format.getFrameSize();
-        long framesRead = 0;
-        
-        try {
-            int bytesRead;
-            while ((bytesRead = audioInputStream.read(buffer)) != -1 && framesRead < framesToRead) {
+        // Camino rápido: WAV PCM 16-bit mapeado en memoria
+        if (audioFile.getName().toLowerCase().endsWith(".wav") && audioFile.exists()) {
+            try (MappedWavFile wav = MappedWavFile.open(filePath)) {
+                long frames = wav.length();
+                
+                System.out.println("=== INFORMACIÓN DEL ARCHIVO DE AUDIO ===");
+                System.out.println("Archivo: " + audioFile.getName());
+                System.out.println("Frecuencia de muestreo: " + wav.getFs() + " Hz");
+                System.out.println("Canales: " + wav.getChannels());
+                System.out.println("Bits por muestra: 16");
+                System.out.println("Formato: WAV PCM 16-bit little-endian (mapeado en memoria)");
                 
-                // Procesar cada frame (muestra)
-                for (int i = 0; i < bytesRead && framesRead < framesToRead; i += bytesPerFrame) {
-                    
-                    // Procesar cada canal
-                    for (int channel = 0; channel < channels; channel++) {
-                        int byteOffset = i + (channel * 2); // 2 bytes por muestra (16-bit)
-                        
-                        if (byteOffset + 1 < bytesRead) {
-                            // Leer muestra de 16 bits (little endian)
-                            int sample16 = (buffer[byteOffset + 1] << 8) | (buffer[byteOffset] & 0xFF);
-                            
-                            // Convertir a double normalizado [-1.0, 1.0]
-                            double normalizedSample = sample16 / 32768.0;
-                            samples.add(normalizedSample);
-                            
-                            // Solo tomar el primer canal si es estéreo
-                            if (channel == 0) {
-                                break;
-                            }
-                        }
-                    }
-                    framesRead++;
+                if (maxDurationSeconds > 0) {
+                    frames = Math.min(frames, (long) (maxDurationSeconds * wav.getFs()));
+                    System.out.println("Limitando a " + maxDurationSeconds + " segundos (" + frames + " frames)");
                 }
+                if (frames > Integer.MAX_VALUE - 8) {
+                    throw new IOException("Audio demasiado largo para un único arreglo: " + frames + " frames");
+                }
+                
+                Signal signal = wav.toSignal(0, (int) frames);
+                System.out.println("Audio cargado: " + signal.getSamples().length + " muestras");
+                System.out.println("Duración: " + (signal.getSamples().length / signal.getFs()) + " segundos");
+                System.out.println("=========================================");
+                return signal;
+            } catch (UnsupportedAudioFileException e) {
+                // WAV comprimido u otro formato: usar el camino general de javax.sound
+            }
+        }
+        
+        // Abrir el lector por bloques (convierte a PCM 16-bit si es necesario)
+        Signal signal;
+        try (AudioStreamReader reader = AudioStreamReader.open(filePath, maxDurationSeconds)) {
+            AudioFormat format = reader.getSourceFormat();
+            
+            System.out.println("=== INFORMACIÓN DEL ARCHIVO DE AUDIO ===");
+            System.out.println("Archivo: " + audioFile.getName());
+            System.out.println("Frecuencia de muestreo: " + format.getSampleRate() + " Hz");
+            System.out.println("Canales: " + format.getChannels());
+            System.out.println("Bits por muestra: " + format.getSampleSizeInBits());
+            System.out.println("Formato: " + format.toString());
+            
+            if (reader.isConverted()) {
+                System.out.println("Convirtiendo formato de audio...");
             }
-        } finally {
-            audioInputStream.close();
+            if (maxDurationSeconds > 0) {
+                System.out.println("Limitando a " + maxDurationSeconds + " segundos (" + reader.getFramesToRead() + " frames)");
+            }
+            
+            // Leer las muestras directamente a un arreglo primitivo (sin boxing)
+            signal = reader.readAll();
         }
         
-        // Convertir la lista a array
-        double[] samplesArray = samples.stream().mapToDouble(Double::doubleValue).toArray();
+        double[] samplesArray = signal.getSamples();
+        float sampleRate = (float) signal.getFs();
         
         System.out.println("Audio cargado: " + samplesArray.length + " muestras");
         System.out.println("Duración: " + (samplesArray.length / sampleRate) + " segundos");
         System.out.println("=========================================");
         
-        return new Signal(samplesArray, sampleRate);
+        return signal;
     }
     
     /**
@@ -135,31 +98,32 @@ public class AudioFileReader {
     }
     
     /**
-     * Redimensiona una señal a una nueva frecuencia de muestreo (resampling básico)
+     * Abre un WAV PCM 16-bit como vista mapeada en memoria, sin copiar las muestras.
+     * Útil para recorrer grabaciones muy largas por regiones.
+     * 
+     * @param filePath Ruta del archivo WAV
+     * @return Vista que decodifica las muestras bajo demanda (cerrar al terminar)
+     * @throws IOException Si hay error al leer el archivo
+     * @throws UnsupportedAudioFileException Si el archivo no es WAV PCM 16-bit
+     */
+    public static MappedWavFile openMapped(String filePath) 
+            throws IOException, UnsupportedAudioFileException {
+        return MappedWavFile.open(filePath);
+    }
+    
+    /**
+     * Redimensiona una señal a una nueva frecuencia de muestreo con el
+     * remuestreador polifásico ({@link Resampler}, calidad estándar).
+     * Al decimar filtra por debajo de la nueva frecuencia de Nyquist.
      */
     public static Signal resample(Signal original, double newSampleRate) {
-        double[] originalSamples = original.getSamples();
-        double originalSampleRate = original.getFs();
-        
-        // Calcular factor de resampling
-        double resampleFactor = newSampleRate / originalSampleRate;
-        int newLength = (int) Math.round(originalSamples.length * resampleFactor);
-        
-        double[] newSamples = new double[newLength];
-        
-        // Resampling básico por interpolación lineal
-        for (int i = 0; i < newLength; i++) {
-            double originalIndex = i / resampleFactor;
-            int index1 = (int) Math.floor(originalIndex);
-            int index2 = Math.min(index1 + 1, originalSamples.length - 1);
-            
-            if (index1 < originalSamples.length) {
-                double weight = originalIndex - index1;
-                newSamples[i] = originalSamples[index1] * (1 - weight) + 
-                               originalSamples[index2] * weight;
-            }
-        }
-        
-        return new Signal(newSamples, newSampleRate);
+        return resample(original, newSampleRate, Resampler.Quality.STANDARD);
+    }
+
+    /**
+     * Redimensiona una señal eligiendo la calidad del filtro
+     */
+    public static Signal resample(Signal original, double newSampleRate, Resampler.Quality quality) {
+        return Resampler.resample(original, newSampleRate, quality);
     }
 }
\ No newline at end of file
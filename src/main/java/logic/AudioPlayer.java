@@ -0,0 +1,392 @@
+package logic;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Reproducción de audio por streaming (PCM 16 bits mono).
+ *
+ * El productor convierte las muestras a bytes PCM en su propio hilo y las
+ * deja en un anillo de bloques listos para escribir; el hilo de salida solo
+ * copia bloques a la {@link SourceDataLine}. El anillo es de un productor y
+ * un consumidor, sin bloqueos, y sus bloques se reservan una sola vez.
+ * <p>
+ * Las muestras se pueden empujar con {@link #write} desde cualquier hilo
+ * productor (por ejemplo un modulador ASK en vivo, ver {@link #sink()}) o
+ * dejar que el reproductor las lea de un {@link StreamingPipeline.BlockSource}
+ * con {@link #play(StreamingPipeline.BlockSource, float)}. Los hilos de
+ * salida y de lectura se crean una vez por reproductor y se reutilizan en
+ * cada reproducción.
+ * <p>
+ * Un vaciado (underrun) se cuenta cuando el buffer de la línea se queda sin
+ * datos sin que el productor haya terminado. La latencia de salida es lo que
+ * falta por sonar de lo ya escrito en la línea, más lo que espera en el anillo.
+ *
+ * @author xexpl
+ */
+public class AudioPlayer implements AutoCloseable {
+
+    public static final int DEFAULT_BLOCK_FRAMES = 1024;
+    public static final int DEFAULT_RING_BLOCKS = 16;
+    public static final int DEFAULT_LINE_BUFFER_BYTES = 8192;
+
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private final int blockFrames;
+    private final int lineBufferBytes;
+    private final byte[][] blocks;
+    private final int[] blockBytes;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Bloques publicados (productor)
+    private final AtomicLong tail = new AtomicLong(); // Bloques escritos en la línea (salida)
+    private int fill;                                 // Bytes del bloque en curso (productor)
+
+    private final ExecutorService output = daemonExecutor("audio-out");
+    private final ExecutorService feeder = daemonExecutor("audio-feed");
+    private volatile Future<?> outputTask;
+    private Future<?> feedTask;
+
+    // Abre la línea; se puede sustituir para pruebas sin tarjeta de sonido
+    Function<AudioFormat, SourceDataLine> lineProvider = fmt -> {
+        try {
+            return AudioSystem.getSourceDataLine(fmt);
+        } catch (LineUnavailableException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    };
+
+    private volatile SourceDataLine line;
+    private volatile float fs;
+    private volatile boolean endOfStream;
+    private volatile boolean stopping;
+    private volatile long session;        // Cambia en cada stop(): un lector anterior no escribe en la nueva reproducción
+    private volatile Thread producerWaiting;
+    private volatile Thread outputThread;
+    private volatile Throwable failure;
+
+    // Estadísticas (cada campo lo escribe un solo hilo)
+    private volatile long framesWritten;  // Escritos en la línea
+    private volatile long underruns;
+    private volatile long maxLatencyNanos;
+
+    /**
+     * @param blockFrames     Muestras por bloque del anillo
+     * @param ringBlocks      Bloques en el anillo (se redondea a potencia de dos)
+     * @param lineBufferBytes Tamaño del buffer de la línea de audio (bytes)
+     */
+    public AudioPlayer(int blockFrames, int ringBlocks, int lineBufferBytes) {
+        if (blockFrames <= 0 || ringBlocks <= 0 || lineBufferBytes <= 0) {
+            throw new IllegalArgumentException("Tamaños de buffer no válidos");
+        }
+        int n = Integer.highestOneBit(ringBlocks);
+        if (n < ringBlocks) n <<= 1;
+        this.blockFrames = blockFrames;
+        this.lineBufferBytes = lineBufferBytes;
+        this.blocks = new byte[n][2 * blockFrames];
+        this.blockBytes = new int[n];
+        this.mask = n - 1;
+    }
+
+    public AudioPlayer() {
+        this(DEFAULT_BLOCK_FRAMES, DEFAULT_RING_BLOCKS, DEFAULT_LINE_BUFFER_BYTES);
+    }
+
+    /**
+     * Detiene lo que esté sonando, abre la línea a fs y deja el reproductor
+     * listo para recibir muestras con {@link #write}
+     */
+    public synchronized void start(float fs) throws IOException {
+        stop();
+        AudioFormat fmt = new AudioFormat(fs, 16, 1, true, false);
+        SourceDataLine l;
+        try {
+            l = lineProvider.apply(fmt);
+            l.open(fmt, lineBufferBytes);
+        } catch (LineUnavailableException | RuntimeException e) {
+            throw new IOException("No se pudo abrir la salida de audio: " + e.getMessage(), e);
+        }
+        this.fs = fs;
+        this.line = l;
+        head.set(0);
+        tail.set(0);
+        fill = 0;
+        framesWritten = 0;
+        underruns = 0;
+        maxLatencyNanos = 0;
+        failure = null;
+        endOfStream = false;
+        stopping = false;
+        outputTask = output.submit(() -> outputLoop(l));
+    }
+
+    /**
+     * Reproduce las muestras de un origen, leídas en el hilo del reproductor
+     */
+    public synchronized void play(StreamingPipeline.BlockSource source, float fs) throws IOException {
+        start(fs);
+        long id = session;
+        feedTask = feeder.submit(() -> feed(source, id));
+    }
+
+    private void feed(StreamingPipeline.BlockSource source, long id) {
+        double[] buf = new double[blockFrames];
+        try {
+            int n;
+            while (session == id && (n = source.read(buf, 0, buf.length)) >= 0) {
+                write(buf, 0, n, id);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (session == id) failure = e;
+        } catch (InterruptedException e) {
+            return;
+        }
+        // Si la reproducción se detuvo no se publica nada: el anillo ya puede ser de otra
+        if (session == id) finish();
+    }
+
+    /**
+     * Reproduce un arreglo de muestras completo
+     */
+    public void play(double[] samples, float fs) throws IOException {
+        play(new StreamingPipeline.BlockSource() {
+            private int pos = 0;
+
+            @Override
+            public int read(double[] dst, int off, int len) {
+                int n = Math.min(len, samples.length - pos);
+                if (n <= 0) return -1;
+                System.arraycopy(samples, pos, dst, off, n);
+                pos += n;
+                return n;
+            }
+        }, fs);
+    }
+
+    /**
+     * Convierte y encola muestras (solo desde un hilo productor a la vez).
+     * Si el anillo está lleno espera a que la salida libere bloques.
+     *
+     * @throws InterruptedException Si el hilo se interrumpe o el reproductor se detiene
+     */
+    public void write(double[] x, int off, int len) throws InterruptedException {
+        write(x, off, len, session);
+    }
+
+    private void write(double[] x, int off, int len, long id) throws InterruptedException {
+        int end = off + len;
+        while (off < end) {
+            long h = head.get();
+            while (h - tail.get() >= blocks.length) {
+                if (stopping || session != id || Thread.interrupted()) throw new InterruptedException();
+                producerWaiting = Thread.currentThread();
+                if (h - tail.get() >= blocks.length) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                producerWaiting = null;
+            }
+            if (stopping || session != id) throw new InterruptedException();
+            int slot = (int) (h & mask);
+            byte[] b = blocks[slot];
+            int n = Math.min(end - off, blockFrames - fill / 2);
+            for (int i = 0; i < n; i++) {
+                int val = (int) Math.max(Math.min(32767, x[off + i] * 32767), -32768);
+                b[fill++] = (byte) val;
+                b[fill++] = (byte) (val >> 8);
+            }
+            off += n;
+            if (fill == b.length) publish(h, slot);
+        }
+    }
+
+    /**
+     * Marca el final de la secuencia: se encola el bloque incompleto y la
+     * salida termina cuando todo haya sonado
+     */
+    public void finish() {
+        if (fill > 0) {
+            long h = head.get();
+            publish(h, (int) (h & mask));
+        }
+        endOfStream = true;
+        LockSupport.unpark(outputThread);
+    }
+
+    private void publish(long h, int slot) {
+        blockBytes[slot] = fill;
+        fill = 0;
+        head.lazySet(h + 1);
+        LockSupport.unpark(outputThread);
+    }
+
+    /**
+     * Destino para {@link StreamingPipeline}: reproduce la señal ASK de cada bloque
+     * (hay que llamar antes a {@link #start} y después a {@link #finish})
+     */
+    public StreamingPipeline.BlockSink sink() {
+        return block -> {
+            try {
+                write(block.ask, 0, block.nAsk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Reproducción detenida", e);
+            }
+        };
+    }
+
+    private void outputLoop(SourceDataLine l) {
+        outputThread = Thread.currentThread();
+        boolean starved = false;
+        try {
+            l.start();
+            while (!stopping) {
+                long t = tail.get();
+                if (t == head.get()) {
+                    if (endOfStream && t == head.get()) {
+                        l.drain();
+                        break;
+                    }
+                    // La línea se quedó sin datos mientras el productor sigue: vaciado
+                    if (framesWritten > 0 && l.available() >= l.getBufferSize()) {
+                        if (!starved) underruns++;
+                        starved = true;
+                    }
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+                starved = false;
+                int slot = (int) (t & mask);
+                l.write(blocks[slot], 0, blockBytes[slot]);
+                framesWritten += blockBytes[slot] / 2;
+                tail.lazySet(t + 1);
+                LockSupport.unpark(producerWaiting);
+                long latency = latencyNanos(l);
+                if (latency > maxLatencyNanos) maxLatencyNanos = latency;
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            if (stopping) l.flush();
+            l.stop();
+            l.close();
+            outputThread = null;
+        }
+    }
+
+    /**
+     * Detiene la reproducción en curso y descarta lo que quede por sonar
+     */
+    public synchronized void stop() {
+        stopping = true;
+        session++;
+        if (feedTask != null) {
+            feedTask.cancel(true);
+            feedTask = null;
+            // cancel() no espera a que el lector salga; el ejecutor es de un hilo,
+            // así que una tarea vacía termina solo cuando el lector ya terminó
+            await(feeder.submit(() -> { }));
+        }
+        await(outputTask);
+        outputTask = null;
+        line = null;
+    }
+
+    /**
+     * Espera a que termine de sonar la reproducción en curso
+     *
+     * @return true si terminó antes del tiempo límite
+     */
+    public boolean awaitCompletion(long timeoutMillis) throws InterruptedException {
+        Future<?> task = outputTask;
+        if (task == null) return true;
+        try {
+            task.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+        output.shutdownNow();
+        feeder.shutdownNow();
+    }
+
+    public boolean isPlaying() {
+        Future<?> task = outputTask;
+        return task != null && !task.isDone();
+    }
+
+    /**
+     * @return Error que detuvo la reproducción, o null
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public long getUnderruns() {
+        return underruns;
+    }
+
+    public long getFramesWritten() {
+        return framesWritten;
+    }
+
+    /**
+     * @return Muestras que faltan por sonar: las del buffer de la línea más las del anillo
+     */
+    public long getQueuedFrames() {
+        SourceDataLine l = line;
+        long inLine = l == null ? 0 : Math.max(0, framesWritten - l.getLongFramePosition());
+        return inLine + (head.get() - tail.get()) * blockFrames;
+    }
+
+    /**
+     * @return Latencia de salida actual: tiempo hasta que suene una muestra escrita ahora
+     */
+    public double getOutputLatencyMillis() {
+        float rate = fs;
+        return rate <= 0 ? 0.0 : getQueuedFrames() * 1000.0 / rate;
+    }
+
+    public double getMaxOutputLatencyMillis() {
+        return maxLatencyNanos / 1e6;
+    }
+
+    private long latencyNanos(SourceDataLine l) {
+        long queued = Math.max(0, framesWritten - l.getLongFramePosition()) + (head.get() - tail.get()) * blockFrames;
+        return (long) (queued * 1e9 / fs);
+    }
+
+    private static void await(Future<?> task) {
+        if (task == null) return;
+        try {
+            task.get(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // El error ya quedó en failure o la línea no respondió; se abandona
+        }
+    }
+
+    private static ExecutorService daemonExecutor(String name) {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
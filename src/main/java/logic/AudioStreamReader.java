@@ -0,0 +1,243 @@
+package logic;
+
+import models.Signal;
+import javax.sound.sampled.*;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Lector de audio por bloques que decodifica directamente a arreglos primitivos.
+ *
+ * A diferencia de acumular las muestras en una {@code List<Double>}, este lector
+ * reutiliza un único buffer de bytes y escribe en arreglos {@code double[]} o
+ * {@code float[]} proporcionados por quien llama, por lo que nunca hace boxing y
+ * permite procesar grabaciones largas con un presupuesto de memoria fijo.
+ * Igual que {@link AudioFileReader}, solo se conserva el primer canal.
+ *
+ * @author xexpl
+ */
+public class AudioStreamReader implements Closeable, StreamingPipeline.BlockSource {
+
+    /** Tamaño por defecto (en frames) de los bloques de lectura */
+    public static final int DEFAULT_CHUNK_FRAMES = 4096;
+
+    private final AudioInputStream audioInputStream;
+    private final AudioFormat sourceFormat;   // Formato original del archivo
+    private final boolean converted;          // true si se convirtió a PCM 16-bit
+    private final float sampleRate;
+    private final int channels;
+    private final int bytesPerFrame;
+    private final long framesToRead;          // Frames a leer (-1 = desconocido)
+    private final byte[] buffer;              // Buffer de bytes reutilizable
+    private long framesRead = 0;
+    private boolean eof = false;
+
+    private AudioStreamReader(AudioInputStream audioInputStream, AudioFormat sourceFormat,
+                              boolean converted, long framesToRead, int chunkFrames) {
+        AudioFormat format = audioInputStream.getFormat();
+        this.audioInputStream = audioInputStream;
+        this.sourceFormat = sourceFormat;
+        this.converted = converted;
+        this.sampleRate = format.getSampleRate();
+        this.channels = format.getChannels();
+        this.bytesPerFrame = format.getFrameSize();
+        this.framesToRead = framesToRead;
+        this.buffer = new byte[Math.max(1, chunkFrames) * bytesPerFrame];
+    }
+
+    /**
+     * Abre un archivo de audio para lectura por bloques
+     *
+     * @param filePath Ruta del archivo de audio (WAV, MP3, etc.)
+     * @param maxDurationSeconds Duración máxima a leer en segundos (0 = todo el archivo)
+     * @return Lector posicionado al inicio del audio
+     * @throws IOException Si hay error al leer el archivo
+     * @throws UnsupportedAudioFileException Si el formato no es soportado
+     */
+    public static AudioStreamReader open(String filePath, double maxDurationSeconds)
+            throws IOException, UnsupportedAudioFileException {
+        return open(filePath, maxDurationSeconds, DEFAULT_CHUNK_FRAMES);
+    }
+
+    /**
+     * Abre un archivo de audio indicando el tamaño del buffer interno
+     *
+     * @param filePath Ruta del archivo de audio
+     * @param maxDurationSeconds Duración máxima a leer en segundos (0 = todo el archivo)
+     * @param chunkFrames Número de frames que se leen del stream en cada llamada
+     */
+    public static AudioStreamReader open(String filePath, double maxDurationSeconds, int chunkFrames)
+            throws IOException, UnsupportedAudioFileException {
+
+        File audioFile = new File(filePath);
+
+        // Verificar que el archivo existe
+        if (!audioFile.exists()) {
+            throw new IOException("El archivo no existe: " + filePath);
+        }
+
+        AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(audioFile);
+        AudioFormat sourceFormat = audioInputStream.getFormat();
+        float sampleRate = sourceFormat.getSampleRate();
+        int channels = sourceFormat.getChannels();
+
+        // Formato estándar de trabajo: PCM 16-bit little endian
+        AudioFormat targetFormat = new AudioFormat(
+            AudioFormat.Encoding.PCM_SIGNED,
+            sampleRate,
+            16,
+            channels,
+            channels * 2,
+            sampleRate,
+            false
+        );
+
+        boolean converted = false;
+        if (!sourceFormat.equals(targetFormat)) {
+            audioInputStream = AudioSystem.getAudioInputStream(targetFormat, audioInputStream);
+            converted = true;
+        }
+
+        // Calcular cuántos frames leer (-1 si la longitud es desconocida, p. ej. MP3)
+        long totalFrames = audioInputStream.getFrameLength();
+        long framesToRead = totalFrames < 0 ? -1 : totalFrames;
+        if (maxDurationSeconds > 0) {
+            long maxFrames = (long) (maxDurationSeconds * sampleRate);
+            framesToRead = framesToRead < 0 ? maxFrames : Math.min(framesToRead, maxFrames);
+        }
+
+        return new AudioStreamReader(audioInputStream, sourceFormat, converted, framesToRead, chunkFrames);
+    }
+
+    /**
+     * Lee el siguiente bloque de muestras normalizadas [-1.0, 1.0]
+     *
+     * @param dst Arreglo destino
+     * @param off Posición inicial en el destino
+     * @param len Número máximo de muestras a leer
+     * @return    Número de muestras escritas, o -1 al llegar al final
+     */
+    @Override
+    public int read(double[] dst, int off, int len) throws IOException {
+        int total = 0;
+        while (total < len) {
+            int n = fill(len - total);
+            if (n <= 0) break;
+            // Decodificar el primer canal de cada frame (16-bit little endian)
+            for (int i = 0, o = 0; i < n; i++, o += bytesPerFrame) {
+                dst[off + total + i] = ((buffer[o + 1] << 8) | (buffer[o] & 0xFF)) / 32768.0;
+            }
+            total += n;
+        }
+        return (total == 0 && len > 0) ? -1 : total;
+    }
+
+    /**
+     * Variante de {@link #read(double[], int, int)} en precisión simple
+     */
+    public int read(float[] dst, int off, int len) throws IOException {
+        int total = 0;
+        while (total < len) {
+            int n = fill(len - total);
+            if (n <= 0) break;
+            for (int i = 0, o = 0; i < n; i++, o += bytesPerFrame) {
+                dst[off + total + i] = ((buffer[o + 1] << 8) | (buffer[o] & 0xFF)) / 32768.0f;
+            }
+            total += n;
+        }
+        return (total == 0 && len > 0) ? -1 : total;
+    }
+
+    /**
+     * Lee todo lo que queda del stream en un único arreglo primitivo.
+     * El arreglo se dimensiona a partir de {@code getFrameLength()} cuando se
+     * conoce; si no, crece geométricamente y se recorta al final.
+     *
+     * @return Signal con las muestras restantes
+     */
+    public Signal readAll() throws IOException {
+        long remaining = framesToRead < 0 ? -1 : framesToRead - framesRead;
+        if (remaining > Integer.MAX_VALUE - 8) {
+            throw new IOException("Audio demasiado largo para un único arreglo: " + remaining + " frames");
+        }
+        double[] samples = new double[remaining < 0 ? 1 << 16 : (int) remaining];
+        int count = 0;
+        while (true) {
+            if (count == samples.length) {
+                if (remaining >= 0) break; // Tamaño exacto ya leído
+                samples = Arrays.copyOf(samples, samples.length + (samples.length >> 1));
+            }
+            int n = read(samples, count, samples.length - count);
+            if (n < 0) break;
+            count += n;
+        }
+        if (count != samples.length) {
+            samples = Arrays.copyOf(samples, count);
+        }
+        return new Signal(samples, sampleRate);
+    }
+
+    /**
+     * Llena el buffer interno con hasta maxFrames frames completos
+     *
+     * @return Número de frames disponibles en el buffer (0 al final)
+     */
+    private int fill(int maxFrames) throws IOException {
+        if (eof) return 0;
+        long left = framesToRead < 0 ? Long.MAX_VALUE : framesToRead - framesRead;
+        int want = (int) Math.min(Math.min(maxFrames, buffer.length / bytesPerFrame), left);
+        if (want <= 0) {
+            eof = true;
+            return 0;
+        }
+
+        // El stream puede devolver lecturas parciales: acumular hasta tener frames completos
+        int wantBytes = want * bytesPerFrame;
+        int got = 0;
+        while (got < bytesPerFrame) {
+            int r = audioInputStream.read(buffer, got, wantBytes - got);
+            if (r < 0) {
+                eof = true;
+                break;
+            }
+            got += r;
+        }
+        int frames = got / bytesPerFrame;
+        framesRead += frames;
+        return frames;
+    }
+
+    public float getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public AudioFormat getSourceFormat() {
+        return sourceFormat;
+    }
+
+    public boolean isConverted() {
+        return converted;
+    }
+
+    /**
+     * @return Número de frames que se leerán en total, o -1 si se desconoce
+     */
+    public long getFramesToRead() {
+        return framesToRead;
+    }
+
+    public long getFramesRead() {
+        return framesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        audioInputStream.close();
+    }
+}
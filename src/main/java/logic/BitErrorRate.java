@@ -0,0 +1,234 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Medición de la tasa de error de bit (BER) del enlace PCM → ASK → demodulador.
+ *
+ * La señal de entrada se codifica una sola vez con el {@link SampleEncoder}; para
+ * cada punto de SNR se modula por bloques, se suma ruido blanco gaussiano, se
+ * demodula con {@link ASKDemodulator} y se comparan los bits recuperados con
+ * la salida del codificador. Cada punto usa su propio generador con semilla
+ * derivada de la semilla base, así que los resultados son reproducibles y no
+ * dependen del orden en que el pool ejecute los puntos. La memoria por punto
+ * es constante (un bloque de señal y uno de bits).
+ * <p>
+ * Para curvas con atenuación o desvanecimiento sobre bits aleatorios, ver
+ * {@link ChannelSimulator}.
+ * <p>
+ * La SNR es la relación entre la potencia media de la señal ASK limpia y la
+ * varianza del ruido por muestra, en dB.
+ *
+ * @author xexpl
+ */
+public class BitErrorRate {
+
+    /** Bits que se modulan y demodulan por bloque */
+    public static final int BLOCK_BITS = 4096;
+
+    /**
+     * Resultado de un punto de medida
+     */
+    public static class Result {
+        public final double snrDb;
+        public final long bits;
+        public final long bitErrors;
+        public final long samples;       // Muestras PCM completas comparadas
+        public final long sampleErrors;  // Muestras PCM con al menos un bit erróneo
+
+        public Result(double snrDb, long bits, long bitErrors, long samples, long sampleErrors) {
+            this.snrDb = snrDb;
+            this.bits = bits;
+            this.bitErrors = bitErrors;
+            this.samples = samples;
+            this.sampleErrors = sampleErrors;
+        }
+
+        public double ber() {
+            return bits > 0 ? (double) bitErrors / bits : 0;
+        }
+
+        public double sampleErrorRate() {
+            return samples > 0 ? (double) sampleErrors / samples : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "SNR %.1f dB: %d/%d bits erróneos (BER %.3e), %d/%d muestras",
+                    snrDb, bitErrors, bits, ber(), sampleErrors, samples);
+        }
+    }
+
+    private final SampleEncoder pcm;
+    private final ASKDemodulator.Detection detection;
+    private final double fc, fs, bitRate, A0, A1;
+    private final int samplesPerBit;
+
+    /**
+     * @param pcm       Codificador cuya salida se transmite
+     * @param detection Tipo de detección del demodulador
+     * @param fc        Frecuencia de la portadora (Hz)
+     * @param fs        Frecuencia de muestreo de la señal ASK (Hz)
+     * @param bitRate   Tasa de bits (bits por segundo)
+     * @param A0        Amplitud para bit 0
+     * @param A1        Amplitud para bit 1
+     */
+    public BitErrorRate(SampleEncoder pcm, ASKDemodulator.Detection detection, double fc, double fs,
+                        double bitRate, double A0, double A1) {
+        this.pcm = pcm;
+        this.detection = detection;
+        this.fc = fc;
+        this.fs = fs;
+        this.bitRate = bitRate;
+        this.A0 = A0;
+        this.A1 = A1;
+        this.samplesPerBit = ASKModulator.samplesPerBit(fs, bitRate);
+    }
+
+    /**
+     * Cuenta los errores entre los bits enviados y los recuperados
+     *
+     * @param sent     Bits del codificador
+     * @param received Bits demodulados
+     * @param len      Número de bits a comparar
+     * @param nBits    Bits por muestra PCM (para contar muestras erróneas)
+     */
+    public static Result compare(boolean[] sent, boolean[] received, int len, int nBits, double snrDb) {
+        Counter counter = new Counter(nBits);
+        counter.add(sent, 0, received, 0, len);
+        return counter.result(snrDb);
+    }
+
+    /**
+     * Conteo incremental de errores, bloque a bloque
+     */
+    private static class Counter {
+        private final int nBits;
+        private long bits, bitErrors, samples, sampleErrors;
+        private int inSample = 0;
+        private boolean sampleWrong = false;
+
+        Counter(int nBits) {
+            this.nBits = nBits;
+        }
+
+        void add(boolean[] sent, int sentOff, boolean[] received, int receivedOff, int len) {
+            for (int k = 0; k < len; k++) {
+                if (sent[sentOff + k] != received[receivedOff + k]) {
+                    bitErrors++;
+                    sampleWrong = true;
+                }
+                if (++inSample == nBits) {
+                    samples++;
+                    if (sampleWrong) sampleErrors++;
+                    inSample = 0;
+                    sampleWrong = false;
+                }
+            }
+            bits += len;
+        }
+
+        Result result(double snrDb) {
+            return new Result(snrDb, bits, bitErrors, samples, sampleErrors);
+        }
+    }
+
+    /**
+     * Codifica una señal con el PCM del enlace
+     *
+     * @return Bits a transmitir
+     */
+    public boolean[] encode(double[] x) {
+        int[] levels = new int[x.length];
+        pcm.reset();
+        pcm.quantizeLevels(x, 0, x.length, levels, 0);
+        boolean[] bits = new boolean[x.length * pcm.getNBits()];
+        pcm.levelsToBits(levels, 0, levels.length, bits, 0);
+        return bits;
+    }
+
+    /**
+     * Potencia media de la señal ASK de una secuencia de bits
+     */
+    public double signalPower(boolean[] bits) {
+        Oscillator osc = new Oscillator(Oscillator.Mode.EXACT, fc, fs, 1.0);
+        double[] ask = new double[BLOCK_BITS * samplesPerBit];
+        double sum = 0;
+        for (int b = 0; b < bits.length; b += BLOCK_BITS) {
+            int n = Math.min(BLOCK_BITS, bits.length - b);
+            ASKModulator.modulate(bits, b, n, osc, samplesPerBit, A0, A1, ask, 0);
+            for (int i = 0, end = n * samplesPerBit; i < end; i++) sum += ask[i] * ask[i];
+        }
+        return bits.length > 0 ? sum / ((double) bits.length * samplesPerBit) : 0;
+    }
+
+    /**
+     * Mide la BER de una secuencia de bits a una SNR
+     *
+     * @param bits   Bits transmitidos (salida de {@link #encode})
+     * @param power  Potencia de la señal ASK limpia ({@link #signalPower})
+     * @param snrDb  SNR en dB
+     * @param seed   Semilla del ruido
+     */
+    public Result measure(boolean[] bits, double power, double snrDb, long seed) {
+        double sigma = Math.sqrt(power / Math.pow(10, snrDb / 10));
+        Channel channel = new Channel(new GaussianNoise(seed), sigma);
+        Oscillator osc = new Oscillator(Oscillator.Mode.EXACT, fc, fs, 1.0);
+        ASKDemodulator demod = new ASKDemodulator(detection, fc, fs, bitRate, A0, A1);
+        double[] ask = new double[BLOCK_BITS * samplesPerBit];
+        boolean[] received = new boolean[demod.maxBits(ask.length)];
+        Counter counter = new Counter(pcm.getNBits());
+
+        int decoded = 0;
+        for (int b = 0; b < bits.length; b += BLOCK_BITS) {
+            int n = Math.min(BLOCK_BITS, bits.length - b);
+            int len = n * samplesPerBit;
+            ASKModulator.modulate(bits, b, n, osc, samplesPerBit, A0, A1, ask, 0);
+            channel.apply(ask, 0, len);
+            int got = demod.process(ask, 0, len, received, 0);
+            counter.add(bits, decoded, received, 0, got);
+            decoded += got;
+        }
+        return counter.result(snrDb);
+    }
+
+    /**
+     * Mide la BER de una señal en varios puntos de SNR en paralelo
+     *
+     * @param x     Señal de entrada (se codifica una vez)
+     * @param snrDb Puntos de SNR en dB
+     * @param seed  Semilla base; el punto i usa seed + i
+     * @param pool  Pool donde se reparten los puntos
+     * @return      Un resultado por punto, en el mismo orden
+     */
+    public List<Result> sweep(double[] x, double[] snrDb, long seed, ForkJoinPool pool) {
+        boolean[] bits = encode(x);
+        double power = signalPower(bits);
+        List<Callable<Result>> tasks = new ArrayList<>(snrDb.length);
+        for (int i = 0; i < snrDb.length; i++) {
+            double snr = snrDb[i];
+            long pointSeed = seed + i;
+            tasks.add(() -> measure(bits, power, snr, pointSeed));
+        }
+        List<Result> results = new ArrayList<>(snrDb.length);
+        try {
+            for (Future<Result> f : pool.invokeAll(tasks)) results.add(f.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Barrido de SNR interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en el barrido de SNR", e.getCause());
+        }
+        return results;
+    }
+
+    public List<Result> sweep(double[] x, double[] snrDb, long seed) {
+        return sweep(x, snrDb, seed, ForkJoinPool.commonPool());
+    }
+}
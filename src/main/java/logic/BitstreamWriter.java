@@ -0,0 +1,133 @@
+package logic;
+
+import models.PackedBits;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Escritor de secuencias de bits empaquetadas en bytes (el primer bit va en
+ * el bit más significativo, igual que {@link PackedBits}).
+ *
+ * Los bits se acumulan en un buffer de bytes propio, así que se puede escribir
+ * bit a bit o campo a campo sin costo de E/S por llamada. Al cerrar, el último
+ * byte se completa con ceros.
+ *
+ * @author xexpl
+ */
+public class BitstreamWriter implements Closeable {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_BYTES];
+    private int pos = 0;      // Bytes completos en el buffer
+    private int acc = 0;      // Bits del byte en curso
+    private int accBits = 0;  // Número de bits en acc (0..7)
+    private long bitsWritten = 0;
+
+    public BitstreamWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Escribe len bits de una secuencia booleana
+     */
+    public void write(boolean[] bits, int off, int len) throws IOException {
+        int i = off, end = off + len;
+        // Completar el byte pendiente y luego ir de 8 en 8
+        while (i < end && accBits != 0) {
+            writeBit(bits[i++]);
+        }
+        while (end - i >= 8) {
+            int b = 0;
+            for (int k = 0; k < 8; k++) {
+                b = (b << 1) | (bits[i + k] ? 1 : 0);
+            }
+            putByte(b);
+            bitsWritten += 8;
+            i += 8;
+        }
+        while (i < end) {
+            writeBit(bits[i++]);
+        }
+    }
+
+    /**
+     * Escribe len bits de una secuencia empaquetada, desde start
+     */
+    public void write(PackedBits bits, long start, long len) throws IOException {
+        long i = start, end = start + len;
+        while (i < end && accBits != 0) {
+            writeBit(bits.get(i++));
+        }
+        while (end - i >= 8) {
+            putByte(bits.getBits(i, 8));
+            bitsWritten += 8;
+            i += 8;
+        }
+        while (i < end) {
+            writeBit(bits.get(i++));
+        }
+    }
+
+    public void writeBit(boolean bit) throws IOException {
+        acc = (acc << 1) | (bit ? 1 : 0);
+        bitsWritten++;
+        if (++accBits == 8) {
+            putByte(acc);
+            acc = 0;
+            accBits = 0;
+        }
+    }
+
+    /**
+     * Escribe los nBits menos significativos de value, del más significativo al menos
+     *
+     * @param nBits Número de bits (0 a 32)
+     */
+    public void writeBits(int value, int nBits) throws IOException {
+        for (int k = nBits - 1; k >= 0; k--) {
+            writeBit(((value >>> k) & 1) != 0);
+        }
+    }
+
+    /**
+     * @return Bits escritos hasta ahora (sin contar el relleno final)
+     */
+    public long getBitsWritten() {
+        return bitsWritten;
+    }
+
+    private void putByte(int b) throws IOException {
+        if (pos == buffer.length) {
+            out.write(buffer, 0, pos);
+            pos = 0;
+        }
+        buffer[pos++] = (byte) b;
+    }
+
+    /**
+     * Escribe los bytes completos acumulados (el byte incompleto se queda pendiente)
+     */
+    public void flush() throws IOException {
+        out.write(buffer, 0, pos);
+        pos = 0;
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (accBits > 0) {
+                putByte(acc << (8 - accBits));
+                acc = 0;
+                accBits = 0;
+            }
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+}
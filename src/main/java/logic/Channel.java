@@ -0,0 +1,102 @@
+package logic;
+
+/**
+ * Modelo de canal para la señal ASK: atenuación fija, desvanecimiento
+ * opcional y ruido blanco gaussiano aditivo.
+ * <pre>
+ *   y[n] = g · h[n] · x[n] + σ · w[n]      w ~ N(0, 1)
+ * </pre>
+ * g es la ganancia de la atenuación (10^(−dB/20)). Con
+ * {@link Fading#RAYLEIGH} h es constante durante coherenceSamples muestras y
+ * cambia de forma independiente entre bloques (desvanecimiento por bloques),
+ * con distribución de Rayleigh normalizada a E[h²] = 1, así que la potencia
+ * media recibida es la misma que sin desvanecimiento. Se supone que el
+ * receptor sigue la fase de la portadora: solo se modela la amplitud.
+ * <p>
+ * El canal conserva entre llamadas la posición dentro del bloque de
+ * desvanecimiento, así que puede aplicarse por trozos. No es seguro entre
+ * hilos: cada hilo usa su propio canal con su propio {@link GaussianNoise}.
+ *
+ * @author xexpl
+ */
+public class Channel {
+
+    /**
+     * Tipo de desvanecimiento
+     */
+    public enum Fading {
+        NONE, RAYLEIGH
+    }
+
+    private final GaussianNoise noise;
+    private final double sigma;
+    private final double gain;
+    private final Fading fading;
+    private final int coherenceSamples;
+
+    private double h = 1.0;        // Ganancia de desvanecimiento del bloque actual
+    private int left = 0;          // Muestras que quedan en el bloque actual
+
+    /**
+     * @param noise            Generador de ruido (y de desvanecimiento)
+     * @param sigma            Desviación típica del ruido por muestra
+     * @param attenuationDb    Atenuación del trayecto (dB, positiva = pérdida)
+     * @param fading           Tipo de desvanecimiento
+     * @param coherenceSamples Muestras durante las que h es constante (RAYLEIGH)
+     */
+    public Channel(GaussianNoise noise, double sigma, double attenuationDb, Fading fading, int coherenceSamples) {
+        if (fading == Fading.RAYLEIGH && coherenceSamples < 1) {
+            throw new IllegalArgumentException("coherenceSamples debe ser al menos 1");
+        }
+        this.noise = noise;
+        this.sigma = sigma;
+        this.gain = Math.pow(10, -attenuationDb / 20);
+        this.fading = fading;
+        this.coherenceSamples = coherenceSamples;
+    }
+
+    /**
+     * Canal AWGN sin atenuación ni desvanecimiento
+     */
+    public Channel(GaussianNoise noise, double sigma) {
+        this(noise, sigma, 0, Fading.NONE, 1);
+    }
+
+    /**
+     * Aplica el canal en el sitio a len muestras
+     */
+    public void apply(double[] x, int off, int len) {
+        int i = off, end = off + len;
+        if (fading == Fading.NONE) {
+            for (; i < end; i++) x[i] = gain * x[i] + sigma * noise.next();
+            return;
+        }
+        while (i < end) {
+            if (left == 0) {
+                // |h| de Rayleigh con E[h²] = 1: módulo de una gaussiana compleja de varianza 1/2 por componente
+                double re = noise.next(), im = noise.next();
+                h = Math.sqrt((re * re + im * im) / 2);
+                left = coherenceSamples;
+            }
+            int n = Math.min(left, end - i);
+            double g = gain * h;
+            for (int k = 0; k < n; k++, i++) x[i] = g * x[i] + sigma * noise.next();
+            left -= n;
+        }
+    }
+
+    /**
+     * @return Ganancia lineal de la atenuación
+     */
+    public double getGain() {
+        return gain;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+
+    public Fading getFading() {
+        return fading;
+    }
+}
@@ -0,0 +1,228 @@
+package logic;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Simulación de Monte Carlo de la tasa de error del enlace ASK a través de un
+ * {@link Channel}, para obtener curvas BER frente a Eb/N0.
+ *
+ * Cada punto de la curva se divide en lotes de {@link #CHUNK_BITS} bits
+ * aleatorios. Cada lote genera sus bits, los modula, pasa la señal por el
+ * canal y la demodula por bloques, y cuenta los errores. Los lotes de todos
+ * los puntos se reparten juntos en un {@link ForkJoinPool}. Los generadores
+ * de los lotes se derivan con {@link GaussianNoise#split()} en el hilo que
+ * lanza el barrido y en un orden fijo, así que el resultado depende solo de
+ * la semilla y no del número de hilos.
+ * <p>
+ * Eb/N0 se refiere a la señal transmitida: Eb es la energía media por bit
+ * (potencia media · muestras por bit) y N0/2 la varianza del ruido por
+ * muestra. La atenuación del canal reduce la Eb/N0 recibida en los mismos dB.
+ * El demodulador conoce la atenuación (umbral escalado por la ganancia,
+ * como con un control automático de ganancia ideal) pero no el
+ * desvanecimiento.
+ *
+ * @author xexpl
+ */
+public class ChannelSimulator {
+
+    /** Bits por lote de trabajo */
+    public static final int CHUNK_BITS = 1 << 16;
+
+    private static final int BLOCK_BITS = 1024;
+
+    /**
+     * Resultado de un punto de la curva
+     */
+    public static class Point {
+        public final double ebN0Db;
+        public final double snrDb;        // SNR por muestra equivalente
+        public final long bits;
+        public final long errors;
+        public final double theory;       // BER teórica, o NaN si no hay expresión cerrada
+
+        public Point(double ebN0Db, double snrDb, long bits, long errors, double theory) {
+            this.ebN0Db = ebN0Db;
+            this.snrDb = snrDb;
+            this.bits = bits;
+            this.errors = errors;
+            this.theory = theory;
+        }
+
+        public double ber() {
+            return bits > 0 ? (double) errors / bits : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "Eb/N0 %.1f dB: %d/%d bits erróneos (BER %.3e, teórica %.3e)",
+                    ebN0Db, errors, bits, ber(), theory);
+        }
+    }
+
+    private final ASKDemodulator.Detection detection;
+    private final double fc, fs, bitRate, A0, A1;
+    private final double attenuationDb;
+    private final Channel.Fading fading;
+    private final int coherenceBits;
+    private final int samplesPerBit;
+    private final double power;            // Potencia media transmitida (bits equiprobables)
+
+    /**
+     * @param detection     Tipo de detección del demodulador
+     * @param fc            Frecuencia de la portadora (Hz)
+     * @param fs            Frecuencia de muestreo (Hz)
+     * @param bitRate       Tasa de bits (bits por segundo)
+     * @param A0            Amplitud para bit 0
+     * @param A1            Amplitud para bit 1
+     * @param attenuationDb Atenuación del trayecto (dB)
+     * @param fading        Tipo de desvanecimiento
+     * @param coherenceBits Bits durante los que el desvanecimiento es constante
+     */
+    public ChannelSimulator(ASKDemodulator.Detection detection, double fc, double fs, double bitRate,
+                            double A0, double A1, double attenuationDb, Channel.Fading fading, int coherenceBits) {
+        this.detection = detection;
+        this.fc = fc;
+        this.fs = fs;
+        this.bitRate = bitRate;
+        this.A0 = A0;
+        this.A1 = A1;
+        this.attenuationDb = attenuationDb;
+        this.fading = fading;
+        this.coherenceBits = Math.max(1, coherenceBits);
+        this.samplesPerBit = ASKModulator.samplesPerBit(fs, bitRate);
+        this.power = (A0 * A0 + A1 * A1) / 4;   // Media de A²·sin² con bits equiprobables
+    }
+
+    /**
+     * Canal AWGN sin atenuación ni desvanecimiento
+     */
+    public ChannelSimulator(ASKDemodulator.Detection detection, double fc, double fs, double bitRate,
+                            double A0, double A1) {
+        this(detection, fc, fs, bitRate, A0, A1, 0, Channel.Fading.NONE, 1);
+    }
+
+    /**
+     * Desviación típica del ruido por muestra para una Eb/N0
+     */
+    public double sigma(double ebN0Db) {
+        double eb = power * samplesPerBit;
+        return Math.sqrt(eb / (2 * Math.pow(10, ebN0Db / 10)));
+    }
+
+    /**
+     * BER teórica con detección coherente y umbral en el punto medio (solo
+     * canal sin desvanecimiento): Q(g·|A1 − A0| / (2σz)), con σz² = 2σ²/spb
+     * la varianza del estadístico del demodulador.
+     *
+     * @return BER, o NaN si no hay expresión cerrada para la configuración
+     */
+    public double theory(double ebN0Db) {
+        if (detection != ASKDemodulator.Detection.COHERENT || fading != Channel.Fading.NONE) return Double.NaN;
+        double g = Math.pow(10, -attenuationDb / 20);
+        double sigmaZ = Math.sqrt(2 / (double) samplesPerBit) * sigma(ebN0Db);
+        return q(g * Math.abs(A1 - A0) / (2 * sigmaZ));
+    }
+
+    /**
+     * Barrido de Eb/N0
+     *
+     * @param ebN0Db       Puntos de la curva (dB)
+     * @param bitsPerPoint Bits simulados por punto
+     * @param seed         Semilla
+     * @param pool         Pool donde se reparten los lotes
+     * @return             Un resultado por punto, en el mismo orden
+     */
+    public List<Point> sweep(double[] ebN0Db, long bitsPerPoint, long seed, ForkJoinPool pool) {
+        int chunks = (int) ((bitsPerPoint + CHUNK_BITS - 1) / CHUNK_BITS);
+        GaussianNoise root = new GaussianNoise(seed);
+        List<Callable<Long>> tasks = new ArrayList<>(ebN0Db.length * chunks);
+        for (double point : ebN0Db) {
+            double sigma = sigma(point);
+            for (int c = 0; c < chunks; c++) {
+                int n = (int) Math.min(CHUNK_BITS, bitsPerPoint - (long) c * CHUNK_BITS);
+                GaussianNoise noise = root.split();
+                tasks.add(() -> simulate(n, sigma, noise));
+            }
+        }
+
+        long[] errors = new long[ebN0Db.length];
+        try {
+            List<Future<Long>> futures = pool.invokeAll(tasks);
+            for (int t = 0; t < futures.size(); t++) errors[t / chunks] += futures.get(t).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en la simulación", e.getCause());
+        }
+
+        List<Point> points = new ArrayList<>(ebN0Db.length);
+        double snrOffset = 10 * Math.log10(2.0 / samplesPerBit);
+        for (int p = 0; p < ebN0Db.length; p++) {
+            points.add(new Point(ebN0Db[p], ebN0Db[p] + snrOffset, bitsPerPoint, errors[p], theory(ebN0Db[p])));
+        }
+        return points;
+    }
+
+    public List<Point> sweep(double[] ebN0Db, long bitsPerPoint, long seed) {
+        return sweep(ebN0Db, bitsPerPoint, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Simula un lote y devuelve el número de bits erróneos
+     */
+    private long simulate(int nBits, double sigma, GaussianNoise noise) {
+        Channel channel = new Channel(noise, sigma, attenuationDb, fading, coherenceBits * samplesPerBit);
+        double g = channel.getGain();
+        ASKDemodulator demod = new ASKDemodulator(detection, fc, fs, bitRate, g * A0, g * A1);
+        Oscillator osc = new Oscillator(Oscillator.Mode.RECURSIVE, fc, fs, 1.0);
+        boolean[] sent = new boolean[BLOCK_BITS];
+        boolean[] received = new boolean[demod.maxBits(BLOCK_BITS * samplesPerBit)];
+        double[] ask = new double[BLOCK_BITS * samplesPerBit];
+
+        long errors = 0;
+        for (int b = 0; b < nBits; b += BLOCK_BITS) {
+            int n = Math.min(BLOCK_BITS, nBits - b);
+            int len = n * samplesPerBit;
+            noise.fillBits(sent, 0, n);
+            ASKModulator.modulate(sent, 0, n, osc, samplesPerBit, A0, A1, ask, 0);
+            channel.apply(ask, 0, len);
+            int got = demod.process(ask, 0, len, received, 0);
+            for (int k = 0; k < got; k++) {
+                if (sent[k] != received[k]) errors++;
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Escribe los puntos como CSV (separador coma, punto decimal)
+     */
+    public static void writeCsv(List<Point> points, Appendable out) throws IOException {
+        out.append("ebn0_db,snr_db,bits,errores,ber,ber_teorica\n");
+        for (Point p : points) {
+            out.append(String.format(Locale.ROOT, "%.2f,%.2f,%d,%d,%.6e,%s\n", p.ebN0Db, p.snrDb, p.bits, p.errors,
+                    p.ber(), Double.isNaN(p.theory) ? "" : String.format(Locale.ROOT, "%.6e", p.theory)));
+        }
+    }
+
+    /**
+     * Función Q (cola de la normal estándar), con erfc en la aproximación de
+     * Chebyshev de Numerical Recipes (error relativo menor que 1.2e-7)
+     */
+    static double q(double x) {
+        double z = Math.abs(x / Math.sqrt(2));
+        double t = 1 / (1 + 0.5 * z);
+        double erfc = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return 0.5 * (x >= 0 ? erfc : 2 - erfc);
+    }
+}
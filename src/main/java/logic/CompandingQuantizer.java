@@ -0,0 +1,198 @@
+package logic;
+
+/**
+ * Cuantización no uniforme de 8 bits con las leyes μ y A de G.711.
+ *
+ * La compresión logarítmica da pasos pequeños cerca de cero y grandes cerca
+ * del fondo de escala, así que la SNR de cuantización se mantiene casi
+ * constante (unos 38 dB) en un rango dinámico amplio, cuando con PCM
+ * uniforme de 8 bits cae 6 dB por cada octava de nivel por debajo del máximo.
+ * <p>
+ * La codificación se hace desde muestras lineales de 16 bits con una tabla
+ * directa de 65536 entradas (un byte por entrada), una lectura por muestra.
+ * Las muestras double se escalan antes a 16 bits (fullScale ↦ 32767) con
+ * saturación. Los niveles son las palabras de código G.711 tal cual se
+ * transmiten (ley μ invertida, ley A con los bits pares invertidos), así que
+ * no están ordenados por amplitud; {@link #value(int)} deshace la
+ * codificación.
+ *
+ * @author xexpl
+ */
+public class CompandingQuantizer implements Quantizer {
+
+    /**
+     * Ley de compresión
+     */
+    public enum Law {
+        MU_LAW, A_LAW
+    }
+
+    private static final int[] SEG_UEND = {0x3F, 0x7F, 0xFF, 0x1FF, 0x3FF, 0x7FF, 0xFFF, 0x1FFF};
+    private static final int[] SEG_AEND = {0x1F, 0x3F, 0x7F, 0xFF, 0x1FF, 0x3FF, 0x7FF, 0xFFF};
+    private static final int BIAS = 0x84;
+    private static final int CLIP = 8159;
+
+    // Tablas compartidas: se calculan una vez por ley
+    private static final byte[] MU_ENCODE = new byte[1 << 16];
+    private static final byte[] A_ENCODE = new byte[1 << 16];
+    private static final double[] MU_DECODE = new double[256];
+    private static final double[] A_DECODE = new double[256];
+
+    static {
+        for (int s = -32768; s < 32768; s++) {
+            MU_ENCODE[s + 32768] = (byte) linearToUlaw(s);
+            A_ENCODE[s + 32768] = (byte) linearToAlaw(s);
+        }
+        for (int c = 0; c < 256; c++) {
+            MU_DECODE[c] = ulawToLinear(c) / 32768.0;
+            A_DECODE[c] = alawToLinear(c) / 32768.0;
+        }
+    }
+
+    private final Law law;
+    private final double fullScale;
+    private final byte[] encode;
+    private final double[] decode;
+
+    /**
+     * @param law       Ley de compresión
+     * @param fullScale Valor de entrada que corresponde al fondo de escala de 16 bits
+     */
+    public CompandingQuantizer(Law law, double fullScale) {
+        if (!(fullScale > 0)) {
+            throw new IllegalArgumentException("fullScale debe ser positivo: " + fullScale);
+        }
+        this.law = law;
+        this.fullScale = fullScale;
+        this.encode = law == Law.MU_LAW ? MU_ENCODE : A_ENCODE;
+        double[] unit = law == Law.MU_LAW ? MU_DECODE : A_DECODE;
+        this.decode = new double[256];
+        for (int c = 0; c < 256; c++) {
+            decode[c] = unit[c] * fullScale;
+        }
+    }
+
+    /**
+     * Cuantizador para señales en [-1, 1], como en el resto del proyecto
+     */
+    public CompandingQuantizer(Law law) {
+        this(law, 1.0);
+    }
+
+    @Override
+    public int getNBits() {
+        return 8;
+    }
+
+    @Override
+    public void quantizeLevels(double[] x, int off, int len, int[] out, int outOff) {
+        byte[] t = encode;
+        double scale = 32767 / fullScale;
+        for (int i = 0; i < len; i++) {
+            double v = x[off + i] * scale;
+            // Redondeo y saturación a 16 bits (NaN queda en 0)
+            int s = (int) Math.max(-32768, Math.min(32767, Math.round(v)));
+            out[outOff + i] = t[s + 32768] & 0xFF;
+        }
+    }
+
+    /**
+     * Codifica muestras lineales de 16 bits (una lectura de tabla por muestra)
+     */
+    public void quantizeLevels(short[] pcm16, int off, int len, int[] out, int outOff) {
+        byte[] t = encode;
+        for (int i = 0; i < len; i++) {
+            out[outOff + i] = t[pcm16[off + i] + 32768] & 0xFF;
+        }
+    }
+
+    /**
+     * Codifica muestras lineales de 16 bits en bytes G.711
+     */
+    public void encode(short[] pcm16, int off, int len, byte[] out, int outOff) {
+        byte[] t = encode;
+        for (int i = 0; i < len; i++) {
+            out[outOff + i] = t[pcm16[off + i] + 32768];
+        }
+    }
+
+    @Override
+    public double value(int level) {
+        return decode[level];
+    }
+
+    public Law getLaw() {
+        return law;
+    }
+
+    public double getFullScale() {
+        return fullScale;
+    }
+
+    // --- Codificación de referencia G.711 (se usa solo para llenar las tablas) ---
+
+    private static int segment(int value, int[] ends) {
+        for (int i = 0; i < ends.length; i++) {
+            if (value <= ends[i]) return i;
+        }
+        return ends.length;
+    }
+
+    private static int linearToUlaw(int pcm) {
+        int mask;
+        int v = pcm >> 2; // 14 bits
+        if (v < 0) {
+            v = -v;
+            mask = 0x7F;
+        } else {
+            mask = 0xFF;
+        }
+        if (v > CLIP) v = CLIP;
+        v += BIAS >> 2;
+        int seg = segment(v, SEG_UEND);
+        if (seg >= 8) return 0x7F ^ mask;
+        int u = (seg << 4) | ((v >> (seg + 1)) & 0xF);
+        return u ^ mask;
+    }
+
+    private static int ulawToLinear(int code) {
+        int u = ~code & 0xFF;
+        int t = ((u & 0x0F) << 3) + BIAS;
+        t <<= (u & 0x70) >> 4;
+        return (u & 0x80) != 0 ? BIAS - t : t - BIAS;
+    }
+
+    private static int linearToAlaw(int pcm) {
+        int mask;
+        int v = pcm >> 3; // 13 bits
+        if (v >= 0) {
+            mask = 0xD5;
+        } else {
+            mask = 0x55;
+            v = -v - 1;
+        }
+        int seg = segment(v, SEG_AEND);
+        if (seg >= 8) return 0x7F ^ mask;
+        int a = seg << 4;
+        a |= seg < 2 ? (v >> 1) & 0xF : (v >> seg) & 0xF;
+        return a ^ mask;
+    }
+
+    private static int alawToLinear(int code) {
+        int a = code ^ 0x55;
+        int t = (a & 0x0F) << 4;
+        int seg = (a & 0x70) >> 4;
+        switch (seg) {
+            case 0:
+                t += 8;
+                break;
+            case 1:
+                t += 0x108;
+                break;
+            default:
+                t += 0x108;
+                t <<= seg - 1;
+        }
+        return (a & 0x80) != 0 ? t : -t;
+    }
+}
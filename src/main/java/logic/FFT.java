@@ -0,0 +1,212 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Transformada rápida de Fourier radix-2 para un tamaño fijo.
+ *
+ * Las tablas de seno/coseno y de inversión de bits se calculan una vez al
+ * crear la instancia, y las transformadas trabajan en el lugar sobre los
+ * arreglos del llamador. La FFT real de n puntos se calcula con una FFT
+ * compleja de n/2 puntos (pares en la parte real, impares en la imaginaria)
+ * más un paso de separación, así que cuesta la mitad que la compleja.
+ * <p>
+ * Los arreglos auxiliares se reutilizan entre llamadas: una instancia no es
+ * segura para varios hilos (se puede crear una por hilo).
+ *
+ * @author xexpl
+ */
+public class FFT {
+
+    private final int n;
+    private final int logN;
+    private final double[] cos;    // cos(2πk/n), k < n/2
+    private final double[] sin;    // sin(2πk/n), k < n/2
+    private final int[] revFull;   // Inversión de bits para n puntos
+    private final int[] revHalf;   // Inversión de bits para n/2 puntos (FFT real)
+
+    // Buffers de la FFT real y de Welch
+    private final double[] zr;
+    private final double[] zi;
+    private final double[] seg;
+    private final double[] outRe;
+    private final double[] outIm;
+    private double[] hann;         // Ventana de Welch (se calcula al primer uso)
+
+    /**
+     * @param n Tamaño de la transformada (potencia de dos, al menos 2)
+     */
+    public FFT(int n) {
+        if (n < 2 || Integer.bitCount(n) != 1) {
+            throw new IllegalArgumentException("El tamaño de la FFT debe ser potencia de dos: " + n);
+        }
+        this.n = n;
+        this.logN = Integer.numberOfTrailingZeros(n);
+        this.cos = new double[n / 2];
+        this.sin = new double[n / 2];
+        for (int k = 0; k < n / 2; k++) {
+            double a = 2 * Math.PI * k / n;
+            cos[k] = Math.cos(a);
+            sin[k] = Math.sin(a);
+        }
+        this.revFull = bitReversal(logN);
+        this.revHalf = bitReversal(logN - 1);
+        this.zr = new double[n / 2];
+        this.zi = new double[n / 2];
+        this.seg = new double[n];
+        this.outRe = new double[n / 2 + 1];
+        this.outIm = new double[n / 2 + 1];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * FFT compleja directa en el lugar: X[k] = Σ x[j]·e^{-2πi·jk/n}
+     *
+     * @param re Parte real (n valores)
+     * @param im Parte imaginaria (n valores)
+     */
+    public void forward(double[] re, double[] im) {
+        transform(re, im, n, revFull, 1, -1.0);
+    }
+
+    /**
+     * FFT compleja inversa en el lugar, normalizada por 1/n
+     */
+    public void inverse(double[] re, double[] im) {
+        transform(re, im, n, revFull, 1, 1.0);
+        double s = 1.0 / n;
+        for (int i = 0; i < n; i++) {
+            re[i] *= s;
+            im[i] *= s;
+        }
+    }
+
+    /**
+     * FFT de una señal real. Solo se calculan los bins 0..n/2 (el resto es
+     * el conjugado por simetría).
+     *
+     * @param x   Señal (se leen n valores desde off)
+     * @param off Posición del primer valor
+     * @param re  Parte real de los bins 0..n/2 (n/2 + 1 valores)
+     * @param im  Parte imaginaria de los bins 0..n/2
+     */
+    public void realForward(double[] x, int off, double[] re, double[] im) {
+        int h = n / 2;
+        // Empaquetar pares e impares como un complejo de n/2 puntos
+        for (int j = 0; j < h; j++) {
+            zr[j] = x[off + 2 * j];
+            zi[j] = x[off + 2 * j + 1];
+        }
+        transform(zr, zi, h, revHalf, 2, -1.0);
+
+        // Separar: X[k] = E[k] + W^k·O[k], con E y O las FFT de pares e impares
+        re[0] = zr[0] + zi[0];
+        im[0] = 0.0;
+        re[h] = zr[0] - zi[0];
+        im[h] = 0.0;
+        for (int k = 1; k < h; k++) {
+            double ar = zr[k], ai = zi[k];
+            double br = zr[h - k], bi = -zi[h - k]; // conj(Z[h-k])
+            double er = 0.5 * (ar + br), ei = 0.5 * (ai + bi);
+            double or = 0.5 * (ai - bi), oi = -0.5 * (ar - br);
+            // W^k = e^{-2πik/n} = cos - i·sin
+            double wr = cos[k], wi = -sin[k];
+            re[k] = er + wr * or - wi * oi;
+            im[k] = ei + wr * oi + wi * or;
+        }
+    }
+
+    /**
+     * Densidad espectral por el método de Welch: segmentos de n muestras con
+     * ventana de Hann y 50% de solape; se promedia |X[k]|² de todos los
+     * segmentos que cubren la señal. Si la señal es más corta que n se
+     * completa con ceros.
+     *
+     * @param x   Señal
+     * @param out Potencia media de los bins 0..n/2 (n/2 + 1 valores)
+     * @return    Número de segmentos promediados
+     */
+    public int welch(double[] x, double[] out) {
+        int h = n / 2;
+        Arrays.fill(out, 0, h + 1, 0.0);
+        if (hann == null) {
+            hann = new double[n];
+            for (int i = 0; i < n; i++) {
+                hann[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / n);
+            }
+        }
+        double[] window = hann;
+        double norm = 0.0;
+        for (double w : window) norm += w * w;
+
+        int segments = 0;
+        int hop = h;
+        int start = 0;
+        do {
+            int len = Math.min(n, x.length - start);
+            for (int i = 0; i < len; i++) seg[i] = x[start + i] * window[i];
+            Arrays.fill(seg, Math.max(0, len), n, 0.0);
+            realForward(seg, 0, outRe, outIm);
+            for (int k = 0; k <= h; k++) {
+                out[k] += outRe[k] * outRe[k] + outIm[k] * outIm[k];
+            }
+            segments++;
+            start += hop;
+        } while (start + n <= x.length);
+
+        double s = 1.0 / (segments * norm);
+        for (int k = 0; k <= h; k++) out[k] *= s;
+        return segments;
+    }
+
+    /**
+     * Radix-2 iterativa (decimación en el tiempo) de m puntos. Las tablas
+     * están calculadas para n puntos, así que el twiddle de una etapa de
+     * tamaño len es el índice j·(n/len) = j·stride·(m/len).
+     */
+    private void transform(double[] re, double[] im, int m, int[] rev, int stride, double sign) {
+        for (int i = 0; i < m; i++) {
+            int j = rev[i];
+            if (j > i) {
+                double t = re[i]; re[i] = re[j]; re[j] = t;
+                t = im[i]; im[i] = im[j]; im[j] = t;
+            }
+        }
+        for (int len = 2; len <= m; len <<= 1) {
+            int halfLen = len >> 1;
+            int step = stride * (m / len);
+            for (int i = 0; i < m; i += len) {
+                for (int j = 0, t = 0; j < halfLen; j++, t += step) {
+                    double wr = cos[t];
+                    double wi = sign * sin[t];
+                    int a = i + j, b = a + halfLen;
+                    double xr = re[b] * wr - im[b] * wi;
+                    double xi = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - xr;
+                    im[b] = im[a] - xi;
+                    re[a] += xr;
+                    im[a] += xi;
+                }
+            }
+        }
+    }
+
+    private static int[] bitReversal(int bits) {
+        int size = 1 << bits;
+        int[] rev = new int[size];
+        for (int i = 0; i < size; i++) {
+            rev[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+        }
+        return rev;
+    }
+
+    /**
+     * @return Menor potencia de dos mayor o igual que x (mínimo 2)
+     */
+    public static int nextPowerOfTwo(int x) {
+        return x <= 2 ? 2 : Integer.highestOneBit(x - 1) << 1;
+    }
+}
@@ -0,0 +1,85 @@
+package logic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generador de ruido gaussiano sobre {@link SplittableRandom}.
+ *
+ * Usa el método polar de Marsaglia, que produce dos valores N(0, 1) por cada
+ * par de uniformes aceptado (π/4 de las veces) sin funciones trigonométricas.
+ * Cada instancia es para un solo hilo: para repartir trabajo se crean
+ * generadores independientes con {@link #split()}, que da secuencias
+ * reproducibles a partir de la semilla inicial sin sincronización entre hilos.
+ *
+ * @author xexpl
+ */
+public class GaussianNoise {
+
+    private final SplittableRandom random;
+    private double spare;
+    private boolean hasSpare = false;
+
+    public GaussianNoise(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private GaussianNoise(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * @return Generador independiente derivado de este (avanza el estado de este)
+     */
+    public GaussianNoise split() {
+        return new GaussianNoise(random.split());
+    }
+
+    /**
+     * @return Siguiente valor N(0, 1)
+     */
+    public double next() {
+        if (hasSpare) {
+            hasSpare = false;
+            return spare;
+        }
+        double u, v, s;
+        do {
+            u = 2 * random.nextDouble() - 1;
+            v = 2 * random.nextDouble() - 1;
+            s = u * u + v * v;
+        } while (s >= 1 || s == 0);
+        double m = Math.sqrt(-2 * Math.log(s) / s);
+        spare = v * m;
+        hasSpare = true;
+        return u * m;
+    }
+
+    /**
+     * Suma ruido N(0, sigma²) a len muestras
+     */
+    public void add(double[] x, int off, int len, double sigma) {
+        for (int i = off, end = off + len; i < end; i++) {
+            x[i] += sigma * next();
+        }
+    }
+
+    /**
+     * @return Siguiente bit aleatorio equiprobable
+     */
+    public boolean nextBit() {
+        return random.nextBoolean();
+    }
+
+    /**
+     * Rellena len bits aleatorios equiprobables (64 por cada llamada al generador)
+     */
+    public void fillBits(boolean[] bits, int off, int len) {
+        int i = off, end = off + len;
+        while (i < end) {
+            long word = random.nextLong();
+            for (int k = 0; k < 64 && i < end; k++, i++) {
+                bits[i] = (word >>> k & 1) != 0;
+            }
+        }
+    }
+}
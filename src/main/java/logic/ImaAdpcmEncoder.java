@@ -0,0 +1,188 @@
+package logic;
+
+/**
+ * Codificación IMA ADPCM de 4 bits por muestra.
+ *
+ * Como en DPCM se transmite el error de predicción, pero el tamaño de paso se
+ * adapta a la señal: cada código ajusta el índice de una tabla de 89 pasos
+ * (crece con errores grandes y decrece con pequeños), así que no hay que
+ * elegir un rango y el mismo codificador sirve para pasajes fuertes y
+ * suaves. Trabaja sobre muestras lineales de 16 bits, con la aritmética
+ * entera del estándar IMA/DVI, así que los códigos son compatibles con otros
+ * codificadores IMA (sin las cabeceras de bloque de WAV).
+ * <p>
+ * Las muestras double se escalan a 16 bits igual que en
+ * {@link CompandingQuantizer} (fullScale ↦ 32767, con saturación). El
+ * codificador guarda estado (predictor e índice de paso) entre bloques y no
+ * asigna memoria al codificar; no es seguro entre hilos.
+ *
+ * @author xexpl
+ */
+public class ImaAdpcmEncoder implements SampleEncoder {
+
+    static final int[] INDEX_TABLE = {
+            -1, -1, -1, -1, 2, 4, 6, 8,
+            -1, -1, -1, -1, 2, 4, 6, 8
+    };
+
+    static final int[] STEP_TABLE = {
+            7, 8, 9, 10, 11, 12, 13, 14, 16, 17,
+            19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+            50, 55, 60, 66, 73, 80, 88, 97, 107, 118,
+            130, 143, 157, 173, 190, 209, 230, 253, 279, 307,
+            337, 371, 408, 449, 494, 544, 598, 658, 724, 796,
+            876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066,
+            2272, 2499, 2749, 3024, 3327, 3660, 4026, 4428, 4871, 5358,
+            5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487, 12635, 13899,
+            15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+    };
+
+    private final double fullScale;
+    private int predictor = 0;
+    private int index = 0;
+
+    /**
+     * @param fullScale Valor de entrada que corresponde al fondo de escala de 16 bits
+     */
+    public ImaAdpcmEncoder(double fullScale) {
+        if (!(fullScale > 0)) {
+            throw new IllegalArgumentException("fullScale debe ser positivo: " + fullScale);
+        }
+        this.fullScale = fullScale;
+    }
+
+    /**
+     * Codificador para señales en [-1, 1]
+     */
+    public ImaAdpcmEncoder() {
+        this(1.0);
+    }
+
+    @Override
+    public int getNBits() {
+        return 4;
+    }
+
+    @Override
+    public void quantizeLevels(double[] x, int off, int len, int[] out, int outOff) {
+        double scale = 32767 / fullScale;
+        for (int i = 0; i < len; i++) {
+            int s = (int) Math.max(-32768, Math.min(32767, Math.round(x[off + i] * scale)));
+            out[outOff + i] = encode(s);
+        }
+    }
+
+    /**
+     * Codifica muestras lineales de 16 bits
+     */
+    public void quantizeLevels(short[] pcm16, int off, int len, int[] out, int outOff) {
+        for (int i = 0; i < len; i++) {
+            out[outOff + i] = encode(pcm16[off + i]);
+        }
+    }
+
+    private int encode(int sample) {
+        int step = STEP_TABLE[index];
+        int diff = sample - predictor;
+        int code = 0;
+        if (diff < 0) {
+            code = 8;
+            diff = -diff;
+        }
+        // Aproximación sucesiva de diff/step en 3 bits; vpdiff es lo que reconstruirá el decodificador
+        int vpdiff = step >> 3;
+        if (diff >= step) {
+            code |= 4;
+            diff -= step;
+            vpdiff += step;
+        }
+        step >>= 1;
+        if (diff >= step) {
+            code |= 2;
+            diff -= step;
+            vpdiff += step;
+        }
+        step >>= 1;
+        if (diff >= step) {
+            code |= 1;
+            vpdiff += step;
+        }
+        predictor = clamp16((code & 8) != 0 ? predictor - vpdiff : predictor + vpdiff);
+        index = clampIndex(index + INDEX_TABLE[code]);
+        return code;
+    }
+
+    @Override
+    public void reset() {
+        predictor = 0;
+        index = 0;
+    }
+
+    /**
+     * @return Decodificador con la misma escala
+     */
+    public Decoder decoder() {
+        return new Decoder(fullScale);
+    }
+
+    static int clamp16(int v) {
+        return v > 32767 ? 32767 : Math.max(v, -32768);
+    }
+
+    static int clampIndex(int i) {
+        return i < 0 ? 0 : Math.min(i, STEP_TABLE.length - 1);
+    }
+
+    /**
+     * Decodificador IMA ADPCM
+     */
+    public static class Decoder {
+        private final double scale;
+        private int predictor = 0;
+        private int index = 0;
+
+        public Decoder(double fullScale) {
+            this.scale = fullScale / 32768.0;
+        }
+
+        /**
+         * Decodifica un bloque de códigos de 4 bits
+         */
+        public void decode(int[] codes, int off, int len, double[] out, int outOff) {
+            for (int i = 0; i < len; i++) {
+                out[outOff + i] = next(codes[off + i]) * scale;
+            }
+        }
+
+        /**
+         * Decodifica nSamples muestras de una secuencia de bits (MSB primero)
+         */
+        public void decode(boolean[] bits, int off, int nSamples, double[] out, int outOff) {
+            int idx = off;
+            for (int i = 0; i < nSamples; i++) {
+                int code = (bits[idx] ? 8 : 0) | (bits[idx + 1] ? 4 : 0) | (bits[idx + 2] ? 2 : 0) | (bits[idx + 3] ? 1 : 0);
+                idx += 4;
+                out[outOff + i] = next(code) * scale;
+            }
+        }
+
+        /**
+         * @return Siguiente muestra de 16 bits
+         */
+        public int next(int code) {
+            int step = STEP_TABLE[index];
+            int vpdiff = step >> 3;
+            if ((code & 4) != 0) vpdiff += step;
+            if ((code & 2) != 0) vpdiff += step >> 1;
+            if ((code & 1) != 0) vpdiff += step >> 2;
+            predictor = clamp16((code & 8) != 0 ? predictor - vpdiff : predictor + vpdiff);
+            index = clampIndex(index + INDEX_TABLE[code]);
+            return predictor;
+        }
+
+        public void reset() {
+            predictor = 0;
+            index = 0;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package logic;
+
+/**
+ * Núcleos numéricos de los bucles internos de cuantización y modulación.
+ *
+ * Hay una implementación escalar ({@link ScalarKernels}) y, cuando se compila
+ * con JDK 17+ y la JVM arranca con {@code --add-modules jdk.incubator.vector},
+ * otra SIMD basada en la Vector API ({@code logic.simd.VectorApiKernels}).
+ * {@link #get()} elige la mejor disponible en tiempo de ejecución; antes de
+ * aceptar la versión SIMD se comprueba que da exactamente los mismos
+ * resultados que la escalar sobre un conjunto de prueba.
+ *
+ * @author xexpl
+ */
+public interface Kernels {
+
+    /**
+     * Cuantización uniforme: out[i] = clamp(floor((clamp(x[i], xmin, xmaxClamp) - xmin) / q), 0, maxLevel)
+     *
+     * @param x         Muestras
+     * @param off       Posición de la primera muestra
+     * @param len       Número de muestras
+     * @param out       Niveles de salida
+     * @param outOff    Posición inicial en la salida
+     * @param xmin      Valor mínimo del rango
+     * @param xmaxClamp Valor máximo al que se satura la entrada (xmax - 1e-12)
+     * @param q         Tamaño del escalón
+     * @param maxLevel  Nivel máximo (L - 1)
+     */
+    void quantize(double[] x, int off, int len, int[] out, int outOff,
+                  double xmin, double xmaxClamp, double q, int maxLevel);
+
+    /**
+     * Modulación ASK con portadora precalculada: para cada bit se escriben
+     * samplesPerBit muestras A·c[n], con A = A1 si el bit es 1 y A0 si es 0
+     *
+     * @param bits          Bits
+     * @param off           Posición del primer bit
+     * @param len           Número de bits
+     * @param carrier       Portadora (al menos len * samplesPerBit muestras desde carrierOff)
+     * @param carrierOff    Posición de la primera muestra de portadora
+     * @param samplesPerBit Muestras por bit
+     * @param A0            Amplitud para bit 0
+     * @param A1            Amplitud para bit 1
+     * @param out           Salida
+     * @param outOff        Posición inicial en la salida
+     */
+    void modulate(boolean[] bits, int off, int len, double[] carrier, int carrierOff,
+                  int samplesPerBit, double A0, double A1, double[] out, int outOff);
+
+    /**
+     * @return Nombre de la implementación (para diagnóstico)
+     */
+    String name();
+
+    /**
+     * @return La implementación más rápida disponible en esta JVM
+     */
+    static Kernels get() {
+        return KernelsHolder.BEST;
+    }
+
+    /**
+     * @return La implementación escalar de referencia
+     */
+    static Kernels scalar() {
+        return ScalarKernels.INSTANCE;
+    }
+}
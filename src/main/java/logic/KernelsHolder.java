@@ -0,0 +1,85 @@
+package logic;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Detección perezosa de la implementación SIMD de {@link Kernels}
+ *
+ * @author xexpl
+ */
+final class KernelsHolder {
+
+    private static final String VECTOR_CLASS = "logic.simd.VectorApiKernels";
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    static final Kernels BEST = detect();
+
+    private KernelsHolder() {
+    }
+
+    private static Kernels detect() {
+        if (Boolean.getBoolean("signals.kernels.scalar")) {
+            return ScalarKernels.INSTANCE;
+        }
+        // El módulo incubador solo está presente si la JVM se lanzó con --add-modules
+        if (!ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            return ScalarKernels.INSTANCE;
+        }
+        try {
+            Kernels vector = (Kernels) Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+            return matchesScalar(vector) ? vector : ScalarKernels.INSTANCE;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Clases SIMD no compiladas (JDK < 17) o Vector API no disponible
+            return ScalarKernels.INSTANCE;
+        }
+    }
+
+    /**
+     * Compara la implementación candidata con la escalar sobre datos de prueba,
+     * incluyendo valores fuera de rango, bordes de nivel, NaN e infinitos
+     */
+    private static boolean matchesScalar(Kernels candidate) {
+        Kernels ref = ScalarKernels.INSTANCE;
+        Random rnd = new Random(12345);
+        double[] x = new double[1031];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = rnd.nextDouble() * 2.4 - 1.2;
+        }
+        x[0] = Double.NaN;
+        x[1] = Double.POSITIVE_INFINITY;
+        x[2] = Double.NEGATIVE_INFINITY;
+        x[3] = 1.0;
+        x[4] = -1.0;
+        x[5] = 0.0;
+        for (int nBits : new int[]{2, 8, 16}) {
+            int L = 1 << nBits;
+            double q = 2.0 / L;
+            for (int i = 6; i < 6 + 64; i++) {
+                x[i] = -1.0 + (i - 6) * q; // Justo en los límites de nivel
+            }
+            int[] a = new int[x.length];
+            int[] b = new int[x.length];
+            ref.quantize(x, 1, x.length - 1, a, 1, -1.0, 1.0 - 1e-12, q, L - 1);
+            candidate.quantize(x, 1, x.length - 1, b, 1, -1.0, 1.0 - 1e-12, q, L - 1);
+            if (!Arrays.equals(a, b)) return false;
+        }
+
+        boolean[] bits = new boolean[101];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = rnd.nextBoolean();
+        }
+        for (int spb : new int[]{1, 3, 8, 48}) {
+            double[] carrier = new double[bits.length * spb + 1];
+            for (int i = 0; i < carrier.length; i++) {
+                carrier[i] = rnd.nextGaussian();
+            }
+            double[] a = new double[carrier.length];
+            double[] b = new double[carrier.length];
+            ref.modulate(bits, 0, bits.length, carrier, 1, spb, 0.1, 1.0, a, 1);
+            candidate.modulate(bits, 0, bits.length, carrier, 1, spb, 0.1, 1.0, b, 1);
+            if (!Arrays.equals(a, b)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package logic;
+
+import java.io.IOException;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Origen de audio en tiempo real para {@link RealtimeChain}.
+ *
+ * Separa la cadena del dispositivo de captura: en la aplicación se usa el
+ * micrófono ({@link #microphone}) y para pruebas o demostraciones una señal
+ * sintética ({@link #synthetic}) que entrega las muestras al mismo ritmo que
+ * una tarjeta de sonido.
+ *
+ * @author xexpl
+ */
+public interface LineSource extends AutoCloseable {
+
+    /**
+     * @return Frecuencia de muestreo (Hz)
+     */
+    double getFs();
+
+    /**
+     * Abre el dispositivo y empieza a capturar
+     */
+    void open() throws IOException;
+
+    /**
+     * Lee muestras normalizadas a [-1, 1). Bloquea hasta tener al menos una
+     * muestra. Se llama siempre desde el mismo hilo.
+     *
+     * @return Número de muestras leídas, o -1 si el origen terminó o se cerró
+     */
+    int read(double[] dst, int off, int len) throws IOException;
+
+    /**
+     * Detiene la captura. Puede llamarse desde otro hilo para desbloquear {@link #read}.
+     */
+    @Override
+    void close();
+
+    /**
+     * Micrófono del sistema (PCM 16 bits mono con signo)
+     *
+     * @param fs Frecuencia de muestreo (Hz)
+     */
+    static LineSource microphone(float fs) {
+        return new MicrophoneLineSource(fs);
+    }
+
+    /**
+     * Señal sintética f(t)
+     *
+     * @param f        Señal analógica
+     * @param fs       Frecuencia de muestreo (Hz)
+     * @param duration Duración (s); 0 o negativa = sin fin
+     * @param realTime Si es true, las muestras no se entregan antes de su
+     *                 instante (como un dispositivo real); si no, tan rápido como se pidan
+     */
+    static LineSource synthetic(DoubleUnaryOperator f, double fs, double duration, boolean realTime) {
+        return new SyntheticLineSource(f, fs, duration, realTime);
+    }
+}
@@ -0,0 +1,219 @@
+package logic;
+
+import models.SampleSource;
+import models.Signal;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Vista de solo lectura sobre un archivo WAV PCM 16-bit mapeado en memoria.
+ *
+ * La cabecera RIFF se interpreta directamente y el bloque "data" se mapea con
+ * {@link FileChannel#map}; las muestras se decodifican bajo demanda, así que
+ * abrir un archivo grande es casi instantáneo y el sistema operativo solo carga
+ * las páginas de las regiones que realmente se leen. Igual que
+ * {@link AudioFileReader}, se expone únicamente el primer canal.
+ *
+ * @author xexpl
+ */
+public class MappedWavFile implements SampleSource, Closeable {
+
+    private static final int WAVE_FORMAT_PCM = 1;
+    private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
+
+    // Tamaño máximo de cada región mapeada (un MappedByteBuffer no supera 2 GB)
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long framesPerSegment;
+    private final int blockAlign;    // Bytes por frame
+    private final int channels;
+    private final double fs;
+    private final long frames;
+
+    private MappedWavFile(FileChannel channel, long dataOffset, long dataSize,
+                          int channels, int blockAlign, double fs) throws IOException {
+        this.channel = channel;
+        this.channels = channels;
+        this.blockAlign = blockAlign;
+        this.fs = fs;
+        this.frames = dataSize / blockAlign;
+        this.framesPerSegment = MAX_SEGMENT_BYTES / blockAlign;
+
+        // Mapear el bloque de datos en segmentos alineados a frames completos
+        int nSegments = (int) Math.max(1, (frames + framesPerSegment - 1) / framesPerSegment);
+        this.segments = new MappedByteBuffer[nSegments];
+        for (int s = 0; s < nSegments; s++) {
+            long firstFrame = s * framesPerSegment;
+            long size = Math.min(framesPerSegment, frames - firstFrame) * blockAlign;
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset + firstFrame * blockAlign, size);
+            segments[s].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Abre y mapea un archivo WAV
+     *
+     * @param filePath Ruta del archivo WAV
+     * @return         Vista mapeada del audio
+     * @throws IOException Si hay error al leer el archivo o la cabecera está dañada
+     * @throws UnsupportedAudioFileException Si el archivo no es WAV PCM 16-bit
+     */
+    public static MappedWavFile open(String filePath) throws IOException, UnsupportedAudioFileException {
+        Path path = Paths.get(filePath);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return parse(channel, filePath);
+        } catch (IOException | UnsupportedAudioFileException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static MappedWavFile parse(FileChannel channel, String filePath)
+            throws IOException, UnsupportedAudioFileException {
+        ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, 0);
+        if (header.getInt(0) != fourCC("RIFF") || header.getInt(8) != fourCC("WAVE")) {
+            throw new UnsupportedAudioFileException("No es un archivo RIFF/WAVE: " + filePath);
+        }
+
+        int formatTag = -1, channels = 0, blockAlign = 0, bitsPerSample = 0;
+        double sampleRate = 0;
+        long pos = 12;
+        long fileSize = channel.size();
+        ByteBuffer chunk = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+
+        // Recorrer los chunks hasta encontrar "data" (después de "fmt ")
+        while (pos + 8 <= fileSize) {
+            chunk.clear();
+            readFully(channel, chunk, pos);
+            int id = chunk.getInt(0);
+            long size = chunk.getInt(4) & 0xFFFFFFFFL;
+            long body = pos + 8;
+
+            if (id == fourCC("fmt ")) {
+                if (size < 16) {
+                    throw new IOException("Bloque fmt demasiado corto (" + size + " bytes): " + filePath);
+                }
+                ByteBuffer fmt = ByteBuffer.allocate((int) Math.min(size, 40)).order(ByteOrder.LITTLE_ENDIAN);
+                readFully(channel, fmt, body);
+                formatTag = fmt.getShort(0) & 0xFFFF;
+                channels = fmt.getShort(2) & 0xFFFF;
+                sampleRate = fmt.getInt(4) & 0xFFFFFFFFL;
+                blockAlign = fmt.getShort(12) & 0xFFFF;
+                bitsPerSample = fmt.getShort(14) & 0xFFFF;
+                if (formatTag == WAVE_FORMAT_EXTENSIBLE && fmt.limit() >= 26) {
+                    formatTag = fmt.getShort(24) & 0xFFFF; // Primer campo del GUID del subformato
+                }
+            } else if (id == fourCC("data")) {
+                if (formatTag != WAVE_FORMAT_PCM || bitsPerSample != 16 || channels < 1
+                        || blockAlign != channels * 2) {
+                    throw new UnsupportedAudioFileException("Solo se admite WAV PCM 16-bit: " + filePath);
+                }
+                // Algunos escritores dejan el tamaño en 0 o 0xFFFFFFFF al hacer streaming
+                long available = fileSize - body;
+                long dataSize = (size == 0 || size > available) ? available : size;
+                return new MappedWavFile(channel, body, dataSize, channels, blockAlign, sampleRate);
+            }
+            pos = body + size + (size & 1); // Los chunks se alinean a 2 bytes
+        }
+        throw new UnsupportedAudioFileException("El archivo WAV no contiene bloque de datos: " + filePath);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer dst, long position) throws IOException {
+        while (dst.hasRemaining()) {
+            int r = channel.read(dst, position + dst.position());
+            if (r < 0) throw new IOException("Cabecera WAV incompleta");
+        }
+    }
+
+    private static int fourCC(String s) {
+        return (s.charAt(0)) | (s.charAt(1) << 8) | (s.charAt(2) << 16) | (s.charAt(3) << 24);
+    }
+
+    @Override
+    public long length() {
+        return frames;
+    }
+
+    @Override
+    public double getFs() {
+        return fs;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Decodifica la muestra del primer canal en la posición indicada
+     */
+    @Override
+    public double sample(long index) {
+        int s = (int) (index / framesPerSegment);
+        int offset = (int) (index - s * framesPerSegment) * blockAlign;
+        return segments[s].getShort(offset) / 32768.0;
+    }
+
+    @Override
+    public int read(long start, double[] dst, int off, int len) {
+        int n = (int) Math.max(0, Math.min(len, frames - start));
+        int i = 0;
+        while (i < n) {
+            long index = start + i;
+            int s = (int) (index / framesPerSegment);
+            int frameInSegment = (int) (index - s * framesPerSegment);
+            int count = (int) Math.min(n - i, framesPerSegment - frameInSegment);
+            MappedByteBuffer seg = segments[s];
+            int offset = frameInSegment * blockAlign;
+            for (int k = 0; k < count; k++, offset += blockAlign) {
+                dst[off + i + k] = seg.getShort(offset) / 32768.0;
+            }
+            i += count;
+        }
+        return n;
+    }
+
+    /**
+     * Decodifica un rango del archivo en una señal en memoria
+     *
+     * @param start Primera muestra
+     * @param len   Número de muestras
+     * @return      Signal con las muestras decodificadas
+     */
+    public Signal toSignal(long start, int len) {
+        int n = (int) Math.max(0, Math.min(len, frames - start));
+        double[] samples = new double[n];
+        read(start, samples, 0, n);
+        return new Signal(samples, fs);
+    }
+
+    /**
+     * Decodifica el archivo completo en una señal en memoria
+     */
+    public Signal toSignal() {
+        if (frames > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Audio demasiado largo para un único arreglo: " + frames + " frames");
+        }
+        return toSignal(0, (int) frames);
+    }
+
+    /**
+     * Cierra el canal del archivo. Las regiones ya mapeadas siguen siendo
+     * válidas hasta que el recolector de basura las libere.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
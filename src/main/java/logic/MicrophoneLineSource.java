@@ -0,0 +1,68 @@
+package logic;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.TargetDataLine;
+import java.io.IOException;
+
+/**
+ * Captura del micrófono con {@link TargetDataLine}, PCM 16 bits little-endian
+ * mono. El buffer de bytes se reserva una sola vez.
+ *
+ * @author xexpl
+ */
+class MicrophoneLineSource implements LineSource {
+
+    private static final int MAX_READ_SAMPLES = 1024;
+
+    private final float fs;
+    private final byte[] bytes = new byte[2 * MAX_READ_SAMPLES];
+    private volatile TargetDataLine line;
+
+    MicrophoneLineSource(float fs) {
+        this.fs = fs;
+    }
+
+    @Override
+    public double getFs() {
+        return fs;
+    }
+
+    @Override
+    public void open() throws IOException {
+        AudioFormat fmt = new AudioFormat(fs, 16, 1, true, false);
+        try {
+            TargetDataLine l = (TargetDataLine) AudioSystem.getLine(new DataLine.Info(TargetDataLine.class, fmt));
+            l.open(fmt, 4096);
+            l.start();
+            line = l;
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            throw new IOException("No se pudo abrir el micrófono: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int read(double[] dst, int off, int len) {
+        TargetDataLine l = line;
+        if (l == null || !l.isOpen()) return -1;
+        int r = l.read(bytes, 0, 2 * Math.min(len, MAX_READ_SAMPLES));
+        if (r <= 0) return l.isOpen() ? 0 : -1;
+        int n = r / 2;
+        for (int i = 0; i < n; i++) {
+            dst[off + i] = (short) ((bytes[2 * i] & 0xff) | (bytes[2 * i + 1] << 8)) / 32768.0;
+        }
+        return n;
+    }
+
+    @Override
+    public void close() {
+        TargetDataLine l = line;
+        line = null;
+        if (l != null) {
+            l.stop();
+            l.close();
+        }
+    }
+}
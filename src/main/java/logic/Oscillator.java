@@ -0,0 +1,238 @@
+package logic;
+
+import java.math.BigInteger;
+
+/**
+ * Generador incremental de una onda seno s[n] = A·sin(2π·fc·n/fs).
+ *
+ * Produce la portadora por bloques sin tener que materializar el arreglo
+ * completo, y permite elegir entre tres métodos de cálculo:
+ * <ul>
+ *   <li>{@link Mode#EXACT}: {@code Math.sin} en cada muestra. Es la referencia
+ *       y da exactamente los mismos valores que {@link ASKModulator#carrierSine}.</li>
+ *   <li>{@link Mode#RECURSIVE}: rotación compleja (sin, cos) por el ángulo
+ *       Δ = 2π·fc/fs, una multiplicación compleja por muestra. Para acotar el
+ *       error acumulado el estado se recalcula con {@code Math.sin/Math.cos}
+ *       en los índices múltiplos de {@link #RESYNC_INTERVAL}. Entre dos anclajes
+ *       el error acumulado de fase y de amplitud es menor que
+ *       {@code RESYNC_INTERVAL · 4·2⁻⁵³ ≈ 5e-13} (relativo a A).</li>
+ *   <li>{@link Mode#TABLE}: acumulador de fase de 64 bits y tabla de
+ *       {@link #TABLE_SIZE} puntos con interpolación lineal. Error de amplitud
+ *       menor que {@code (2π/TABLE_SIZE)²/8 ≈ 3e-7} (relativo a A). La fase se
+ *       obtiene como n·paso módulo 2⁶⁴, así que no acumula redondeos; la única
+ *       deriva es el error del paso. Si fc y fs son enteros el paso es
+ *       (fc mod fs)·2⁶⁴/fs redondeado al entero más cercano (deriva menor que
+ *       n·2⁻⁶⁵ ciclos); si no, sale del cociente fc/fs en double, con la
+ *       precisión de 53 bits del double (deriva de hasta n·2⁻⁵⁴ ciclos).</li>
+ * </ul>
+ * Nota: el modo EXACT también redondea la fase θ = 2π·fc·n/fs, con un error
+ * del orden de |θ|·2⁻⁵³ rad que crece con n (unos 1e-9 rad tras un minuto a
+ * 48 kHz); las diferencias medidas frente a EXACT incluyen ese término.
+ * <p>
+ * En los tres modos el valor de la muestra n depende solo de n, así que
+ * {@link #seek(long)} permite generar cualquier tramo de forma independiente
+ * con el mismo resultado que una generación secuencial.
+ *
+ * @author xexpl
+ */
+public class Oscillator {
+
+    /**
+     * Método de cálculo del seno
+     */
+    public enum Mode {
+        EXACT, RECURSIVE, TABLE
+    }
+
+    /** Cada cuántas muestras el modo recursivo vuelve a calcular el valor exacto */
+    public static final int RESYNC_INTERVAL = 1024;
+
+    private static final int TABLE_BITS = 12;
+    /** Número de puntos por ciclo de la tabla del modo TABLE */
+    public static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final double[] SINE_TABLE = new double[TABLE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            SINE_TABLE[i] = Math.sin(2 * Math.PI * i / TABLE_SIZE);
+        }
+    }
+
+    private final Mode mode;
+    private final double fc;
+    private final double fs;
+    private final double amplitude;
+
+    // Estado del modo recursivo: sin y cos de la fase actual, y rotación por muestra
+    private final double sinDelta;
+    private final double cosDelta;
+    private double s;
+    private double c;
+
+    // Paso del acumulador de fase (ciclos · 2⁶⁴ por muestra) del modo tabla
+    private final long phaseStep;
+
+    private long n = 0; // Índice absoluto de la próxima muestra
+
+    /**
+     * @param mode      Método de cálculo
+     * @param fc        Frecuencia de la onda (Hz)
+     * @param fs        Frecuencia de muestreo (Hz)
+     * @param amplitude Amplitud de la onda
+     */
+    public Oscillator(Mode mode, double fc, double fs, double amplitude) {
+        this.mode = mode;
+        this.fc = fc;
+        this.fs = fs;
+        this.amplitude = amplitude;
+
+        double delta = 2 * Math.PI * fc / fs;
+        this.sinDelta = Math.sin(delta);
+        this.cosDelta = Math.cos(delta);
+
+        this.phaseStep = phaseStep(fc, fs);
+
+        seek(0);
+    }
+
+    /**
+     * Parte fraccionaria de fc/fs en punto fijo de 64 bits (sin signo)
+     */
+    static long phaseStep(double fc, double fs) {
+        long f = (long) fc, r = (long) fs;
+        if (f == fc && r == fs && r > 0 && Math.abs(f) < (1L << 53)) {
+            // Cociente exacto de enteros: round((fc mod fs) · 2⁶⁴ / fs), siempre < 2⁶⁴
+            BigInteger num = BigInteger.valueOf(Math.floorMod(f, r)).shiftLeft(64).add(BigInteger.valueOf(r / 2));
+            return num.divide(BigInteger.valueOf(r)).longValue();
+        }
+        double ratio = fc / fs;
+        double frac = ratio - Math.floor(ratio);
+        return Math.round(frac * 0x1p63) << 1;
+    }
+
+    /**
+     * Posiciona el oscilador en la muestra de índice absoluto index
+     */
+    public void seek(long index) {
+        if (mode == Mode.RECURSIVE) {
+            // Anclar en el último múltiplo de RESYNC_INTERVAL y avanzar hasta index,
+            // igual que lo haría una generación secuencial desde 0
+            long anchor = index - Math.floorMod(index, (long) RESYNC_INTERVAL);
+            double theta = 2 * Math.PI * fc * (anchor / fs);
+            s = Math.sin(theta);
+            c = Math.cos(theta);
+            this.n = anchor;
+            while (this.n < index) {
+                advanceRecursive();
+            }
+        } else {
+            this.n = index;
+        }
+    }
+
+    /**
+     * @return Índice absoluto de la próxima muestra que se generará
+     */
+    public long position() {
+        return n;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Genera la siguiente muestra
+     */
+    public double next() {
+        double v;
+        switch (mode) {
+            case RECURSIVE:
+                v = s;
+                advanceRecursive();
+                return amplitude * v;
+            case TABLE:
+                v = tableSine(n * phaseStep);
+                n++;
+                return amplitude * v;
+            default:
+                double t = n / fs;
+                n++;
+                return amplitude * Math.sin(2 * Math.PI * fc * t);
+        }
+    }
+
+    /**
+     * Genera el siguiente bloque de muestras
+     *
+     * @param out Arreglo destino
+     * @param off Posición inicial en el destino
+     * @param len Número de muestras
+     */
+    public void fill(double[] out, int off, int len) {
+        fill(out, off, len, 1.0);
+    }
+
+    /**
+     * Genera el siguiente bloque de muestras multiplicado por una ganancia
+     * (por ejemplo la amplitud A0/A1 de un bit ASK)
+     *
+     * @param out  Arreglo destino
+     * @param off  Posición inicial en el destino
+     * @param len  Número de muestras
+     * @param gain Factor que multiplica a cada muestra
+     */
+    public void fill(double[] out, int off, int len, double gain) {
+        double g = gain * amplitude;
+        int end = off + len;
+        switch (mode) {
+            case RECURSIVE:
+                for (int i = off; i < end; i++) {
+                    out[i] = g * s;
+                    advanceRecursive();
+                }
+                break;
+            case TABLE: {
+                long phase = n * phaseStep;
+                for (int i = off; i < end; i++) {
+                    out[i] = g * tableSine(phase);
+                    phase += phaseStep;
+                }
+                n += len;
+                break;
+            }
+            default:
+                for (int i = off; i < end; i++, n++) {
+                    double t = n / fs;
+                    out[i] = g * Math.sin(2 * Math.PI * fc * t);
+                }
+        }
+    }
+
+    /**
+     * Avanza una muestra en modo recursivo: (s, c) ← (s, c) · e^{iΔ}
+     */
+    private void advanceRecursive() {
+        n++;
+        if (n % RESYNC_INTERVAL == 0) {
+            // Volver a anclar en el valor exacto para que el error no crezca
+            double theta = 2 * Math.PI * fc * (n / fs);
+            s = Math.sin(theta);
+            c = Math.cos(theta);
+        } else {
+            double s1 = s * cosDelta + c * sinDelta;
+            c = c * cosDelta - s * sinDelta;
+            s = s1;
+        }
+    }
+
+    /**
+     * Seno de una fase en punto fijo (ciclos · 2⁶⁴) por tabla e interpolación lineal
+     */
+    private static double tableSine(long phase) {
+        int idx = (int) (phase >>> (64 - TABLE_BITS));
+        double frac = ((phase << TABLE_BITS) >>> 11) * 0x1p-53;
+        double a = SINE_TABLE[idx];
+        return a + (SINE_TABLE[idx + 1] - a) * frac;
+    }
+}
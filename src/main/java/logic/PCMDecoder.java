@@ -0,0 +1,222 @@
+package logic;
+
+import models.PackedBits;
+
+/**
+ * Decodificación PCM: convierte la secuencia de bits de un {@link Quantizer}
+ * ({@link PCMEncoder}, {@link CompandingQuantizer}) en niveles y los niveles
+ * en valores reconstruidos.
+ *
+ * Los 2^nBits valores ({@link Quantizer#value(int)}; con PCM uniforme, el
+ * centro de cada intervalo, xmin + k·q + q/2) se calculan una vez en una
+ * tabla, así que reconstruir una muestra es una lectura de la tabla. Con bits
+ * empaquetados cada muestra se extrae de una vez con
+ * {@link PackedBits#getBits(long, int)} en lugar de bit a bit.
+ * <p>
+ * Los métodos por bloques no guardan estado y pueden usarse desde varios
+ * hilos. {@link #push} decodifica una secuencia que llega en trozos
+ * arbitrarios (por ejemplo, la salida de {@link ASKDemodulator}): guarda los
+ * bits de una muestra incompleta hasta el siguiente trozo y no asigna
+ * memoria, pero no es seguro entre hilos.
+ *
+ * @author xexpl
+ */
+public class PCMDecoder {
+
+    private final int nBits;
+    private final double[] table;   // Valor reconstruido de cada nivel
+
+    // Estado de push(): bits de la muestra en curso
+    private int pending = 0;
+    private int pendingBits = 0;
+
+    /**
+     * @param nBits Bits por muestra
+     * @param xmin  Valor mínimo del rango de cuantización
+     * @param xmax  Valor máximo del rango de cuantización
+     */
+    public PCMDecoder(int nBits, double xmin, double xmax) {
+        this(new PCMEncoder(nBits, xmin, xmax));
+    }
+
+    /**
+     * Decodificador de la salida de un cuantizador
+     */
+    public PCMDecoder(Quantizer quantizer) {
+        int nBits = quantizer.getNBits();
+        if (nBits < 1 || nBits > 24) {
+            throw new IllegalArgumentException("nBits debe estar entre 1 y 24: " + nBits);
+        }
+        this.nBits = nBits;
+        this.table = new double[1 << nBits];
+        for (int k = 0; k < table.length; k++) {
+            table[k] = quantizer.value(k);
+        }
+    }
+
+    /**
+     * @return Valor reconstruido de un nivel
+     */
+    public double value(int level) {
+        return table[level];
+    }
+
+    /**
+     * Convierte niveles en valores
+     */
+    public double[] levelsToValues(int[] levels) {
+        double[] out = new double[levels.length];
+        levelsToValues(levels, 0, levels.length, out, 0);
+        return out;
+    }
+
+    /**
+     * Convierte un bloque de niveles en valores escribiendo en un arreglo existente
+     */
+    public void levelsToValues(int[] levels, int off, int len, double[] out, int outOff) {
+        double[] t = table;
+        for (int i = 0; i < len; i++) {
+            out[outOff + i] = t[levels[off + i]];
+        }
+    }
+
+    /**
+     * Agrupa bits (MSB primero) en niveles
+     *
+     * @param bits     Secuencia de bits
+     * @param off      Posición del primer bit
+     * @param nSamples Número de muestras (se leen nSamples·nBits bits)
+     * @param out      Destino de los niveles
+     * @param outOff   Posición inicial en el destino
+     */
+    public void bitsToLevels(boolean[] bits, int off, int nSamples, int[] out, int outOff) {
+        int idx = off;
+        for (int i = 0; i < nSamples; i++) {
+            int v = 0;
+            for (int k = 0; k < nBits; k++) {
+                v = (v << 1) | (bits[idx++] ? 1 : 0);
+            }
+            out[outOff + i] = v;
+        }
+    }
+
+    /**
+     * Variante de {@link #bitsToLevels(boolean[], int, int, int[], int)} para bits empaquetados
+     */
+    public void bitsToLevels(PackedBits bits, long start, int nSamples, int[] out, int outOff) {
+        long pos = start;
+        for (int i = 0; i < nSamples; i++) {
+            out[outOff + i] = bits.getBits(pos, nBits);
+            pos += nBits;
+        }
+    }
+
+    /**
+     * Decodifica bits directamente en valores (sin arreglo de niveles)
+     *
+     * @param bits     Secuencia de bits
+     * @param off      Posición del primer bit
+     * @param nSamples Número de muestras
+     * @param out      Destino de los valores
+     * @param outOff   Posición inicial en el destino
+     */
+    public void decode(boolean[] bits, int off, int nSamples, double[] out, int outOff) {
+        double[] t = table;
+        int idx = off;
+        for (int i = 0; i < nSamples; i++) {
+            int v = 0;
+            for (int k = 0; k < nBits; k++) {
+                v = (v << 1) | (bits[idx++] ? 1 : 0);
+            }
+            out[outOff + i] = t[v];
+        }
+    }
+
+    /**
+     * Variante de {@link #decode(boolean[], int, int, double[], int)} para bits empaquetados
+     */
+    public void decode(PackedBits bits, long start, int nSamples, double[] out, int outOff) {
+        double[] t = table;
+        long pos = start;
+        for (int i = 0; i < nSamples; i++) {
+            out[outOff + i] = t[bits.getBits(pos, nBits)];
+            pos += nBits;
+        }
+    }
+
+    /**
+     * Decodifica todas las muestras completas de una secuencia
+     */
+    public double[] decode(boolean[] bits) {
+        double[] out = new double[bits.length / nBits];
+        decode(bits, 0, out.length, out, 0);
+        return out;
+    }
+
+    /**
+     * Decodifica todas las muestras completas de una secuencia empaquetada
+     */
+    public double[] decode(PackedBits bits) {
+        long n = bits.length() / nBits;
+        if (n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Demasiadas muestras para un arreglo: " + n);
+        }
+        double[] out = new double[(int) n];
+        decode(bits, 0, out.length, out, 0);
+        return out;
+    }
+
+    /**
+     * Decodificación por trozos: añade len bits y escribe las muestras que se
+     * completan. Los bits de una muestra incompleta se guardan para la
+     * siguiente llamada.
+     *
+     * @param out    Destino, con espacio para {@link #maxSamples}(len) muestras
+     * @param outOff Posición inicial en el destino
+     * @return       Número de muestras escritas
+     */
+    public int push(boolean[] bits, int off, int len, double[] out, int outOff) {
+        double[] t = table;
+        int i = off, end = off + len;
+        int written = 0;
+        // Completar la muestra pendiente
+        while (pendingBits > 0 && i < end) {
+            pending = (pending << 1) | (bits[i++] ? 1 : 0);
+            if (++pendingBits == nBits) {
+                out[outOff + written++] = t[pending];
+                pending = 0;
+                pendingBits = 0;
+            }
+        }
+        // Muestras completas dentro del trozo
+        int whole = (end - i) / nBits;
+        decode(bits, i, whole, out, outOff + written);
+        written += whole;
+        i += whole * nBits;
+        // Resto para la siguiente llamada
+        while (i < end) {
+            pending = (pending << 1) | (bits[i++] ? 1 : 0);
+            pendingBits++;
+        }
+        return written;
+    }
+
+    /**
+     * @return Máximo de muestras que puede producir {@link #push} con len bits
+     */
+    public int maxSamples(int len) {
+        return (pendingBits + len) / nBits;
+    }
+
+    /**
+     * Descarta la muestra incompleta de {@link #push}
+     */
+    public void reset() {
+        pending = 0;
+        pendingBits = 0;
+    }
+
+    public int getNBits() {
+        return nBits;
+    }
+}
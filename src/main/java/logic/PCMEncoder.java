@@ -4,11 +4,13 @@
  */
 package logic;
 
+import models.PackedBits;
+
 /**
  *
  * @author xexpl
  */
-public class PCMEncoder {
+public class PCMEncoder implements Quantizer {
     final int nBits;      // Cantidad de bits por muestra
     final double xmin;    // Valor mínimo de la señal analógica
     final double xmax;    // Valor máximo de la señal analógica
@@ -33,25 +35,29 @@ public class PCMEncoder {
     public int[] quantizeLevels(double[] x) {
         // Crear un arreglo para almacenar los niveles cuantizados
         int[] levels = new int[x.length];
-
-        // Iterar sobre cada muestra de la señal
-        for (int i = 0; i < x.length; i++) {
-            // Saturar la señal para que no se salga del rango [xmin, xmax)
-            // Se resta un pequeño valor 1e-12 para evitar que xmax caiga fuera del rango
-            double xi = Math.max(xmin, Math.min(xmax - 1e-12, x[i])); 
-
-            // Calcular el nivel de cuantización
-            // Fórmula: k = floor((xi - xmin) / q)
-            int k = (int) Math.floor((xi - xmin) / q);  
-
-            // Asegurar que el nivel esté dentro del rango [0, L-1]
-            levels[i] = Math.max(0, Math.min(L - 1, k));  
-        }
+        quantizeLevels(x, 0, x.length, levels, 0);
 
         // Devolver el arreglo de niveles cuantizados
         return levels;
     }
 
+    /**
+     * Cuantiza un bloque de muestras escribiendo en un arreglo existente
+     * (variante sin asignaciones para procesamiento por bloques)
+     *
+     * @param x      Arreglo con las muestras
+     * @param off    Posición de la primera muestra del bloque
+     * @param len    Número de muestras del bloque
+     * @param out    Arreglo destino para los niveles
+     * @param outOff Posición inicial en el destino
+     */
+    public void quantizeLevels(double[] x, int off, int len, int[] out, int outOff) {
+        // Para cada muestra: saturar a [xmin, xmax) (se resta 1e-12 para que xmax
+        // no caiga fuera del rango), k = floor((xi - xmin) / q) y limitar a [0, L-1].
+        // El bucle lo ejecuta el núcleo escalar o SIMD elegido en Kernels.get()
+        Kernels.get().quantize(x, off, len, out, outOff, xmin, xmax - 1e-12, q, L - 1);
+    }
+
     /**
      * Convierte un arreglo de niveles cuantizados en un arreglo de bits
      * 
@@ -107,6 +113,68 @@ public class PCMEncoder {
         return flat;
     }
 
+    /**
+     * Convierte un bloque de niveles directamente en la secuencia continua de bits
+     * (equivale a levelsToBits + flatten, sin arreglos intermedios)
+     *
+     * @param levels Arreglo de niveles cuantizados (0 a L-1)
+     * @param off    Posición del primer nivel del bloque
+     * @param len    Número de niveles del bloque
+     * @param out    Arreglo destino; debe tener espacio para len * nBits bits
+     * @param outOff Posición inicial en el destino
+     */
+    public void levelsToBits(int[] levels, int off, int len, boolean[] out, int outOff) {
+        int idx = outOff;
+        for (int i = 0; i < len; i++) {
+            int val = levels[off + i];
+            // Del bit más significativo al menos significativo
+            for (int shift = nBits - 1; shift >= 0; shift--) {
+                out[idx++] = ((val >> shift) & 1) == 1;
+            }
+        }
+    }
+
+    /**
+     * Convierte los niveles cuantizados directamente en una secuencia de bits
+     * empaquetada (1 bit de memoria por bit, sin un arreglo por muestra)
+     *
+     * @param levels Arreglo de enteros con niveles cuantizados (0 a L-1)
+     * @return       PackedBits con levels.length * nBits bits, MSB primero
+     */
+    public PackedBits levelsToPackedBits(int[] levels) {
+        PackedBits bits = new PackedBits((long) levels.length * nBits);
+        levelsToPackedBits(levels, 0, levels.length, bits, 0);
+        return bits;
+    }
+
+    /**
+     * Escribe un bloque de niveles en una secuencia empaquetada existente
+     *
+     * @param levels    Arreglo de niveles cuantizados
+     * @param off       Posición del primer nivel del bloque
+     * @param len       Número de niveles del bloque
+     * @param out       Secuencia de bits destino
+     * @param bitOffset Posición del primer bit a escribir en el destino
+     */
+    public void levelsToPackedBits(int[] levels, int off, int len, PackedBits out, long bitOffset) {
+        long pos = bitOffset;
+        for (int i = 0; i < len; i++) {
+            out.putBits(pos, levels[off + i], nBits);
+            pos += nBits;
+        }
+    }
+
+    /**
+     * Valor reconstruido de un nivel: el centro de su intervalo
+     *
+     * @param level Nivel de cuantización (0 a L-1)
+     * @return      xmin + level*q + q/2
+     */
+    @Override
+    public double value(int level) {
+        return xmin + level * q + q / 2;
+    }
+
     // Getters para integridad con la GUI de visualización
     public double getXmin() {
         return xmin;
@@ -119,4 +187,9 @@ public class PCMEncoder {
     public int getL() {
         return L;
     }
+
+    @Override
+    public int getNBits() {
+        return nBits;
+    }
 }
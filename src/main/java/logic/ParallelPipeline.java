@@ -0,0 +1,191 @@
+package logic;
+
+import models.PackedBits;
+import models.Signal;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ejecución paralela (fork/join) de las etapas PCM → Polar → ASK.
+ *
+ * La señal se divide en segmentos que se procesan en un {@link ForkJoinPool}
+ * configurable. Cada segmento escribe en su propia región de los arreglos de
+ * salida y la portadora de cada segmento se posiciona con
+ * {@link Oscillator#seek(long)} en su índice absoluto, así que la fase es
+ * continua entre segmentos y el resultado es idéntico bit a bit al de la
+ * ejecución secuencial (en cualquier modo del oscilador).
+ *
+ * @author xexpl
+ */
+public class ParallelPipeline {
+
+    /** Tamaño mínimo por defecto de un segmento (en muestras de entrada) */
+    public static final int DEFAULT_SEGMENT_SAMPLES = 1 << 16;
+
+    private final Quantizer pcm;
+    private final ForkJoinPool pool;
+    private final int segmentSamples;
+
+    /**
+     * @param pcm            Cuantizador
+     * @param pool           Pool donde se ejecutan los segmentos
+     * @param segmentSamples Tamaño mínimo de un segmento (muestras de entrada);
+     *                       se redondea a múltiplo de 64 para que los segmentos
+     *                       no compartan palabras de {@link PackedBits}
+     */
+    public ParallelPipeline(Quantizer pcm, ForkJoinPool pool, int segmentSamples) {
+        this.pcm = pcm;
+        this.pool = pool;
+        this.segmentSamples = Math.max(64, (segmentSamples + 63) & ~63);
+    }
+
+    public ParallelPipeline(Quantizer pcm, ForkJoinPool pool) {
+        this(pcm, pool, DEFAULT_SEGMENT_SAMPLES);
+    }
+
+    public ParallelPipeline(Quantizer pcm) {
+        this(pcm, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Versión paralela de {@link Quantizer#quantizeLevels(double[])}
+     */
+    public int[] quantizeLevels(double[] x) {
+        int[] levels = new int[x.length];
+        forEachSegment(x.length, segmentSamples, (from, to) ->
+                pcm.quantizeLevels(x, from, to - from, levels, from));
+        return levels;
+    }
+
+    /**
+     * Versión paralela de levelsToBits + flatten
+     */
+    public boolean[] levelsToBits(int[] levels) {
+        int nBits = pcm.getNBits();
+        boolean[] bits = new boolean[levels.length * nBits];
+        forEachSegment(levels.length, segmentSamples, (from, to) ->
+                pcm.levelsToBits(levels, from, to - from, bits, from * nBits));
+        return bits;
+    }
+
+    /**
+     * Versión paralela de {@link Quantizer#levelsToPackedBits(int[])}.
+     * Los segmentos son múltiplos de 64 muestras, así que cada uno empieza en
+     * una palabra distinta del arreglo empaquetado.
+     */
+    public PackedBits levelsToPackedBits(int[] levels) {
+        int nBits = pcm.getNBits();
+        PackedBits bits = new PackedBits((long) levels.length * nBits);
+        forEachSegment(levels.length, segmentSamples, (from, to) ->
+                pcm.levelsToPackedBits(levels, from, to - from, bits, (long) from * nBits));
+        return bits;
+    }
+
+    /**
+     * Versión paralela de {@link Polar#encode(boolean[])}
+     */
+    public double[] polarEncode(boolean[] bits) {
+        double[] y = new double[bits.length];
+        forEachSegment(bits.length, segmentSamples, (from, to) ->
+                Polar.encode(bits, from, to - from, y, from));
+        return y;
+    }
+
+    /**
+     * Versión paralela de la modulación ASK fusionada
+     *
+     * @param bits    Arreglo de bits a modular
+     * @param fc      Frecuencia de la portadora (Hz)
+     * @param fs      Frecuencia de muestreo (Hz)
+     * @param bitRate Tasa de bits (bits por segundo)
+     * @param A0      Amplitud para bit 0
+     * @param A1      Amplitud para bit 1
+     * @param mode    Método de cálculo de la portadora
+     * @return        Señal modulada ASK
+     */
+    public Signal modulate(boolean[] bits, double fc, double fs, double bitRate,
+                           double A0, double A1, Oscillator.Mode mode) {
+        int spb = ASKModulator.samplesPerBit(fs, bitRate);
+        double[] y = new double[ASKModulator.modulatedLength(bits.length, fs, bitRate)];
+        forEachSegment(bits.length, segmentSamples, (from, to) -> {
+            Oscillator osc = new Oscillator(mode, fc, fs, 1.0);
+            osc.seek((long) from * spb); // Fase continua con el segmento anterior
+            ASKModulator.modulate(bits, from, to - from, osc, spb, A0, A1, y, from * spb);
+        });
+        return new Signal(y, fs);
+    }
+
+    /**
+     * Cadena completa muestra → nivel → bits → ASK con cada segmento procesado
+     * de principio a fin por un mismo hilo (mejor localidad de caché).
+     *
+     * @param signal  Señal de entrada
+     * @param fc      Frecuencia de la portadora (Hz)
+     * @param bitRate Tasa de bits (bits por segundo)
+     * @param A0      Amplitud para bit 0
+     * @param A1      Amplitud para bit 1
+     * @param mode    Método de cálculo de la portadora
+     * @return        Señal modulada ASK
+     */
+    public Signal encodeAndModulate(Signal signal, double fc, double bitRate,
+                                    double A0, double A1, Oscillator.Mode mode) {
+        double[] x = signal.getSamples();
+        double fs = signal.getFs();
+        int nBits = pcm.getNBits();
+        int spb = ASKModulator.samplesPerBit(fs, bitRate);
+        double[] y = new double[ASKModulator.modulatedLength((long) x.length * nBits, fs, bitRate)];
+        forEachSegment(x.length, segmentSamples, (from, to) -> {
+            int n = to - from;
+            int[] levels = new int[n];
+            boolean[] bits = new boolean[n * nBits];
+            pcm.quantizeLevels(x, from, n, levels, 0);
+            pcm.levelsToBits(levels, 0, n, bits, 0);
+            Oscillator osc = new Oscillator(mode, fc, fs, 1.0);
+            long firstBit = (long) from * nBits;
+            osc.seek(firstBit * spb);
+            ASKModulator.modulate(bits, 0, bits.length, osc, spb, A0, A1, y, (int) (firstBit * spb));
+        });
+        return new Signal(y, fs);
+    }
+
+    /**
+     * Cuerpo de un segmento [from, to)
+     */
+    private interface SegmentBody {
+        void run(int from, int to);
+    }
+
+    private void forEachSegment(int length, int minSegment, SegmentBody body) {
+        if (length == 0) return;
+        pool.invoke(new SegmentTask(0, length, minSegment, body));
+    }
+
+    /**
+     * Divide el rango en mitades alineadas a 64 elementos hasta llegar al tamaño mínimo
+     */
+    private static class SegmentTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int minSegment;
+        private final SegmentBody body;
+
+        SegmentTask(int from, int to, int minSegment, SegmentBody body) {
+            this.from = from;
+            this.to = to;
+            this.minSegment = minSegment;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= minSegment) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + ((to - from) >>> 1)) & ~63;
+            if (mid <= from) mid = from + minSegment;
+            invokeAll(new SegmentTask(from, mid, minSegment, body),
+                      new SegmentTask(mid, to, minSegment, body));
+        }
+    }
+}
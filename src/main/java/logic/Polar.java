@@ -4,6 +4,8 @@
  */
 package logic;
 
+import models.PackedBits;
+
 /**
  *
  * @author xexpl
@@ -23,14 +25,64 @@ public class Polar {
     public static double[] encode(boolean[] bits) {
         // Creamos un arreglo de salida de tamaño igual al número de bits
         double[] y = new double[bits.length];
+        encode(bits, 0, bits.length, y, 0);
+
+        // Retornamos la señal codificada
+        return y;
+    }
 
+    /**
+     * Codifica un bloque de bits escribiendo en un arreglo existente
+     *
+     * @param bits   arreglo de bits booleanos
+     * @param off    posición del primer bit del bloque
+     * @param len    número de bits del bloque
+     * @param out    arreglo destino con valores +1/-1
+     * @param outOff posición inicial en el destino
+     */
+    public static void encode(boolean[] bits, int off, int len, double[] out, int outOff) {
         // Recorremos cada bit
-        for (int i = 0; i < bits.length; i++) {
+        for (int i = 0; i < len; i++) {
             // Si el bit es true (1) -> +1, si es false (0) -> -1
-            y[i] = bits[i] ? +1.0 : -1.0;
+            out[outOff + i] = bits[off + i] ? +1.0 : -1.0;
         }
+    }
 
-        // Retornamos la señal codificada
+    /**
+     * Codificación Polar (NRZ) de una secuencia de bits empaquetada
+     *
+     * @param bits secuencia de bits empaquetada
+     * @return arreglo de doubles con valores +1/-1
+     */
+    public static double[] encode(PackedBits bits) {
+        if (bits.length() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Demasiados bits para un arreglo double[]: " + bits.length());
+        }
+        double[] y = new double[(int) bits.length()];
+        encode(bits, 0, y.length, y, 0);
         return y;
     }
+
+    /**
+     * Codifica un bloque de una secuencia empaquetada escribiendo en un arreglo existente
+     *
+     * @param bits   secuencia de bits empaquetada
+     * @param start  posición del primer bit del bloque
+     * @param len    número de bits del bloque
+     * @param out    arreglo destino con valores +1/-1
+     * @param outOff posición inicial en el destino
+     */
+    public static void encode(PackedBits bits, long start, int len, double[] out, int outOff) {
+        int i = 0;
+        // Campos de 32 bits con getBits; el resto, bit a bit
+        for (; i + 32 <= len; i += 32) {
+            int field = bits.getBits(start + i, 32);
+            for (int k = 0; k < 32; k++) {
+                out[outOff + i + k] = (field << k) < 0 ? +1.0 : -1.0;
+            }
+        }
+        for (; i < len; i++) {
+            out[outOff + i] = bits.get(start + i) ? +1.0 : -1.0;
+        }
+    }
 }
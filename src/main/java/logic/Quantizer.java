@@ -0,0 +1,17 @@
+package logic;
+
+/**
+ * Cuantizador sin estado: cada muestra se convierte en un nivel de forma
+ * independiente y cada nivel tiene un valor reconstruido fijo, así que la
+ * salida se puede decodificar con {@link PCMDecoder} y calcular por segmentos
+ * en paralelo ({@link ParallelPipeline}).
+ *
+ * @author xexpl
+ */
+public interface Quantizer extends SampleEncoder {
+
+    /**
+     * @return Valor reconstruido de un nivel (0 a 2^nBits - 1)
+     */
+    double value(int level);
+}
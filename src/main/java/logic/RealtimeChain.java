@@ -0,0 +1,302 @@
+package logic;
+
+import models.SampleRingBuffer;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cadena PCM → Polar → ASK en tiempo real sobre un origen de audio.
+ *
+ * Un hilo de captura lee del {@link LineSource} y escribe en un
+ * {@link SampleRingBuffer}; un hilo de proceso toma bloques del buffer, los
+ * pasa por las etapas de un {@link StreamingPipeline} y entrega cada bloque
+ * al destino. El lector nunca espera al proceso: si el buffer está lleno las
+ * muestras se descartan y se cuentan como desbordamiento (overrun), igual que
+ * haría la tarjeta de sonido. Todos los buffers se reservan al arrancar, así
+ * que en régimen no se crea ningún objeto.
+ * <p>
+ * La cadena se puede volver a arrancar después de {@link #stop}: cada
+ * arranque vacía el buffer y pone a cero las marcas de tiempo y las
+ * estadísticas. Si algún hilo de la ejecución anterior sigue vivo (por
+ * ejemplo bloqueado en el dispositivo) el arranque se rechaza, porque el
+ * buffer admite un solo productor y un solo consumidor.
+ * <p>
+ * La latencia de cada bloque se mide desde que su última muestra entró en el
+ * buffer circular hasta que el destino terminó con él (espera en el buffer
+ * más tiempo de proceso; no incluye el buffer interno del dispositivo).
+ *
+ * @author xexpl
+ */
+public class RealtimeChain {
+
+    /** Capacidad por defecto del buffer circular (muestras de entrada) */
+    public static final int DEFAULT_RING_SAMPLES = 1 << 15;
+
+    private static final int READ_CHUNK = 256;                // Muestras por lectura del origen
+    private static final int STAMPS = 1024;                   // Marcas de tiempo en circulación
+    private static final long IDLE_PARK_NANOS = 2_000_000L;   // Espera máxima sin datos
+
+    private final LineSource source;
+    private final StreamingPipeline pipeline;
+    private final SampleRingBuffer ring;
+
+    // Marcas (posición final en el buffer, instante) de cada escritura del lector
+    private final long[] stampSeq = new long[STAMPS];
+    private final long[] stampNanos = new long[STAMPS];
+    private final AtomicLong stampCount = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean captureDone;
+    private volatile Throwable failure;
+    private Thread captureThread;
+    private Thread processThread;
+
+    // Estadísticas: cada campo lo escribe un solo hilo
+    private volatile long samplesCaptured;
+    private volatile long overrunSamples;
+    private volatile long overrunEvents;
+    private volatile long blocksProcessed;
+    private volatile long lastLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile long totalLatencyNanos;
+    private volatile long latencySamples;
+
+    /**
+     * @param source      Origen de audio (se abre en {@link #start})
+     * @param pipeline    Etapas y tamaño de bloque
+     * @param ringSamples Capacidad del buffer circular (se redondea a potencia de dos)
+     */
+    public RealtimeChain(LineSource source, StreamingPipeline pipeline, int ringSamples) {
+        if (ringSamples < pipeline.getBlockSamples()) {
+            throw new IllegalArgumentException("El buffer circular debe contener al menos un bloque");
+        }
+        this.source = source;
+        this.pipeline = pipeline;
+        this.ring = new SampleRingBuffer(ringSamples);
+    }
+
+    public RealtimeChain(LineSource source, StreamingPipeline pipeline) {
+        this(source, pipeline, DEFAULT_RING_SAMPLES);
+    }
+
+    /**
+     * Abre el origen y arranca los hilos de captura y de proceso
+     *
+     * @param sink Destino de los bloques (se invoca en el hilo de proceso; los
+     *             arreglos del bloque se reutilizan)
+     */
+    public synchronized void start(StreamingPipeline.BlockSink sink) throws IOException {
+        if (running) throw new IllegalStateException("La cadena ya está en marcha");
+        if (isAlive(captureThread) || isAlive(processThread)) {
+            throw new IllegalStateException("Los hilos de la ejecución anterior siguen activos");
+        }
+        resetState();
+        source.open();
+        running = true;
+        captureDone = false;
+        processThread = new Thread(() -> processLoop(sink), "realtime-process");
+        captureThread = new Thread(this::captureLoop, "realtime-capture");
+        processThread.setDaemon(true);
+        captureThread.setDaemon(true);
+        processThread.start();
+        captureThread.start();
+    }
+
+    /**
+     * Detiene la captura, cierra el origen y espera (como mucho un segundo por
+     * hilo) a que terminen los hilos
+     */
+    public synchronized void stop() {
+        running = false;
+        source.close();
+        join(captureThread);
+        join(processThread);
+        // Un hilo que no terminó se conserva para que start() lo detecte
+        if (!isAlive(captureThread)) captureThread = null;
+        if (!isAlive(processThread)) processThread = null;
+    }
+
+    /**
+     * Vacía el buffer y pone a cero marcas y estadísticas (sin hilos en marcha)
+     */
+    private void resetState() {
+        ring.clear();
+        stampCount.set(0);
+        failure = null;
+        samplesCaptured = 0;
+        overrunSamples = 0;
+        overrunEvents = 0;
+        blocksProcessed = 0;
+        lastLatencyNanos = 0;
+        maxLatencyNanos = 0;
+        totalLatencyNanos = 0;
+        latencySamples = 0;
+    }
+
+    /**
+     * Espera a que la cadena termine sola (origen agotado y buffer vacío)
+     *
+     * @return true si terminó antes del tiempo límite
+     */
+    public boolean awaitCompletion(long timeoutMillis) throws InterruptedException {
+        Thread t = processThread;
+        if (t != null) t.join(timeoutMillis);
+        return t == null || !t.isAlive();
+    }
+
+    private void captureLoop() {
+        double[] chunk = new double[READ_CHUNK];
+        Thread consumer = processThread;
+        try {
+            while (running) {
+                int n = source.read(chunk, 0, READ_CHUNK);
+                if (n < 0) break;
+                if (n == 0) continue;
+                long now = System.nanoTime();
+                int w = ring.write(chunk, 0, n);
+                if (w < n) {
+                    overrunSamples += n - w;
+                    overrunEvents++;
+                }
+                samplesCaptured += n;
+                if (w > 0) stamp(ring.written(), now);
+                LockSupport.unpark(consumer);
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        } finally {
+            captureDone = true;
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void processLoop(StreamingPipeline.BlockSink sink) {
+        double fs = source.getFs();
+        int blockSamples = pipeline.getBlockSamples();
+        pipeline.resetEncoder();
+        StreamingPipeline.Block block = pipeline.newBlock(fs);
+        Oscillator carrier = pipeline.newCarrier(fs);
+        int spb = pipeline.samplesPerBit(fs);
+        long sampleIndex = 0, askIndex = 0, stampCursor = 0;
+        try {
+            while (true) {
+                boolean done = captureDone; // Leer antes que el buffer: si terminó, ya no llegan más datos
+                if (ring.available() < blockSamples && !done) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+                int n = ring.read(block.samples, 0, blockSamples);
+                if (n == 0) break; // Captura terminada y buffer vacío
+                pipeline.process(block, n, sampleIndex, askIndex, carrier, spb);
+                sink.accept(block);
+                sampleIndex += n;
+                askIndex += block.nAsk;
+
+                // Instante en que llegó la última muestra del bloque
+                long count = stampCount.get();
+                if (count - stampCursor > STAMPS) stampCursor = count - STAMPS;
+                while (stampCursor < count - 1 && stampSeq[(int) (stampCursor & (STAMPS - 1))] < sampleIndex) {
+                    stampCursor++;
+                }
+                int s = (int) (stampCursor & (STAMPS - 1));
+                if (stampCursor < count && stampSeq[s] >= sampleIndex) { // La marca puede llegar justo después de los datos
+                    long latency = System.nanoTime() - stampNanos[s];
+                    lastLatencyNanos = latency;
+                    if (latency > maxLatencyNanos) maxLatencyNanos = latency;
+                    totalLatencyNanos += latency;
+                    latencySamples++;
+                }
+                blocksProcessed++;
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            running = false;
+            source.close();
+        }
+    }
+
+    private void stamp(long seq, long nanos) {
+        long k = stampCount.get();
+        int i = (int) (k & (STAMPS - 1));
+        stampSeq[i] = seq;
+        stampNanos[i] = nanos;
+        stampCount.lazySet(k + 1);
+    }
+
+    private static boolean isAlive(Thread t) {
+        return t != null && t.isAlive();
+    }
+
+    private static void join(Thread t) {
+        if (t == null) return;
+        try {
+            t.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        Thread t = processThread;
+        return running && t != null && t.isAlive();
+    }
+
+    /**
+     * @return Error que detuvo la captura o el proceso, o null
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public long getSamplesCaptured() {
+        return samplesCaptured;
+    }
+
+    /**
+     * @return Muestras descartadas porque el buffer circular estaba lleno
+     */
+    public long getOverrunSamples() {
+        return overrunSamples;
+    }
+
+    /**
+     * @return Lecturas del origen que no cupieron enteras en el buffer
+     */
+    public long getOverrunEvents() {
+        return overrunEvents;
+    }
+
+    public long getBlocksProcessed() {
+        return blocksProcessed;
+    }
+
+    /**
+     * @return Muestras que esperan en el buffer circular
+     */
+    public int getBuffered() {
+        return ring.available();
+    }
+
+    public int getRingCapacity() {
+        return ring.capacity();
+    }
+
+    public double getFs() {
+        return source.getFs();
+    }
+
+    public double getLastLatencyMillis() {
+        return lastLatencyNanos / 1e6;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos / 1e6;
+    }
+
+    public double getMeanLatencyMillis() {
+        long samples = latencySamples;
+        return samples == 0 ? 0.0 : totalLatencyNanos / 1e6 / samples;
+    }
+}
@@ -0,0 +1,373 @@
+package logic;
+
+import models.Signal;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Conversor de frecuencia de muestreo polifásico con filtro sinc enventanado.
+ *
+ * La relación fsOut/fsIn se reduce a una fracción L/M y se precalcula un banco
+ * de L filtros (uno por fase) a partir de un sinc con ventana de Kaiser. Cada
+ * muestra de salida es el producto punto de una ventana de la entrada por la
+ * fase correspondiente; la posición se avanza con aritmética entera
+ * (base += M / L, fase += M % L), sin índices en punto flotante.
+ * <p>
+ * Al reducir la frecuencia el corte del filtro baja a la nueva frecuencia de
+ * Nyquist y el filtro se alarga en proporción, así que la decimación
+ * (por ejemplo 44.1 kHz → 8 kHz) no produce aliasing por encima de la
+ * atenuación de la calidad elegida.
+ * <p>
+ * Una instancia guarda el historial de la entrada y puede procesar un flujo
+ * por bloques de cualquier tamaño sin asignar memoria
+ * ({@link #process}, {@link #flush}). No es segura para varios hilos.
+ *
+ * @author xexpl
+ */
+public class Resampler {
+
+    /**
+     * Compromiso entre longitud del filtro y velocidad
+     */
+    public enum Quality {
+        /** ~60 dB de atenuación, banda de paso hasta el 90% de Nyquist */
+        FAST(8, 0.90, 5.6),
+        /** ~80 dB de atenuación, banda de paso hasta el 94% de Nyquist */
+        STANDARD(16, 0.94, 8.0),
+        /** ~100 dB de atenuación, banda de paso hasta el 97% de Nyquist */
+        HIGH(32, 0.97, 10.0);
+
+        final int zeroCrossings;  // Cruces por cero del sinc a cada lado
+        final double rolloff;     // Fracción de la frecuencia de Nyquist que se conserva
+        final double kaiserBeta;  // Parámetro de la ventana de Kaiser
+
+        Quality(int zeroCrossings, double rolloff, double kaiserBeta) {
+            this.zeroCrossings = zeroCrossings;
+            this.rolloff = rolloff;
+            this.kaiserBeta = kaiserBeta;
+        }
+    }
+
+    /** Número máximo de fases del banco; relaciones con L mayor se aproximan */
+    public static final int MAX_PHASES = 1024;
+
+    private final double fsIn;
+    private final int L;          // Factor de interpolación (número de fases)
+    private final int M;          // Factor de decimación
+    private final int taps;       // Coeficientes por fase (par)
+    private final int half;       // taps / 2
+    private final double[] bank;  // L filtros de taps coeficientes, uno tras otro
+    private final int stepBase;   // M / L
+    private final int stepPhase;  // M % L
+
+    // Estado del flujo
+    private final double[] history; // Últimas taps muestras, duplicadas para tener una ventana contigua
+    private int writePos;           // Posición de la próxima muestra en history (0..taps-1)
+    private long inCount;           // Muestras de entrada recibidas
+    private long base;              // Índice de entrada de la próxima salida
+    private int phase;              // Fase de la próxima salida (0..L-1)
+    private boolean flushed;
+
+    /**
+     * @param fsIn    Frecuencia de muestreo de entrada (Hz)
+     * @param fsOut   Frecuencia de muestreo de salida (Hz)
+     * @param quality Calidad del filtro
+     */
+    public Resampler(double fsIn, double fsOut, Quality quality) {
+        if (!(fsIn > 0) || !(fsOut > 0)) {
+            throw new IllegalArgumentException("Frecuencias de muestreo no válidas: " + fsIn + " → " + fsOut);
+        }
+        this.fsIn = fsIn;
+
+        // Reducir la relación a L/M; si L sale demasiado grande se aproxima
+        long up = Math.round(fsOut);
+        long down = Math.round(fsIn);
+        if (up != fsOut || down != fsIn || up / gcd(up, down) > MAX_PHASES) {
+            up = MAX_PHASES;
+            down = Math.max(1, Math.round(MAX_PHASES * fsIn / fsOut));
+        }
+        long g = gcd(up, down);
+        this.L = (int) (up / g);
+        this.M = (int) (down / g);
+        this.stepBase = M / L;
+        this.stepPhase = M % L;
+
+        // Corte en ciclos por muestra de entrada: Nyquist de la menor de las dos frecuencias
+        double cutoff = 0.5 * Math.min(1.0, (double) L / M) * quality.rolloff;
+        this.half = (int) Math.ceil(quality.zeroCrossings / (2 * cutoff));
+        this.taps = 2 * half;
+        this.bank = designBank(L, half, cutoff, quality.kaiserBeta);
+
+        this.history = new double[2 * taps];
+        reset();
+    }
+
+    public Resampler(double fsIn, double fsOut) {
+        this(fsIn, fsOut, Quality.STANDARD);
+    }
+
+    /**
+     * Remuestrea una señal completa. La salida tiene round(N · L / M)
+     * muestras y la entrada se extiende con ceros en ambos extremos.
+     * Si la relación se aproxima (ver {@link #MAX_PHASES}) la señal lleva la
+     * frecuencia real de salida, {@link #getOutputRate()}, no fsOut.
+     *
+     * @param original Señal de entrada
+     * @param fsOut    Nueva frecuencia de muestreo (Hz)
+     * @param quality  Calidad del filtro
+     * @return         Señal remuestreada
+     */
+    public static Signal resample(Signal original, double fsOut, Quality quality) {
+        Resampler r = new Resampler(original.getFs(), fsOut, quality);
+        double[] x = original.getSamples();
+        double[] y = new double[(int) Math.round((double) x.length * r.L / r.M)];
+        r.resample(x, y);
+        return new Signal(y, r.getOutputRate());
+    }
+
+    /**
+     * Remuestrea un arreglo completo sin usar el historial del flujo
+     * (no modifica el estado de {@link #process})
+     *
+     * @param x Entrada completa
+     * @param y Salida; se llenan y.length muestras
+     */
+    public void resample(double[] x, double[] y) {
+        long b = 0;
+        int p = 0;
+        for (int m = 0; m < y.length; m++) {
+            long first = b - half + 1; // Primera muestra de la ventana
+            int coef = p * taps;
+            if (first >= 0 && first + taps <= x.length) {
+                y[m] = dot(x, (int) first, coef);
+            } else {
+                // Bordes: las muestras fuera de la entrada valen cero
+                double acc = 0.0;
+                for (int i = 0; i < taps; i++) {
+                    long k = first + i;
+                    if (k >= 0 && k < x.length) acc += x[(int) k] * bank[coef + i];
+                }
+                y[m] = acc;
+            }
+            b += stepBase;
+            p += stepPhase;
+            if (p >= L) {
+                p -= L;
+                b++;
+            }
+        }
+    }
+
+    /**
+     * Procesa un bloque de un flujo. Las salidas aparecen con un retardo de
+     * taps/2 muestras de entrada; {@link #flush} entrega las que quedan al final.
+     *
+     * @param in     Entrada
+     * @param off    Posición de la primera muestra
+     * @param len    Número de muestras
+     * @param out    Salida, con espacio para {@link #maxOutput(int) maxOutput(len)} muestras
+     * @param outOff Posición inicial en la salida
+     * @return       Número de muestras escritas
+     */
+    public int process(double[] in, int off, int len, double[] out, int outOff) {
+        if (flushed) {
+            throw new IllegalStateException("El flujo ya terminó; llamar a reset() para reutilizar");
+        }
+        int n = outOff;
+        for (int i = 0; i < len; i++) {
+            n = push(in[off + i], out, n, Long.MAX_VALUE);
+        }
+        return n - outOff;
+    }
+
+    /**
+     * Termina el flujo completando con ceros la entrada y entrega las salidas
+     * pendientes. En total se habrán producido ceil(N · L / M) muestras.
+     *
+     * @param out    Salida, con espacio para {@link #maxOutput(int) maxOutput(taps / 2)} muestras
+     * @param outOff Posición inicial en la salida
+     * @return       Número de muestras escritas
+     */
+    public int flush(double[] out, int outOff) {
+        if (flushed) return 0;
+        long end = inCount; // Solo salidas cuya posición cae dentro de la entrada real
+        int n = outOff;
+        for (int i = 0; i < half && base < end; i++) {
+            n = push(0.0, out, n, end);
+        }
+        flushed = true;
+        return n - outOff;
+    }
+
+    /**
+     * Vuelve al estado inicial para procesar otro flujo
+     */
+    public void reset() {
+        Arrays.fill(history, 0.0);
+        writePos = 0;
+        inCount = 0;
+        base = 0;
+        phase = 0;
+        flushed = false;
+    }
+
+    /**
+     * Añade una muestra al historial y calcula las salidas que ya tienen su ventana completa
+     */
+    private int push(double v, double[] out, int n, long baseLimit) {
+        history[writePos] = v;
+        history[writePos + taps] = v;
+        writePos = writePos + 1 == taps ? 0 : writePos + 1;
+        long last = inCount++;
+        // La ventana de la salida es x[base - half + 1 .. base + half]
+        while (base + half == last && base < baseLimit) {
+            out[n++] = dot(history, writePos, phase * taps);
+            base += stepBase;
+            phase += stepPhase;
+            if (phase >= L) {
+                phase -= L;
+                base++;
+            }
+        }
+        return n;
+    }
+
+    private double dot(double[] x, int from, int coef) {
+        double acc = 0.0;
+        for (int i = 0; i < taps; i++) {
+            acc += x[from + i] * bank[coef + i];
+        }
+        return acc;
+    }
+
+    /**
+     * @param inputLen Muestras de entrada de un bloque
+     * @return         Máximo de muestras que {@link #process} puede escribir para ese bloque
+     */
+    public int maxOutput(int inputLen) {
+        return (int) (((long) inputLen * L + M - 1) / M) + 1;
+    }
+
+    /**
+     * @return Frecuencia de salida efectiva fsIn · L / M (difiere de la pedida
+     *         solo si la relación tuvo que aproximarse)
+     */
+    public double getOutputRate() {
+        return fsIn * L / M;
+    }
+
+    /**
+     * @return Retardo del flujo en muestras de entrada
+     */
+    public int getDelay() {
+        return half;
+    }
+
+    public int getTaps() {
+        return taps;
+    }
+
+    public int getPhases() {
+        return L;
+    }
+
+    /**
+     * Adapta un origen de muestras para que entregue la señal remuestreada.
+     * Los buffers se reservan una vez, según el tamaño del primer bloque pedido.
+     *
+     * @param source    Origen a la frecuencia de entrada
+     * @param resampler Conversor (se reinicia)
+     * @return          Origen a la frecuencia de salida
+     */
+    public static StreamingPipeline.BlockSource source(StreamingPipeline.BlockSource source, Resampler resampler) {
+        resampler.reset();
+        return new StreamingPipeline.BlockSource() {
+            private double[] inBuf = new double[0];
+            private double[] outBuf = new double[0];
+            private int outPos = 0;
+            private int outLen = 0;
+            private boolean done = false;
+
+            @Override
+            public int read(double[] dst, int off, int len) throws IOException {
+                while (outPos == outLen) {
+                    if (done) return -1;
+                    if (inBuf.length == 0) {
+                        inBuf = new double[Math.max(len, 256)];
+                        outBuf = new double[Math.max(resampler.maxOutput(inBuf.length),
+                                                     resampler.maxOutput(resampler.getDelay()))];
+                    }
+                    int n = source.read(inBuf, 0, inBuf.length);
+                    outPos = 0;
+                    if (n < 0) {
+                        outLen = resampler.flush(outBuf, 0);
+                        done = true;
+                    } else {
+                        outLen = resampler.process(inBuf, 0, n, outBuf, 0);
+                    }
+                }
+                int count = Math.min(len, outLen - outPos);
+                System.arraycopy(outBuf, outPos, dst, off, count);
+                outPos += count;
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Diseña el banco polifásico: la fase p, coeficiente i, pondera la muestra
+     * x[base - half + 1 + i] de una salida situada p/L muestras después de x[base].
+     * Cada fase se normaliza a ganancia unitaria en continua.
+     */
+    private static double[] designBank(int L, int half, double cutoff, double beta) {
+        int taps = 2 * half;
+        double[] bank = new double[L * taps];
+        double i0Beta = besselI0(beta);
+        for (int p = 0; p < L; p++) {
+            double sum = 0.0;
+            for (int i = 0; i < taps; i++) {
+                // Distancia (en muestras de entrada) entre la salida y la muestra de entrada
+                double tau = (half - 1 - i) + (double) p / L;
+                double xw = tau / half;
+                double w = Math.abs(xw) >= 1.0 ? 0.0 : besselI0(beta * Math.sqrt(1 - xw * xw)) / i0Beta;
+                double h = 2 * cutoff * sinc(2 * cutoff * tau) * w;
+                bank[p * taps + i] = h;
+                sum += h;
+            }
+            for (int i = 0; i < taps; i++) {
+                bank[p * taps + i] /= sum;
+            }
+        }
+        return bank;
+    }
+
+    private static double sinc(double x) {
+        if (x == 0.0) return 1.0;
+        double px = Math.PI * x;
+        return Math.sin(px) / px;
+    }
+
+    /**
+     * Función de Bessel modificada de orden cero (serie de potencias)
+     */
+    private static double besselI0(double x) {
+        double sum = 1.0;
+        double term = 1.0;
+        double q = x * x / 4;
+        for (int k = 1; k < 200; k++) {
+            term *= q / ((double) k * k);
+            sum += term;
+            if (term < sum * 1e-17) break;
+        }
+        return sum;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,149 @@
+package logic;
+
+import models.SampleSource;
+import models.Spectrogram;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Transformada de Fourier de tiempo corto (espectrograma).
+ *
+ * Divide la señal en tramas de fftSize muestras separadas hop muestras,
+ * aplica una ventana de Hann y guarda la magnitud de cada trama en dB en un
+ * {@link Spectrogram}. Las tramas son independientes, así que se reparten en
+ * bloques entre los hilos de un {@link ForkJoinPool}; cada bloque usa su
+ * propia {@link FFT} y sus propios buffers. La entrada es una
+ * {@link SampleSource}, de modo que un WAV mapeado se analiza sin copiarlo
+ * entero a memoria.
+ *
+ * @author xexpl
+ */
+public class STFT {
+
+    /** Tramas mínimas por tarea */
+    private static final int FRAMES_PER_TASK = 64;
+
+    /** Suelo de la escala en dB (magnitud cero) */
+    public static final float MIN_DB = -200f;
+
+    private final int fftSize;
+    private final int hop;
+    private final ForkJoinPool pool;
+    private final double[] window;
+
+    /**
+     * @param fftSize Tamaño de trama y de FFT (potencia de dos)
+     * @param hop     Separación entre tramas (1..fftSize)
+     * @param pool    Pool donde se calculan las tramas
+     */
+    public STFT(int fftSize, int hop, ForkJoinPool pool) {
+        if (fftSize < 2 || Integer.bitCount(fftSize) != 1) {
+            throw new IllegalArgumentException("El tamaño de la FFT debe ser potencia de dos: " + fftSize);
+        }
+        if (hop <= 0) {
+            throw new IllegalArgumentException("El salto entre tramas debe ser positivo: " + hop);
+        }
+        this.fftSize = fftSize;
+        this.hop = hop;
+        this.pool = pool;
+        this.window = new double[fftSize];
+        for (int i = 0; i < fftSize; i++) {
+            window[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / fftSize);
+        }
+    }
+
+    public STFT(int fftSize, int hop) {
+        this(fftSize, hop, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Número de tramas para una señal de length muestras: la última trama
+     * empieza antes del final y se completa con ceros
+     */
+    public int frameCount(long length) {
+        if (length <= 0) return 0;
+        long frames = (length - 1) / hop + 1;
+        if (frames > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiadas tramas: " + frames);
+        }
+        return (int) frames;
+    }
+
+    /**
+     * Calcula el espectrograma de toda la señal
+     *
+     * @param src Señal de entrada
+     * @return    Magnitud en dB de cada trama
+     */
+    public Spectrogram compute(SampleSource src) {
+        int frames = frameCount(src.length());
+        Spectrogram result = new Spectrogram(frames, fftSize, hop, src.getFs());
+        if (frames > 0) {
+            pool.invoke(new FrameTask(src, result, 0, frames));
+        }
+        return result;
+    }
+
+    /**
+     * Calcula las tramas [from, to) con una FFT y buffers propios
+     */
+    private void computeFrames(SampleSource src, Spectrogram out, int from, int to) {
+        FFT fft = new FFT(fftSize);
+        double[] frame = new double[fftSize];
+        double[] re = new double[fftSize / 2 + 1];
+        double[] im = new double[fftSize / 2 + 1];
+        float[] db = out.data();
+        int bins = out.getBins();
+        // Normalizar para que un seno de amplitud 1 dé 0 dB
+        double scale = 2.0 / sum(window);
+        for (int f = from; f < to; f++) {
+            int n = src.read((long) f * hop, frame, 0, fftSize);
+            for (int i = 0; i < n; i++) frame[i] *= window[i];
+            for (int i = n; i < fftSize; i++) frame[i] = 0.0;
+            fft.realForward(frame, 0, re, im);
+            int base = f * bins;
+            for (int k = 0; k < bins; k++) {
+                double mag = Math.sqrt(re[k] * re[k] + im[k] * im[k]) * scale;
+                db[base + k] = mag > 0 ? (float) Math.max(MIN_DB, 20 * Math.log10(mag)) : MIN_DB;
+            }
+        }
+    }
+
+    private static double sum(double[] v) {
+        double s = 0;
+        for (double x : v) s += x;
+        return s;
+    }
+
+    public int getFftSize() {
+        return fftSize;
+    }
+
+    public int getHop() {
+        return hop;
+    }
+
+    private class FrameTask extends RecursiveAction {
+        private final SampleSource src;
+        private final Spectrogram out;
+        private final int from;
+        private final int to;
+
+        FrameTask(SampleSource src, Spectrogram out, int from, int to) {
+            this.src = src;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FRAMES_PER_TASK) {
+                computeFrames(src, out, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new FrameTask(src, out, from, mid), new FrameTask(src, out, mid, to));
+        }
+    }
+}
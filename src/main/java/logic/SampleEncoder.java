@@ -0,0 +1,87 @@
+package logic;
+
+import models.PackedBits;
+
+/**
+ * Codificador de muestras en palabras de getNBits() bits: cuantización
+ * directa ({@link Quantizer}) o diferencial ({@link DPCMEncoder},
+ * {@link ImaAdpcmEncoder}).
+ *
+ * Todos comparten la salida de bits (el bit más significativo de cada
+ * palabra primero), así que cualquiera se puede usar en
+ * {@link StreamingPipeline} o escribir con {@link BitstreamWriter}. Los
+ * codificadores diferenciales guardan estado entre bloques: hay que
+ * entregarles las muestras en orden y llamar a {@link #reset()} antes de
+ * empezar otra señal.
+ *
+ * @author xexpl
+ */
+public interface SampleEncoder {
+
+    /**
+     * @return Bits por muestra
+     */
+    int getNBits();
+
+    /**
+     * Codifica un bloque de muestras escribiendo en un arreglo existente. Los
+     * codificadores con estado continúan desde el final del bloque anterior.
+     *
+     * @param x      Arreglo con las muestras
+     * @param off    Posición de la primera muestra del bloque
+     * @param len    Número de muestras del bloque
+     * @param out    Arreglo destino para los niveles (0 a 2^nBits - 1)
+     * @param outOff Posición inicial en el destino
+     */
+    void quantizeLevels(double[] x, int off, int len, int[] out, int outOff);
+
+    /**
+     * Vuelve al estado inicial (los codificadores sin estado no hacen nada)
+     */
+    default void reset() {
+    }
+
+    default int[] quantizeLevels(double[] x) {
+        int[] levels = new int[x.length];
+        quantizeLevels(x, 0, x.length, levels, 0);
+        return levels;
+    }
+
+    /**
+     * Convierte un bloque de niveles en la secuencia continua de bits
+     *
+     * @param levels Arreglo de niveles
+     * @param off    Posición del primer nivel del bloque
+     * @param len    Número de niveles del bloque
+     * @param out    Arreglo destino; debe tener espacio para len * nBits bits
+     * @param outOff Posición inicial en el destino
+     */
+    default void levelsToBits(int[] levels, int off, int len, boolean[] out, int outOff) {
+        int nBits = getNBits();
+        int idx = outOff;
+        for (int i = 0; i < len; i++) {
+            int val = levels[off + i];
+            for (int shift = nBits - 1; shift >= 0; shift--) {
+                out[idx++] = ((val >> shift) & 1) == 1;
+            }
+        }
+    }
+
+    /**
+     * Escribe un bloque de niveles en una secuencia empaquetada existente
+     */
+    default void levelsToPackedBits(int[] levels, int off, int len, PackedBits out, long bitOffset) {
+        int nBits = getNBits();
+        long pos = bitOffset;
+        for (int i = 0; i < len; i++) {
+            out.putBits(pos, levels[off + i], nBits);
+            pos += nBits;
+        }
+    }
+
+    default PackedBits levelsToPackedBits(int[] levels) {
+        PackedBits bits = new PackedBits((long) levels.length * getNBits());
+        levelsToPackedBits(levels, 0, levels.length, bits, 0);
+        return bits;
+    }
+}
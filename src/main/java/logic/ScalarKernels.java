@@ -0,0 +1,41 @@
+package logic;
+
+/**
+ * Implementación escalar de referencia de {@link Kernels}
+ *
+ * @author xexpl
+ */
+final class ScalarKernels implements Kernels {
+
+    static final ScalarKernels INSTANCE = new ScalarKernels();
+
+    private ScalarKernels() {
+    }
+
+    @Override
+    public void quantize(double[] x, int off, int len, int[] out, int outOff,
+                         double xmin, double xmaxClamp, double q, int maxLevel) {
+        for (int i = 0; i < len; i++) {
+            double xi = Math.max(xmin, Math.min(xmaxClamp, x[off + i]));
+            int k = (int) Math.floor((xi - xmin) / q);
+            out[outOff + i] = Math.max(0, Math.min(maxLevel, k));
+        }
+    }
+
+    @Override
+    public void modulate(boolean[] bits, int off, int len, double[] carrier, int carrierOff,
+                         int samplesPerBit, double A0, double A1, double[] out, int outOff) {
+        int n = 0;
+        for (int i = 0; i < len; i++) {
+            double A = bits[off + i] ? A1 : A0;
+            for (int k = 0; k < samplesPerBit; k++, n++) {
+                out[outOff + n] = A * carrier[carrierOff + n];
+            }
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,297 @@
+package logic;
+
+import models.SampleSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lectura de un contenedor binario de resultados (bits PCM + señal ASK)
+ * mapeado en memoria.
+ *
+ * <h3>Formato (versión 1, little-endian)</h3>
+ * <pre>
+ * Cabecera (128 bytes)
+ *   0  4  "SGNC"
+ *   4  2  versión (1)
+ *   6  2  tamaño de cabecera (128)
+ *   8  4  flags (bit 0: hay ASK)
+ *  12  1  formato ASK (0 float32, 1 int16)
+ *  13  1  cuantización (0 uniforme, 1 ley μ, 2 ley A; con μ/A, xmax es el fondo de escala)
+ *  14  2  reservados
+ *  16  8  fs (double)
+ *  24  4  bits por muestra (int)
+ *  28  4  muestras por bit (int)
+ *  32  8  xmin (double)
+ *  40  8  xmax (double)
+ *  48  8  tasa de bits (double)
+ *  56  8  portadora (double)
+ *  64  8  A0 (double)
+ *  72  8  A1 (double)
+ *  80  8  muestras PCM (long)
+ *  88  8  bits PCM (long)
+ *  96  8  desplazamiento de la sección ASK
+ * 104  8  muestras ASK (long)
+ * 112  8  desplazamiento de la sección de bits
+ * 120  8  escala ASK (double): valor = muestra · escala (1 para float32)
+ * Sección ASK: muestras float32 o int16, alineada a 64 bytes
+ * Sección de bits: bits PCM empaquetados, el primero en el bit más
+ *   significativo del primer byte; el último byte se completa con ceros
+ * </pre>
+ * Los desplazamientos de la cabecera son la referencia: un lector no debe
+ * suponer el orden de las secciones.
+ * <p>
+ * Las secciones se mapean en regiones de hasta 1 GB, así que abrir un archivo
+ * de varios GB no lee nada del disco; las muestras y los bits se decodifican
+ * bajo demanda.
+ *
+ * @author xexpl
+ */
+public class SignalContainerFile implements Closeable {
+
+    static final int MAGIC = 'S' | 'G' << 8 | 'N' << 16 | 'C' << 24;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 128;
+    static final int FLAG_ASK = 1;
+    static final int SECTION_ALIGN = 64;
+    static final int QUANT_UNIFORM = 0;
+    static final int QUANT_MU_LAW = 1;
+    static final int QUANT_A_LAW = 2;
+
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    /**
+     * Codificación de las muestras ASK
+     */
+    public enum SampleFormat {
+        FLOAT32(4), INT16(2);
+
+        final int bytes;
+
+        SampleFormat(int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    private final FileChannel channel;
+    private final double fs;
+    private final int nBits;
+    private final int quantization;
+    private final int samplesPerBit;
+    private final double xmin, xmax, bitRate, carrier, A0, A1;
+    private final long sampleCount;
+    private final long bitCount;
+    private final SampleFormat askFormat;  // null si no hay sección ASK
+    private final long askLength;
+    private final double askScale;
+    private final MappedByteBuffer[] askSegments;
+    private final long samplesPerSegment;
+    private final MappedByteBuffer[] bitSegments;
+
+    private SignalContainerFile(FileChannel channel, ByteBuffer h) throws IOException {
+        this.channel = channel;
+        int flags = h.getInt(8);
+        this.fs = h.getDouble(16);
+        this.nBits = h.getInt(24);
+        this.quantization = h.get(13);
+        if (quantization < QUANT_UNIFORM || quantization > QUANT_A_LAW) {
+            throw new IOException("Cuantización desconocida: " + quantization);
+        }
+        this.samplesPerBit = h.getInt(28);
+        this.xmin = h.getDouble(32);
+        this.xmax = h.getDouble(40);
+        this.bitRate = h.getDouble(48);
+        this.carrier = h.getDouble(56);
+        this.A0 = h.getDouble(64);
+        this.A1 = h.getDouble(72);
+        this.sampleCount = h.getLong(80);
+        this.bitCount = h.getLong(88);
+        long askOffset = h.getLong(96);
+        this.askLength = h.getLong(104);
+        long bitsOffset = h.getLong(112);
+        this.askScale = h.getDouble(120);
+
+        long size = channel.size();
+        long bitBytes = (bitCount + 7) >>> 3;
+        if (bitCount < 0 || bitsOffset < HEADER_BYTES || bitsOffset + bitBytes > size) {
+            throw new IOException("Sección de bits fuera del archivo");
+        }
+        this.bitSegments = map(channel, bitsOffset, bitBytes, MAX_SEGMENT_BYTES);
+
+        if ((flags & FLAG_ASK) != 0) {
+            int fmt = h.get(12);
+            if (fmt < 0 || fmt >= SampleFormat.values().length) {
+                throw new IOException("Formato ASK desconocido: " + fmt);
+            }
+            this.askFormat = SampleFormat.values()[fmt];
+            if (askLength < 0 || askOffset < HEADER_BYTES || askOffset + askLength * askFormat.bytes > size) {
+                throw new IOException("Sección ASK fuera del archivo");
+            }
+            this.samplesPerSegment = MAX_SEGMENT_BYTES / askFormat.bytes;
+            this.askSegments = map(channel, askOffset, askLength * askFormat.bytes, samplesPerSegment * askFormat.bytes);
+        } else {
+            this.askFormat = null;
+            this.samplesPerSegment = 1;
+            this.askSegments = new MappedByteBuffer[0];
+        }
+    }
+
+    /**
+     * Abre y mapea un contenedor
+     *
+     * @throws IOException Si no es un contenedor válido o la versión no es compatible
+     */
+    public static SignalContainerFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (h.hasRemaining()) {
+                if (channel.read(h, h.position()) < 0) throw new IOException("Cabecera incompleta: " + path);
+            }
+            if (h.getInt(0) != MAGIC) throw new IOException("No es un contenedor SGNC: " + path);
+            if (h.getShort(4) != VERSION) throw new IOException("Versión de contenedor no soportada: " + h.getShort(4));
+            return new SignalContainerFile(channel, h);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, long offset, long bytes, long segmentBytes)
+            throws IOException {
+        int n = (int) Math.max(1, (bytes + segmentBytes - 1) / segmentBytes);
+        MappedByteBuffer[] segments = new MappedByteBuffer[n];
+        for (int s = 0; s < n; s++) {
+            long start = s * segmentBytes;
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, offset + start, Math.min(segmentBytes, bytes - start));
+            segments[s].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return segments;
+    }
+
+    // --- Bits PCM ---
+
+    /**
+     * @return Bit i de la secuencia PCM
+     */
+    public boolean bit(long i) {
+        return (byteAt(i >>> 3) >>> (7 - (int) (i & 7)) & 1) != 0;
+    }
+
+    /**
+     * Copia len bits desde start
+     */
+    public void readBits(long start, boolean[] dst, int off, int len) {
+        for (int k = 0; k < len; k++) {
+            dst[off + k] = bit(start + k);
+        }
+    }
+
+    /**
+     * @return Nivel de cuantización de la muestra PCM indicada
+     */
+    public int level(long sample) {
+        long first = sample * nBits;
+        int v = 0;
+        for (int k = 0; k < nBits; k++) {
+            v = (v << 1) | (bit(first + k) ? 1 : 0);
+        }
+        return v;
+    }
+
+    private int byteAt(long index) {
+        int s = (int) (index / MAX_SEGMENT_BYTES);
+        return bitSegments[s].get((int) (index - s * MAX_SEGMENT_BYTES)) & 0xFF;
+    }
+
+    /**
+     * @return Cuantizador con los parámetros guardados
+     */
+    public Quantizer quantizer() {
+        switch (quantization) {
+            case QUANT_MU_LAW: return new CompandingQuantizer(CompandingQuantizer.Law.MU_LAW, xmax);
+            case QUANT_A_LAW: return new CompandingQuantizer(CompandingQuantizer.Law.A_LAW, xmax);
+            default: return new PCMEncoder(nBits, xmin, xmax);
+        }
+    }
+
+    /**
+     * @return Codificador uniforme con los parámetros guardados
+     * @throws IllegalStateException Si el contenedor usa ley μ o A (ver {@link #quantizer()})
+     */
+    public PCMEncoder encoder() {
+        if (quantization != QUANT_UNIFORM) {
+            throw new IllegalStateException("El contenedor no usa cuantización uniforme");
+        }
+        return new PCMEncoder(nBits, xmin, xmax);
+    }
+
+    /**
+     * @return Decodificador con los parámetros guardados
+     */
+    public PCMDecoder decoder() {
+        return new PCMDecoder(quantizer());
+    }
+
+    // --- Señal ASK ---
+
+    public boolean hasAsk() {
+        return askFormat != null;
+    }
+
+    /**
+     * @return Muestra i de la señal ASK
+     */
+    public double askSample(long i) {
+        int s = (int) (i / samplesPerSegment);
+        int offset = (int) (i - s * samplesPerSegment) * askFormat.bytes;
+        return askFormat == SampleFormat.FLOAT32
+                ? askSegments[s].getFloat(offset)
+                : askSegments[s].getShort(offset) * askScale;
+    }
+
+    /**
+     * @return Vista de la señal ASK como fuente de muestras (sin copiarla)
+     */
+    public SampleSource ask() {
+        if (askFormat == null) throw new IllegalStateException("El contenedor no tiene señal ASK");
+        return new SampleSource() {
+            @Override public long length() { return askLength; }
+            @Override public double getFs() { return fs; }
+            @Override public double sample(long index) { return askSample(index); }
+        };
+    }
+
+    public double getFs() { return fs; }
+    public int getNBits() { return nBits; }
+    public int getSamplesPerBit() { return samplesPerBit; }
+    public double getXmin() { return xmin; }
+    public double getXmax() { return xmax; }
+    public double getBitRate() { return bitRate; }
+    public double getCarrier() { return carrier; }
+    public double getA0() { return A0; }
+    public double getA1() { return A1; }
+    public long getSampleCount() { return sampleCount; }
+    public long getBitCount() { return bitCount; }
+    public long getAskLength() { return askLength; }
+
+    /**
+     * @return Formato de la sección ASK, o null si no hay
+     */
+    public SampleFormat getAskFormat() { return askFormat; }
+
+    /**
+     * Cierra el canal. Las regiones mapeadas siguen siendo válidas hasta que
+     * el recolector de basura las libere.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
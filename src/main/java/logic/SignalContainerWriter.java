@@ -0,0 +1,272 @@
+package logic;
+
+import logic.SignalContainerFile.SampleFormat;
+import models.PackedBits;
+import models.Signal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static logic.SignalContainerFile.FLAG_ASK;
+import static logic.SignalContainerFile.HEADER_BYTES;
+import static logic.SignalContainerFile.MAGIC;
+import static logic.SignalContainerFile.QUANT_A_LAW;
+import static logic.SignalContainerFile.QUANT_MU_LAW;
+import static logic.SignalContainerFile.QUANT_UNIFORM;
+import static logic.SignalContainerFile.SECTION_ALIGN;
+import static logic.SignalContainerFile.VERSION;
+
+/**
+ * Escritura de un contenedor binario de resultados (formato descrito en
+ * {@link SignalContainerFile}).
+ *
+ * La señal ASK se escribe detrás de la cabecera a medida que llega: cada
+ * bloque se convierte en rebanadas de un conjunto fijo de buffers directos
+ * que se envían con una sola escritura de tipo gather
+ * ({@link FileChannel#write(ByteBuffer[], int, int)}). Como los bits van
+ * después de la señal ASK y su posición final no se conoce hasta el cierre,
+ * en modo streaming se acumulan en un archivo temporal (ocupan
+ * 1/(8·bytes por muestra·muestras por bit) de la ASK) y al cerrar se copian
+ * con {@link FileChannel#transferTo}. Si no hay sección ASK, o la longitud se
+ * conoce de antemano ({@link #write}), los bits se escriben directamente en
+ * su sitio. La cabecera se escribe al final, cuando ya se conocen las
+ * longitudes.
+ *
+ * @author xexpl
+ */
+public class SignalContainerWriter implements StreamingPipeline.BlockSink, Closeable {
+
+    private static final int SLICE_BYTES = 1 << 16;
+    private static final int SLICES = 8;
+
+    private final FileChannel channel;
+    private final Quantizer pcm;
+    private final double fs, bitRate, carrier, A0, A1;
+    private final int samplesPerBit;
+    private final SampleFormat format;     // null = sin sección ASK
+    private final double askScale;         // valor = muestra · askScale (int16)
+    private final ByteBuffer[] slices;
+    private int slice = 0;                 // Rebanada que se está llenando
+    private long askLength = 0;
+
+    private final long bitsOffset;         // -1 si los bits van a un temporal
+    private final Path spoolPath;
+    private final FileChannel spool;
+    private final BitstreamWriter bits;
+    private boolean closed;
+
+    /**
+     * Crea (o reemplaza) el archivo para escribir por bloques
+     *
+     * @param path    Ruta de salida
+     * @param pcm     Cuantizador ({@link PCMEncoder} o {@link CompandingQuantizer}; se guardan sus parámetros)
+     * @param fs      Frecuencia de muestreo de la señal ASK (Hz)
+     * @param bitRate Tasa de bits (bits por segundo)
+     * @param carrier Frecuencia de la portadora (Hz)
+     * @param A0      Amplitud para bit 0
+     * @param A1      Amplitud para bit 1
+     * @param format  Codificación de la señal ASK, o null para guardar solo los bits
+     */
+    public SignalContainerWriter(Path path, Quantizer pcm, double fs, double bitRate, double carrier,
+                                 double A0, double A1, SampleFormat format) throws IOException {
+        this(path, pcm, fs, bitRate, carrier, A0, A1, format, -1);
+    }
+
+    private SignalContainerWriter(Path path, Quantizer pcm, double fs, double bitRate, double carrier,
+                                  double A0, double A1, SampleFormat format, long knownAskLength) throws IOException {
+        if (!(pcm instanceof PCMEncoder) && !(pcm instanceof CompandingQuantizer)) {
+            throw new IllegalArgumentException("Cuantizador no soportado por el contenedor: " + pcm.getClass().getName());
+        }
+        this.pcm = pcm;
+        this.fs = fs;
+        this.bitRate = bitRate;
+        this.carrier = carrier;
+        this.A0 = A0;
+        this.A1 = A1;
+        this.samplesPerBit = ASKModulator.samplesPerBit(fs, bitRate);
+        this.format = format;
+        double peak = Math.max(Math.abs(A0), Math.abs(A1));
+        this.askScale = format == SampleFormat.INT16 && peak > 0 ? peak / 32767.0 : 1.0;
+        this.slices = new ByteBuffer[format == null ? 0 : SLICES];
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = ByteBuffer.allocateDirect(SLICE_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            channel.position(HEADER_BYTES);
+            if (format == null || knownAskLength >= 0) {
+                long askBytes = format == null ? 0 : knownAskLength * format.bytes;
+                this.bitsOffset = align(HEADER_BYTES + askBytes);
+                this.spoolPath = null;
+                this.spool = null;
+                this.bits = new BitstreamWriter(channelStream(channel, bitsOffset));
+            } else {
+                Path dir = path.toAbsolutePath().getParent();
+                this.bitsOffset = -1;
+                this.spoolPath = Files.createTempFile(dir, path.getFileName().toString(), ".bits.tmp");
+                this.spool = FileChannel.open(spoolPath, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+                this.bits = new BitstreamWriter(channelStream(spool, 0));
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Guarda un resultado completo en memoria
+     *
+     * @param ask    Señal ASK, o null para guardar solo los bits
+     * @param format Codificación de la señal ASK (se ignora si ask es null)
+     */
+    public static void write(Path path, Quantizer pcm, PackedBits bits, Signal ask, double fs, double bitRate,
+                             double carrier, double A0, double A1, SampleFormat format) throws IOException {
+        SampleFormat f = ask == null ? null : format;
+        long askLength = ask == null ? 0 : ask.getSamples().length;
+        try (SignalContainerWriter w = new SignalContainerWriter(path, pcm, fs, bitRate, carrier, A0, A1, f, askLength)) {
+            if (ask != null) w.writeAsk(ask.getSamples(), 0, ask.getSamples().length);
+            w.bits.write(bits, 0, bits.length());
+        }
+    }
+
+    /**
+     * Guarda los bits y la señal ASK de un bloque de {@link StreamingPipeline}
+     */
+    @Override
+    public void accept(StreamingPipeline.Block block) throws IOException {
+        writeBits(block.bits, 0, block.nBits);
+        if (format != null) writeAsk(block.ask, 0, block.nAsk);
+    }
+
+    public void writeBits(boolean[] b, int off, int len) throws IOException {
+        bits.write(b, off, len);
+    }
+
+    public void writeAsk(double[] x, int off, int len) throws IOException {
+        if (format == null) throw new IllegalStateException("El contenedor no tiene sección ASK");
+        int end = off + len;
+        ByteBuffer buf = slices[slice];
+        for (int i = off; i < end; i++) {
+            if (buf.remaining() < format.bytes) {
+                if (++slice == slices.length) flushSlices();
+                buf = slices[slice];
+            }
+            if (format == SampleFormat.FLOAT32) {
+                buf.putFloat((float) x[i]);
+            } else {
+                buf.putShort((short) Math.max(-32768, Math.min(32767, Math.round(x[i] / askScale))));
+            }
+        }
+        askLength += len;
+    }
+
+    /**
+     * Escribe todas las rebanadas llenas (y la actual) con una escritura gather
+     */
+    private void flushSlices() throws IOException {
+        int used = Math.min(slice + 1, slices.length);
+        for (int i = 0; i < used; i++) slices[i].flip();
+        long remaining = 0;
+        for (int i = 0; i < used; i++) remaining += slices[i].remaining();
+        while (remaining > 0) remaining -= channel.write(slices, 0, used);
+        for (int i = 0; i < used; i++) slices[i].clear();
+        slice = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (format != null) flushSlices();
+            bits.close();
+            long bitBytes = (bits.getBitsWritten() + 7) >>> 3;
+            long askEnd = HEADER_BYTES + (format == null ? 0 : askLength * format.bytes);
+            long bitsAt = bitsOffset;
+            if (bitsAt < 0) {
+                // Copiar los bits acumulados detrás de la señal ASK
+                bitsAt = align(askEnd);
+                long copied = 0;
+                channel.position(bitsAt);
+                while (copied < bitBytes) copied += spool.transferTo(copied, bitBytes - copied, channel);
+            } else if (askEnd > bitsAt) {
+                throw new IOException("La señal ASK ocupa más de lo declarado");
+            }
+            writeHeader(bitsAt);
+        } finally {
+            if (spool != null) spool.close();
+            channel.close();
+            if (spoolPath != null) Files.deleteIfExists(spoolPath);
+        }
+    }
+
+    private void writeHeader(long bitsAt) throws IOException {
+        long bitCount = bits.getBitsWritten();
+        ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        h.putInt(0, MAGIC);
+        h.putShort(4, VERSION);
+        h.putShort(6, (short) HEADER_BYTES);
+        h.putInt(8, format != null ? FLAG_ASK : 0);
+        h.put(12, (byte) (format == null ? 0 : format.ordinal()));
+        h.putDouble(16, fs);
+        h.putInt(24, pcm.getNBits());
+        h.putInt(28, samplesPerBit);
+        if (pcm instanceof CompandingQuantizer) {
+            CompandingQuantizer c = (CompandingQuantizer) pcm;
+            h.put(13, (byte) (c.getLaw() == CompandingQuantizer.Law.MU_LAW ? QUANT_MU_LAW : QUANT_A_LAW));
+            h.putDouble(32, -c.getFullScale());
+            h.putDouble(40, c.getFullScale());
+        } else {
+            PCMEncoder u = (PCMEncoder) pcm;
+            h.put(13, (byte) QUANT_UNIFORM);
+            h.putDouble(32, u.getXmin());
+            h.putDouble(40, u.getXmin() + u.getL() * u.getQ());
+        }
+        h.putDouble(48, bitRate);
+        h.putDouble(56, carrier);
+        h.putDouble(64, A0);
+        h.putDouble(72, A1);
+        h.putLong(80, bitCount / pcm.getNBits());
+        h.putLong(88, bitCount);
+        h.putLong(96, HEADER_BYTES);
+        h.putLong(104, format == null ? 0 : askLength);
+        h.putLong(112, bitsAt);
+        h.putDouble(120, askScale);
+        long p = 0;
+        while (h.hasRemaining()) p += channel.write(h, p);
+    }
+
+    private static long align(long offset) {
+        return (offset + SECTION_ALIGN - 1) / SECTION_ALIGN * SECTION_ALIGN;
+    }
+
+    /**
+     * Flujo que escribe en posiciones absolutas del canal (sin moverlo) y no lo cierra
+     */
+    private static OutputStream channelStream(FileChannel ch, long start) {
+        return new OutputStream() {
+            private long pos = start;
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                ByteBuffer bb = ByteBuffer.wrap(b, off, len);
+                while (bb.hasRemaining()) pos += ch.write(bb, pos);
+            }
+        };
+    }
+}
@@ -0,0 +1,303 @@
+package logic;
+
+import models.SampleSource;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Cadena PCM → Polar → ASK procesada por bloques de tamaño fijo.
+ *
+ * Cada bloque de muestras atraviesa todas las etapas usando buffers que se
+ * reutilizan, por lo que la memoria es constante sin importar la duración de
+ * la entrada y la señal ASK empieza a salir antes de terminar de leerla.
+ * La portadora se genera al vuelo con un {@link Oscillator}, con fase
+ * continua entre bloques.
+ *
+ * @author xexpl
+ */
+public class StreamingPipeline {
+
+    /** Tamaño por defecto del bloque (muestras de entrada) */
+    public static final int DEFAULT_BLOCK_SAMPLES = 4096;
+
+    /**
+     * Origen de muestras leídas secuencialmente
+     */
+    public interface BlockSource {
+        /**
+         * @return Número de muestras escritas en dst, o -1 al llegar al final
+         */
+        int read(double[] dst, int off, int len) throws IOException;
+    }
+
+    /**
+     * Destino de los bloques procesados. Los arreglos del bloque se reutilizan:
+     * si se quieren conservar hay que copiarlos antes de retornar.
+     */
+    public interface BlockSink {
+        void accept(Block block) throws IOException;
+    }
+
+    /**
+     * Resultado de todas las etapas para un bloque de entrada
+     */
+    public static class Block {
+        public final double[] samples;   // Muestras de entrada
+        public final int[] levels;       // Niveles PCM
+        public final boolean[] bits;     // Bits PCM en secuencia continua
+        public final double[] polar;     // Símbolos polares +1/-1
+        public final double[] ask;       // Señal ASK modulada
+        public int nSamples;             // Muestras válidas en samples/levels
+        public int nBits;                // Bits válidos en bits/polar
+        public int nAsk;                 // Muestras válidas en ask
+        public long firstSample;         // Índice absoluto de la primera muestra de entrada
+        public long firstAskSample;      // Índice absoluto de la primera muestra ASK
+
+        Block(int blockSamples, int bitsPerSample, int samplesPerBit) {
+            samples = new double[blockSamples];
+            levels = new int[blockSamples];
+            bits = new boolean[blockSamples * bitsPerSample];
+            polar = new double[blockSamples * bitsPerSample];
+            ask = new double[blockSamples * bitsPerSample * samplesPerBit];
+        }
+    }
+
+    private final SampleEncoder pcm;
+    private final double fc;
+    private final double bitRate;
+    private final double A0;
+    private final double A1;
+    private final int blockSamples;
+    private Oscillator.Mode oscillatorMode = Oscillator.Mode.EXACT;
+
+    /**
+     * @param pcm          Codificador de muestras (PCM, G.711 o diferencial, ver {@link SampleEncoder})
+     * @param fc           Frecuencia de la portadora (Hz)
+     * @param bitRate      Tasa de bits (bits por segundo)
+     * @param A0           Amplitud para bit 0
+     * @param A1           Amplitud para bit 1
+     * @param blockSamples Muestras de entrada por bloque
+     */
+    public StreamingPipeline(SampleEncoder pcm, double fc, double bitRate, double A0, double A1, int blockSamples) {
+        if (blockSamples <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo: " + blockSamples);
+        }
+        this.pcm = pcm;
+        this.fc = fc;
+        this.bitRate = bitRate;
+        this.A0 = A0;
+        this.A1 = A1;
+        this.blockSamples = blockSamples;
+    }
+
+    public StreamingPipeline(SampleEncoder pcm, double fc, double bitRate, double A0, double A1) {
+        this(pcm, fc, bitRate, A0, A1, DEFAULT_BLOCK_SAMPLES);
+    }
+
+    /**
+     * Elige el método de cálculo de la portadora (por defecto {@link Oscillator.Mode#EXACT})
+     */
+    public void setOscillatorMode(Oscillator.Mode mode) {
+        this.oscillatorMode = mode;
+    }
+
+    /**
+     * Procesa toda la entrada en el hilo actual. El destino se invoca una vez
+     * por bloque; mientras no retorna no se lee más entrada.
+     *
+     * @param source Origen de muestras
+     * @param fs     Frecuencia de muestreo de la entrada (Hz)
+     * @param sink   Destino de los bloques
+     * @return       Número total de muestras ASK generadas
+     */
+    public long run(BlockSource source, double fs, BlockSink sink) throws IOException {
+        resetEncoder();
+        Block block = newBlock(fs);
+        int spb = ASKModulator.samplesPerBit(fs, bitRate);
+        Oscillator carrier = new Oscillator(oscillatorMode, fc, fs, 1.0);
+        long sampleIndex = 0;
+        long askIndex = 0;
+        int n;
+        while ((n = readBlock(source, block.samples)) > 0) {
+            process(block, n, sampleIndex, askIndex, carrier, spb);
+            sink.accept(block);
+            sampleIndex += n;
+            askIndex += block.nAsk;
+        }
+        return askIndex;
+    }
+
+    /**
+     * Procesa la entrada leyendo en un hilo aparte. Entre el lector y las
+     * etapas hay una cola acotada de queueDepth buffers: si el destino es
+     * lento el lector se bloquea (contrapresión) y la memoria no crece.
+     *
+     * @param source     Origen de muestras (se lee desde otro hilo)
+     * @param fs         Frecuencia de muestreo de la entrada (Hz)
+     * @param sink       Destino de los bloques (se invoca en el hilo actual)
+     * @param queueDepth Número de buffers de entrada en circulación
+     * @return           Número total de muestras ASK generadas
+     */
+    public long runAsync(BlockSource source, double fs, BlockSink sink, int queueDepth)
+            throws IOException, InterruptedException {
+        int depth = Math.max(1, queueDepth);
+        BlockingQueue<double[]> free = new ArrayBlockingQueue<>(depth);
+        BlockingQueue<Chunk> full = new ArrayBlockingQueue<>(depth + 1);
+        for (int i = 0; i < depth; i++) {
+            free.add(new double[blockSamples]);
+        }
+
+        Thread reader = new Thread(() -> {
+            try {
+                while (true) {
+                    double[] buf = free.take();
+                    int n = readBlock(source, buf);
+                    if (n <= 0) break;
+                    full.put(new Chunk(buf, n, null));
+                }
+                full.put(new Chunk(null, 0, null));
+            } catch (IOException | RuntimeException | Error e) {
+                // El consumidor relanza el error en lugar de esperar un bloque que no llegará
+                full.offer(new Chunk(null, 0, e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "pipeline-reader");
+        reader.setDaemon(true);
+        resetEncoder();
+        reader.start();
+
+        Block block = newBlock(fs);
+        int spb = ASKModulator.samplesPerBit(fs, bitRate);
+        Oscillator carrier = new Oscillator(oscillatorMode, fc, fs, 1.0);
+        long sampleIndex = 0;
+        long askIndex = 0;
+        try {
+            while (true) {
+                Chunk chunk = full.take();
+                if (chunk.error != null) rethrow(chunk.error);
+                if (chunk.samples == null) break;
+                System.arraycopy(chunk.samples, 0, block.samples, 0, chunk.length);
+                free.put(chunk.samples); // Devolver el buffer al lector
+                process(block, chunk.length, sampleIndex, askIndex, carrier, spb);
+                sink.accept(block);
+                sampleIndex += chunk.length;
+                askIndex += block.nAsk;
+            }
+        } finally {
+            reader.interrupt();
+        }
+        return askIndex;
+    }
+
+    /**
+     * Ejecuta todas las etapas sobre las primeras n muestras del bloque.
+     * La portadora sale del oscilador, que conserva la fase entre bloques.
+     */
+    void process(Block block, int n, long sampleIndex, long askIndex, Oscillator carrier, int spb) {
+        int nBits = n * pcm.getNBits();
+        pcm.quantizeLevels(block.samples, 0, n, block.levels, 0);
+        pcm.levelsToBits(block.levels, 0, n, block.bits, 0);
+        Polar.encode(block.bits, 0, nBits, block.polar, 0);
+        ASKModulator.modulate(block.bits, 0, nBits, carrier, spb, A0, A1, block.ask, 0);
+        block.nSamples = n;
+        block.nBits = nBits;
+        block.nAsk = nBits * spb;
+        block.firstSample = sampleIndex;
+        block.firstAskSample = askIndex;
+    }
+
+    /**
+     * Devuelve el codificador a su estado inicial antes de una nueva señal
+     * (los codificadores diferenciales guardan estado entre bloques)
+     */
+    void resetEncoder() {
+        pcm.reset();
+    }
+
+    Block newBlock(double fs) {
+        return new Block(blockSamples, pcm.getNBits(), ASKModulator.samplesPerBit(fs, bitRate));
+    }
+
+    Oscillator newCarrier(double fs) {
+        return new Oscillator(oscillatorMode, fc, fs, 1.0);
+    }
+
+    int samplesPerBit(double fs) {
+        return ASKModulator.samplesPerBit(fs, bitRate);
+    }
+
+    public int getBlockSamples() {
+        return blockSamples;
+    }
+
+    /**
+     * Llena buf tanto como permita el origen (los orígenes pueden devolver menos)
+     */
+    private static int readBlock(BlockSource source, double[] buf) throws IOException {
+        int total = 0;
+        while (total < buf.length) {
+            int r = source.read(buf, total, buf.length - total);
+            if (r < 0) break;
+            total += r;
+        }
+        return total;
+    }
+
+    /**
+     * Adapta una fuente de acceso aleatorio (por ejemplo un WAV mapeado) a lectura secuencial
+     */
+    public static BlockSource fromSampleSource(SampleSource src) {
+        return new BlockSource() {
+            private long pos = 0;
+
+            @Override
+            public int read(double[] dst, int off, int len) {
+                int n = src.read(pos, dst, off, len);
+                pos += n;
+                return n == 0 && len > 0 ? -1 : n;
+            }
+        };
+    }
+
+    /**
+     * Muestrea una función analógica bajo demanda, sin generar el arreglo completo
+     * (equivalente por bloques de {@link Sampling#sample})
+     */
+    public static BlockSource fromFunction(DoubleUnaryOperator f, double fs, double duration) {
+        long N = Math.round(fs * duration);
+        return new BlockSource() {
+            private long n = 0;
+
+            @Override
+            public int read(double[] dst, int off, int len) {
+                int count = (int) Math.min(len, N - n);
+                if (count <= 0) return -1;
+                for (int i = 0; i < count; i++, n++) {
+                    dst[off + i] = f.applyAsDouble(n / fs);
+                }
+                return count;
+            }
+        };
+    }
+
+    private static void rethrow(Throwable error) throws IOException {
+        if (error instanceof IOException) throw (IOException) error;
+        if (error instanceof RuntimeException) throw (RuntimeException) error;
+        throw (Error) error;
+    }
+
+    private static class Chunk {
+        final double[] samples;
+        final int length;
+        final Throwable error;
+
+        Chunk(double[] samples, int length, Throwable error) {
+            this.samples = samples;
+            this.length = length;
+            this.error = error;
+        }
+    }
+}
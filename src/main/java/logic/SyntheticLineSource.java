@@ -0,0 +1,65 @@
+package logic;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Origen sintético f(n/fs). En modo tiempo real se espera hasta el instante
+ * de la última muestra de cada lectura, así que se comporta como una tarjeta
+ * de sonido (incluido que el consumidor puede quedarse atrás).
+ *
+ * @author xexpl
+ */
+class SyntheticLineSource implements LineSource {
+
+    private final DoubleUnaryOperator f;
+    private final double fs;
+    private final long total;      // Muestras a generar (-1 = sin fin)
+    private final boolean realTime;
+    private long n;
+    private long startNanos;
+    private volatile boolean open;
+
+    SyntheticLineSource(DoubleUnaryOperator f, double fs, double duration, boolean realTime) {
+        this.f = f;
+        this.fs = fs;
+        this.total = duration > 0 ? Math.round(fs * duration) : -1;
+        this.realTime = realTime;
+    }
+
+    @Override
+    public double getFs() {
+        return fs;
+    }
+
+    @Override
+    public void open() {
+        n = 0;
+        startNanos = System.nanoTime();
+        open = true;
+    }
+
+    @Override
+    public int read(double[] dst, int off, int len) {
+        if (!open) return -1;
+        int count = total < 0 ? len : (int) Math.min(len, total - n);
+        if (count <= 0) return -1;
+        if (realTime) {
+            long due = startNanos + (long) ((n + count) * 1e9 / fs);
+            long wait;
+            while (open && (wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!open) return -1;
+        }
+        for (int i = 0; i < count; i++, n++) {
+            dst[off + i] = f.applyAsDouble(n / fs);
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+}
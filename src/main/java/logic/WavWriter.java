@@ -0,0 +1,96 @@
+package logic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escritor de WAV PCM 16 bits mono por bloques.
+ *
+ * La cabecera se escribe al principio con tamaños provisionales y se corrige
+ * al cerrar, así que no hace falta conocer la longitud de antemano ni tener
+ * la señal entera en memoria. Las muestras se convierten en un buffer
+ * reutilizable (mismo recorte a [-32768, 32767] que la reproducción).
+ *
+ * @author xexpl
+ */
+public class WavWriter implements Closeable {
+
+    private static final int HEADER_BYTES = 44;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final float fs;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private long frames = 0;
+
+    /**
+     * Crea (o reemplaza) el archivo
+     *
+     * @param path Ruta de salida
+     * @param fs   Frecuencia de muestreo (Hz)
+     */
+    public WavWriter(Path path, float fs) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.fs = fs;
+        writeHeader(0);
+    }
+
+    /**
+     * Añade len muestras (se esperan en [-1, 1])
+     */
+    public void write(double[] x, int off, int len) throws IOException {
+        for (int i = 0; i < len; i++) {
+            if (!buffer.hasRemaining()) drain();
+            int val = (int) Math.max(Math.min(32767, x[off + i] * 32767), -32768);
+            buffer.putShort((short) val);
+        }
+        frames += len;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    private void writeHeader(long dataBytes) throws IOException {
+        if (dataBytes > 0xFFFFFFFFL - 36) {
+            throw new IOException("El WAV supera los 4 GB");
+        }
+        ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        h.put(new byte[]{'R', 'I', 'F', 'F'}).putInt((int) (36 + dataBytes));
+        h.put(new byte[]{'W', 'A', 'V', 'E'});
+        h.put(new byte[]{'f', 'm', 't', ' '}).putInt(16)
+                .putShort((short) 1)                // PCM
+                .putShort((short) 1)                // Mono
+                .putInt(Math.round(fs))
+                .putInt(Math.round(fs) * 2)         // Bytes por segundo
+                .putShort((short) 2)                // Bytes por frame
+                .putShort((short) 16);
+        h.put(new byte[]{'d', 'a', 't', 'a'}).putInt((int) dataBytes);
+        h.flip();
+        long p = 0;
+        while (h.hasRemaining()) p += channel.write(h, p);
+        if (channel.position() < HEADER_BYTES) channel.position(HEADER_BYTES);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+            writeHeader(frames * 2);
+        } finally {
+            channel.close();
+        }
+    }
+}
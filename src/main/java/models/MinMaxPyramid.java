@@ -0,0 +1,163 @@
+package models;
+
+/**
+ * Índice multirresolución de mínimos y máximos de una señal.
+ *
+ * El nivel 0 guarda el mínimo y el máximo de cada bloque de
+ * {@link #BASE_BLOCK} muestras y cada nivel siguiente agrupa
+ * {@link #FANOUT} bloques del anterior, hasta quedar un solo bloque.
+ * Cualquier rango [from, to) se resuelve recorriendo a lo sumo
+ * 2·BASE_BLOCK muestras sueltas y 2·(FANOUT-1) bloques por nivel, así que
+ * el costo de una consulta es O(log N) sin importar el tamaño del rango.
+ * <p>
+ * Los bloques se guardan como {@code float} (el índice ocupa 1/8 de la señal
+ * en el nivel 0 y ~1/6 en total); el mínimo y máximo globales se guardan en
+ * {@code double}. Las muestras sueltas de los extremos se leen de la señal
+ * original, así que la única diferencia con un recorrido completo es el
+ * redondeo a float de los bloques interiores.
+ *
+ * @author xexpl
+ */
+public class MinMaxPyramid {
+
+    /** Muestras por bloque en el nivel 0 */
+    public static final int BASE_BLOCK = 16;
+    /** Bloques de un nivel que forman un bloque del nivel siguiente */
+    public static final int FANOUT = 4;
+
+    private final double[] samples;
+    private final float[][] mins;  // mins[nivel][bloque]
+    private final float[][] maxs;
+    private final double globalMin;
+    private final double globalMax;
+
+    /**
+     * Construye el índice en una pasada sobre la señal
+     *
+     * @param samples Muestras (no se copian; no deben modificarse después)
+     */
+    public MinMaxPyramid(double[] samples) {
+        this.samples = samples;
+        int levels = 1;
+        for (long blocks = ceilDiv(samples.length, BASE_BLOCK); blocks > 1; blocks = ceilDiv(blocks, FANOUT)) {
+            levels++;
+        }
+        mins = new float[levels][];
+        maxs = new float[levels][];
+
+        // Nivel 0 desde las muestras
+        int n0 = (int) ceilDiv(samples.length, BASE_BLOCK);
+        mins[0] = new float[n0];
+        maxs[0] = new float[n0];
+        double gmin = Double.POSITIVE_INFINITY, gmax = Double.NEGATIVE_INFINITY;
+        for (int b = 0; b < n0; b++) {
+            int end = Math.min(samples.length, (b + 1) * BASE_BLOCK);
+            double mn = Double.POSITIVE_INFINITY, mx = Double.NEGATIVE_INFINITY;
+            for (int i = b * BASE_BLOCK; i < end; i++) {
+                double v = samples[i];
+                if (v < mn) mn = v;
+                if (v > mx) mx = v;
+            }
+            mins[0][b] = (float) mn;
+            maxs[0][b] = (float) mx;
+            if (mn < gmin) gmin = mn;
+            if (mx > gmax) gmax = mx;
+        }
+        globalMin = gmin;
+        globalMax = gmax;
+
+        // Niveles superiores desde el anterior
+        for (int l = 1; l < levels; l++) {
+            float[] pmin = mins[l - 1], pmax = maxs[l - 1];
+            int n = (int) ceilDiv(pmin.length, FANOUT);
+            mins[l] = new float[n];
+            maxs[l] = new float[n];
+            for (int b = 0; b < n; b++) {
+                int end = Math.min(pmin.length, (b + 1) * FANOUT);
+                float mn = Float.POSITIVE_INFINITY, mx = Float.NEGATIVE_INFINITY;
+                for (int i = b * FANOUT; i < end; i++) {
+                    if (pmin[i] < mn) mn = pmin[i];
+                    if (pmax[i] > mx) mx = pmax[i];
+                }
+                mins[l][b] = mn;
+                maxs[l][b] = mx;
+            }
+        }
+    }
+
+    /**
+     * Mínimo y máximo de las muestras [from, to)
+     *
+     * @param from Primera muestra (incluida)
+     * @param to   Última muestra (excluida)
+     * @param out  out[0] = mínimo, out[1] = máximo (±infinito si el rango está vacío)
+     */
+    public void minMax(int from, int to, double[] out) {
+        from = Math.max(0, from);
+        to = Math.min(samples.length, to);
+        double mn = Double.POSITIVE_INFINITY, mx = Double.NEGATIVE_INFINITY;
+
+        // Muestras sueltas hasta alinear con los bloques del nivel 0
+        int lo = from, hi = to;
+        while (lo < hi && lo % BASE_BLOCK != 0) {
+            double v = samples[lo++];
+            if (v < mn) mn = v;
+            if (v > mx) mx = v;
+        }
+        while (hi > lo && hi % BASE_BLOCK != 0 && hi != samples.length) {
+            double v = samples[--hi];
+            if (v < mn) mn = v;
+            if (v > mx) mx = v;
+        }
+
+        // Bloques [a, b) de cada nivel: consumir los bordes hasta alinear con el nivel siguiente
+        int a = lo / BASE_BLOCK;
+        int b = lo < hi ? (int) ceilDiv(hi, BASE_BLOCK) : a;
+        for (int l = 0; l < mins.length && a < b; l++) {
+            float[] lmin = mins[l], lmax = maxs[l];
+            if (l == mins.length - 1) {
+                for (int i = a; i < b; i++) {
+                    if (lmin[i] < mn) mn = lmin[i];
+                    if (lmax[i] > mx) mx = lmax[i];
+                }
+                break;
+            }
+            while (a < b && a % FANOUT != 0) {
+                if (lmin[a] < mn) mn = lmin[a];
+                if (lmax[a] > mx) mx = lmax[a];
+                a++;
+            }
+            // El último bloque del nivel puede estar incompleto: si b es el final, se agrupa igual
+            while (b > a && b % FANOUT != 0 && b != lmin.length) {
+                b--;
+                if (lmin[b] < mn) mn = lmin[b];
+                if (lmax[b] > mx) mx = lmax[b];
+            }
+            if (a >= b) break;
+            a /= FANOUT;
+            b = (int) ceilDiv(b, FANOUT);
+        }
+        out[0] = mn;
+        out[1] = mx;
+    }
+
+    public double getMin() {
+        return globalMin;
+    }
+
+    public double getMax() {
+        return globalMax;
+    }
+
+    public int length() {
+        return samples.length;
+    }
+
+    public int levels() {
+        return mins.length;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+}
@@ -0,0 +1,178 @@
+package models;
+
+import java.util.Arrays;
+
+/**
+ * Secuencia de bits empaquetada en un arreglo {@code long[]} (64 bits por palabra).
+ *
+ * Ocupa 1 bit por bit de datos, frente a 1 byte por bit de {@code boolean[]} y
+ * a la cabecera de arreglo por muestra de {@code boolean[][]}. Los bits se
+ * guardan del más significativo al menos significativo dentro de cada palabra,
+ * así que leer un campo de n bits es un desplazamiento.
+ *
+ * @author xexpl
+ */
+public class PackedBits {
+
+    private final long[] words;
+    private final long length;
+
+    /**
+     * Crea una secuencia de bits inicializada a cero
+     *
+     * @param length Número de bits
+     */
+    public PackedBits(long length) {
+        if (length < 0 || (length + 63) >>> 6 > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Longitud de bits no válida: " + length);
+        }
+        this.length = length;
+        this.words = new long[(int) ((length + 63) >>> 6)];
+    }
+
+    /**
+     * Empaqueta un arreglo de bits booleanos
+     */
+    public static PackedBits fromBooleans(boolean[] bits) {
+        PackedBits p = new PackedBits(bits.length);
+        for (int i = 0; i < bits.length; i++) {
+            if (bits[i]) p.words[i >>> 6] |= 1L << (63 - (i & 63));
+        }
+        return p;
+    }
+
+    /**
+     * @return Número de bits de la secuencia
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @return Arreglo interno de palabras (no se copia)
+     */
+    public long[] words() {
+        return words;
+    }
+
+    public boolean get(long index) {
+        return ((words[(int) (index >>> 6)] >>> (63 - (index & 63))) & 1L) != 0;
+    }
+
+    public void set(long index, boolean value) {
+        long mask = 1L << (63 - (index & 63));
+        int w = (int) (index >>> 6);
+        if (value) words[w] |= mask;
+        else words[w] &= ~mask;
+    }
+
+    /**
+     * Lee un campo de hasta 32 bits empezando en index (el primer bit es el más significativo)
+     *
+     * @param index Posición del primer bit
+     * @param count Número de bits (1 a 32)
+     * @return      Valor entero del campo
+     */
+    public int getBits(long index, int count) {
+        int w = (int) (index >>> 6);
+        int bit = (int) (index & 63);
+        // Juntar la palabra actual y la siguiente en una ventana de 64 bits alineada en index
+        long window = words[w] << bit;
+        if (bit + count > 64) {
+            window |= words[w + 1] >>> (64 - bit);
+        }
+        return (int) (window >>> (64 - count));
+    }
+
+    /**
+     * Escribe un campo de hasta 32 bits empezando en index (el bit más significativo primero)
+     *
+     * @param index Posición del primer bit
+     * @param value Valor a escribir (se usan los count bits menos significativos)
+     * @param count Número de bits (1 a 32)
+     */
+    public void putBits(long index, int value, int count) {
+        int w = (int) (index >>> 6);
+        int bit = (int) (index & 63);
+        long field = ((long) value & ((1L << count) - 1)) << (64 - count); // Campo alineado a la izquierda
+        long mask = (-1L << (64 - count));
+        words[w] = (words[w] & ~(mask >>> bit)) | (field >>> bit);
+        if (bit + count > 64) {
+            int shift = 64 - bit;
+            words[w + 1] = (words[w + 1] & ~(mask << shift)) | (field << shift);
+        }
+    }
+
+    /**
+     * Desempaqueta un rango de bits en un arreglo booleano existente
+     */
+    public void toBooleans(long start, boolean[] dst, int off, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[off + i] = get(start + i);
+        }
+    }
+
+    /**
+     * Desempaqueta toda la secuencia en un arreglo booleano nuevo
+     */
+    public boolean[] toBooleans() {
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Demasiados bits para un arreglo boolean[]: " + length);
+        }
+        boolean[] bits = new boolean[(int) length];
+        toBooleans(0, bits, 0, bits.length);
+        return bits;
+    }
+
+    /**
+     * Crea un lector secuencial posicionado al inicio
+     */
+    public Reader reader() {
+        return new Reader();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PackedBits)) return false;
+        PackedBits other = (PackedBits) o;
+        return length == other.length && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(length) + Arrays.hashCode(words);
+    }
+
+    /**
+     * Lector secuencial de bits y campos de bits
+     */
+    public class Reader {
+        private long pos = 0;
+
+        public boolean hasNext() {
+            return pos < length;
+        }
+
+        public boolean nextBit() {
+            return get(pos++);
+        }
+
+        /**
+         * Lee los siguientes count bits (1 a 32) como entero sin signo
+         */
+        public int nextBits(int count) {
+            int v = getBits(pos, count);
+            pos += count;
+            return v;
+        }
+
+        public long position() {
+            return pos;
+        }
+
+        public void seek(long position) {
+            this.pos = position;
+        }
+    }
+}
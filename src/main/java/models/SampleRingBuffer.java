@@ -0,0 +1,124 @@
+package models;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffer circular de muestras para exactamente un productor y un consumidor,
+ * sin bloqueos.
+ *
+ * Las posiciones de escritura y lectura son contadores de 64 bits que solo
+ * crecen; cada uno lo modifica un único hilo y se publica con
+ * {@code lazySet} después de copiar los datos, así que el otro hilo nunca ve
+ * una posición adelantada a las muestras. Cada lado guarda una copia local de
+ * la posición del otro y solo la vuelve a leer cuando le parece que no hay
+ * espacio (o datos), para no tocar la línea de caché del otro en cada
+ * llamada. La capacidad se redondea a una potencia de dos para indexar con
+ * una máscara.
+ * <p>
+ * Ni {@link #write} ni {@link #read} bloquean ni reservan memoria: escriben
+ * o leen lo que cabe y devuelven cuánto fue.
+ *
+ * @author xexpl
+ */
+public class SampleRingBuffer {
+
+    private final double[] buffer;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Próxima posición a escribir (productor)
+    private final AtomicLong tail = new AtomicLong(); // Próxima posición a leer (consumidor)
+    private long cachedTail; // Última posición de lectura vista por el productor
+    private long cachedHead; // Última posición de escritura vista por el consumidor
+
+    /**
+     * @param minCapacity Capacidad mínima en muestras (se redondea a potencia de dos)
+     */
+    public SampleRingBuffer(int minCapacity) {
+        if (minCapacity <= 0 || minCapacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacidad no válida: " + minCapacity);
+        }
+        int capacity = Integer.highestOneBit(minCapacity);
+        if (capacity < minCapacity) capacity <<= 1;
+        this.buffer = new double[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Copia hasta len muestras al buffer (solo desde el hilo productor)
+     *
+     * @return Número de muestras escritas (menos que len si no había espacio)
+     */
+    public int write(double[] src, int off, int len) {
+        long h = head.get();
+        int free = (int) (buffer.length - (h - cachedTail));
+        if (free < len) {
+            cachedTail = tail.get();
+            free = (int) (buffer.length - (h - cachedTail));
+        }
+        int n = Math.min(len, free);
+        if (n <= 0) return 0;
+        int pos = (int) (h & mask);
+        int first = Math.min(n, buffer.length - pos);
+        System.arraycopy(src, off, buffer, pos, first);
+        System.arraycopy(src, off + first, buffer, 0, n - first);
+        head.lazySet(h + n);
+        return n;
+    }
+
+    /**
+     * Copia hasta len muestras del buffer a dst (solo desde el hilo consumidor)
+     *
+     * @return Número de muestras leídas (0 si está vacío)
+     */
+    public int read(double[] dst, int off, int len) {
+        long t = tail.get();
+        int ready = (int) (cachedHead - t);
+        if (ready < len) {
+            cachedHead = head.get();
+            ready = (int) (cachedHead - t);
+        }
+        int n = Math.min(len, ready);
+        if (n <= 0) return 0;
+        int pos = (int) (t & mask);
+        int first = Math.min(n, buffer.length - pos);
+        System.arraycopy(buffer, pos, dst, off, first);
+        System.arraycopy(buffer, 0, dst, off + first, n - first);
+        tail.lazySet(t + n);
+        return n;
+    }
+
+    /**
+     * @return Muestras pendientes de leer (aproximado si se llama mientras el otro hilo trabaja)
+     */
+    public int available() {
+        return (int) (head.get() - tail.get());
+    }
+
+    /**
+     * @return Total de muestras escritas desde la creación (o desde {@link #clear})
+     */
+    public long written() {
+        return head.get();
+    }
+
+    /**
+     * @return Total de muestras leídas desde la creación (o desde {@link #clear})
+     */
+    public long consumed() {
+        return tail.get();
+    }
+
+    /**
+     * Descarta el contenido y vuelve las posiciones a cero. Solo se puede
+     * llamar con el productor y el consumidor detenidos.
+     */
+    public void clear() {
+        head.set(0);
+        tail.set(0);
+        cachedTail = 0;
+        cachedHead = 0;
+    }
+}
@@ -0,0 +1,47 @@
+package models;
+
+/**
+ * Fuente de muestras de acceso aleatorio.
+ *
+ * Permite tratar igual a una {@link Signal} en memoria y a una vista que
+ * decodifica las muestras bajo demanda (por ejemplo un WAV mapeado en memoria).
+ *
+ * @author xexpl
+ */
+public interface SampleSource {
+
+    /**
+     * @return Número total de muestras
+     */
+    long length();
+
+    /**
+     * @return Frecuencia de muestreo (Hz)
+     */
+    double getFs();
+
+    /**
+     * Devuelve la muestra en la posición indicada
+     *
+     * @param index Índice de la muestra (0 a length()-1)
+     * @return      Valor de la muestra
+     */
+    double sample(long index);
+
+    /**
+     * Copia un rango de muestras en un arreglo destino
+     *
+     * @param start Índice de la primera muestra
+     * @param dst   Arreglo destino
+     * @param off   Posición inicial en el destino
+     * @param len   Número máximo de muestras a copiar
+     * @return      Número de muestras copiadas (0 si start está fuera de rango)
+     */
+    default int read(long start, double[] dst, int off, int len) {
+        int n = (int) Math.max(0, Math.min(len, length() - start));
+        for (int i = 0; i < n; i++) {
+            dst[off + i] = sample(start + i);
+        }
+        return n;
+    }
+}
@@ -8,7 +8,7 @@ package models;
  *
  * @author xexpl
  */
-public class Signal {
+public class Signal implements SampleSource {
     
     private final double[] samples;
     private final double fs;
@@ -25,4 +25,23 @@ public class Signal {
     public double getFs() {
         return fs;
     }
+
+    @Override
+    public long length() {
+        return samples.length;
+    }
+
+    @Override
+    public double sample(long index) {
+        return samples[(int) index];
+    }
+
+    @Override
+    public int read(long start, double[] dst, int off, int len) {
+        int n = (int) Math.max(0, Math.min(len, samples.length - start));
+        if (n > 0) {
+            System.arraycopy(samples, (int) start, dst, off, n);
+        }
+        return n;
+    }
 }
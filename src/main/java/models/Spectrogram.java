@@ -0,0 +1,96 @@
+package models;
+
+/**
+ * Matriz tiempo-frecuencia de una STFT.
+ *
+ * Guarda la magnitud de cada trama en decibelios como {@code float}, trama
+ * tras trama en un único arreglo (bins valores por trama), lo que ocupa la
+ * mitad que un {@code double[][]} y evita una cabecera de arreglo por trama.
+ *
+ * @author xexpl
+ */
+public class Spectrogram {
+
+    private final float[] db;
+    private final int frames;
+    private final int bins;
+    private final int fftSize;
+    private final int hop;
+    private final double fs;
+    private float maxDb = Float.NEGATIVE_INFINITY;
+
+    /**
+     * @param frames  Número de tramas
+     * @param fftSize Tamaño de la FFT (bins = fftSize/2 + 1)
+     * @param hop     Separación entre tramas (muestras)
+     * @param fs      Frecuencia de muestreo de la señal (Hz)
+     */
+    public Spectrogram(int frames, int fftSize, int hop, double fs) {
+        this.frames = frames;
+        this.fftSize = fftSize;
+        this.bins = fftSize / 2 + 1;
+        this.hop = hop;
+        this.fs = fs;
+        if ((long) frames * bins > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Espectrograma demasiado grande: " + frames + " tramas x " + bins + " bins");
+        }
+        this.db = new float[frames * bins];
+    }
+
+    /**
+     * @return Arreglo interno (trama f, bin k en f * bins + k); no se copia
+     */
+    public float[] data() {
+        return db;
+    }
+
+    public float get(int frame, int bin) {
+        return db[frame * bins + bin];
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+
+    public int getBins() {
+        return bins;
+    }
+
+    public int getFftSize() {
+        return fftSize;
+    }
+
+    public int getHop() {
+        return hop;
+    }
+
+    public double getFs() {
+        return fs;
+    }
+
+    /**
+     * @return Frecuencia central del bin k (Hz)
+     */
+    public double binFrequency(int bin) {
+        return bin * fs / fftSize;
+    }
+
+    /**
+     * @return Instante central de la trama (s)
+     */
+    public double frameTime(int frame) {
+        return ((double) frame * hop + fftSize / 2.0) / fs;
+    }
+
+    /**
+     * @return Máximo de la matriz en dB (se calcula una vez)
+     */
+    public float getMaxDb() {
+        if (maxDb == Float.NEGATIVE_INFINITY) {
+            float m = Float.NEGATIVE_INFINITY;
+            for (float v : db) if (v > m) m = v;
+            maxDb = m;
+        }
+        return maxDb;
+    }
+}
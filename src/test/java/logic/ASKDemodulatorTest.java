@@ -0,0 +1,115 @@
+package logic;
+
+import models.Signal;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Demodulación ASK sin ruido: los bits del modulador deben recuperarse
+ * exactamente, con cualquier troceo y con el sincronismo estimado
+ *
+ * @author xexpl
+ */
+class ASKDemodulatorTest {
+
+    private static final double FS = 8000;
+    private static final double FC = 2000;
+    private static final double BIT_RATE = 1000;
+
+    private static boolean[] randomBits(int n, long seed) {
+        Random rnd = new Random(seed);
+        boolean[] bits = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            bits[i] = rnd.nextBoolean();
+        }
+        return bits;
+    }
+
+    private static boolean[] demodulateInChunks(ASKDemodulator d, double[] x, long seed) {
+        boolean[] out = new boolean[d.maxBits(x.length)];
+        int n = 0;
+        Random rnd = new Random(seed);
+        for (int pos = 0; pos < x.length; ) {
+            int len = Math.min(x.length - pos, 1 + rnd.nextInt(50));
+            n += d.process(x, pos, len, out, n);
+            pos += len;
+        }
+        n += d.finish(out, n);
+        return Arrays.copyOf(out, n);
+    }
+
+    @Test
+    void noiselessRoundTrip() {
+        boolean[] bits = randomBits(500, 1);
+        for (ASKDemodulator.Detection detection : ASKDemodulator.Detection.values()) {
+            // Incluye amplitudes de signo opuesto, que solo distingue la detección coherente
+            double[][] amplitudes = detection == ASKDemodulator.Detection.COHERENT
+                    ? new double[][]{{0.1, 1.0}, {0.0, 1.0}, {-1.0, 1.0}}
+                    : new double[][]{{0.1, 1.0}, {0.0, 1.0}};
+            for (double[] a : amplitudes) {
+                double[] ask = ASKModulator.modulate(bits, FC, FS, BIT_RATE, a[0], a[1]).getSamples();
+                boolean[] got = ASKDemodulator.demodulate(new Signal(ask, FS), detection, FC, BIT_RATE, a[0], a[1]);
+                assertArrayEquals(bits, got, detection + " A0=" + a[0] + " A1=" + a[1]);
+            }
+        }
+    }
+
+    @Test
+    void chunkingDoesNotChangeTheResult() {
+        boolean[] bits = randomBits(400, 2);
+        double[] ask = ASKModulator.modulate(bits, FC, FS, BIT_RATE, 0.1, 1.0).getSamples();
+        for (ASKDemodulator.Detection detection : ASKDemodulator.Detection.values()) {
+            ASKDemodulator d = new ASKDemodulator(detection, FC, FS, BIT_RATE, 0.1, 1.0);
+            assertArrayEquals(bits, demodulateInChunks(d, ask, 3), detection.toString());
+            assertEquals(bits.length, d.getBitsDecoded());
+
+            d.reset();
+            assertArrayEquals(bits, demodulateInChunks(d, ask, 4), detection + " tras reset");
+        }
+    }
+
+    /**
+     * Con un número entero de ciclos por bit, la primera muestra de cada bit
+     * es sin(0) = 0 y los desfases d y d + 1 dan los mismos estadísticos, así
+     * que se acepta cualquiera de los dos. A 48 kHz el resto de desfases sí
+     * se distinguen (a 8 kHz con portadora de 2 kHz, la mitad son ceros).
+     */
+    @Test
+    void autoTimingFindsTheDelay() {
+        double fs = 48000;
+        int spb = 48;
+        boolean[] bits = randomBits(300, 5);
+        double[] ask = ASKModulator.modulate(bits, FC, fs, BIT_RATE, 0.1, 1.0).getSamples();
+        for (ASKDemodulator.Detection detection : ASKDemodulator.Detection.values()) {
+            for (int delay = 0; delay < spb; delay += 3) {
+                double[] x = new double[delay + ask.length + spb]; // Relleno para el último bit con d + 1
+                System.arraycopy(ask, 0, x, delay, ask.length);
+                ASKDemodulator d = new ASKDemodulator(detection, FC, fs, BIT_RATE, 0.1, 1.0,
+                        ASKDemodulator.AUTO_TIMING);
+                boolean[] got = demodulateInChunks(d, x, delay);
+                int found = d.getDelay();
+                assertTrue(found == delay || found == delay + 1, detection + " retardo " + delay + ": " + found);
+                assertArrayEquals(bits, Arrays.copyOf(got, bits.length), detection + " retardo " + delay);
+            }
+        }
+    }
+
+    @Test
+    void shortSignalIsDecodedOnFinish() {
+        // Menos bits que la ventana de adquisición: todo sale en finish()
+        boolean[] bits = randomBits(ASKDemodulator.ACQUISITION_BITS / 2, 6);
+        double[] ask = ASKModulator.modulate(bits, FC, FS, BIT_RATE, 0.1, 1.0).getSamples();
+        ASKDemodulator d = new ASKDemodulator(ASKDemodulator.Detection.COHERENT, FC, FS, BIT_RATE, 0.1, 1.0,
+                ASKDemodulator.AUTO_TIMING);
+        boolean[] out = new boolean[d.maxBits(ask.length)];
+        assertEquals(0, d.process(ask, 0, ask.length, out, 0));
+        assertEquals(bits.length, d.finish(out, 0));
+        assertArrayEquals(bits, Arrays.copyOf(out, bits.length));
+    }
+}
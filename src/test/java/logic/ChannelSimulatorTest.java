@@ -0,0 +1,82 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BER simulada frente a la teórica y reproducibilidad del barrido
+ *
+ * @author xexpl
+ */
+class ChannelSimulatorTest {
+
+    private static final double FS = 8000;
+    private static final double FC = 2000;
+    private static final double BIT_RATE = 1000;
+
+    @Test
+    void qFunctionKnownValues() {
+        assertEquals(0.5, ChannelSimulator.q(0), 1e-7);
+        assertEquals(0.158655, ChannelSimulator.q(1), 1e-6);
+        assertEquals(0.0227501, ChannelSimulator.q(2), 1e-7);
+        assertEquals(1.349898e-3, ChannelSimulator.q(3), 1e-9);
+        assertEquals(1 - 0.0227501, ChannelSimulator.q(-2), 1e-7);
+    }
+
+    @Test
+    void coherentBerMatchesTheory() {
+        ChannelSimulator sim = new ChannelSimulator(ASKDemodulator.Detection.COHERENT, FC, FS, BIT_RATE, 0.1, 1.0);
+        double[] ebN0 = {0, 4, 8};
+        long bits = 4 * ChannelSimulator.CHUNK_BITS;
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (ChannelSimulator.Point p : sim.sweep(ebN0, bits, 11, pool)) {
+                // Error binomial: 5 desviaciones típicas
+                double expected = p.theory * bits;
+                double tol = 5 * Math.sqrt(expected * (1 - p.theory));
+                assertEquals(expected, p.errors, tol, p.toString());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void attenuationShiftsTheCurve() {
+        // 3 dB de atenuación con la misma Eb/N0 transmitida equivalen a 3 dB menos sin atenuación
+        ChannelSimulator attenuated = new ChannelSimulator(ASKDemodulator.Detection.COHERENT, FC, FS, BIT_RATE,
+                0.1, 1.0, 3, Channel.Fading.NONE, 1);
+        ChannelSimulator clean = new ChannelSimulator(ASKDemodulator.Detection.COHERENT, FC, FS, BIT_RATE, 0.1, 1.0);
+        assertEquals(clean.theory(5), attenuated.theory(8), 1e-12);
+        assertTrue(Double.isNaN(new ChannelSimulator(ASKDemodulator.Detection.NONCOHERENT, FC, FS, BIT_RATE,
+                0.1, 1.0).theory(5)));
+    }
+
+    @Test
+    void resultDependsOnlyOnTheSeed() {
+        ChannelSimulator sim = new ChannelSimulator(ASKDemodulator.Detection.NONCOHERENT, FC, FS, BIT_RATE,
+                0.1, 1.0, 0, Channel.Fading.RAYLEIGH, 16);
+        double[] ebN0 = {2, 10};
+        long bits = 3 * ChannelSimulator.CHUNK_BITS + 123;
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool many = new ForkJoinPool(4);
+        try {
+            List<ChannelSimulator.Point> a = sim.sweep(ebN0, bits, 42, one);
+            List<ChannelSimulator.Point> b = sim.sweep(ebN0, bits, 42, many);
+            for (int i = 0; i < ebN0.length; i++) {
+                assertEquals(bits, a.get(i).bits);
+                assertEquals(a.get(i).errors, b.get(i).errors, "Eb/N0 " + ebN0[i]);
+            }
+            // Más Eb/N0, menos errores
+            assertTrue(a.get(1).errors < a.get(0).errors);
+        } finally {
+            one.shutdown();
+            many.shutdown();
+        }
+    }
+}
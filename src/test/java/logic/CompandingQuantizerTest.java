@@ -0,0 +1,62 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Palabras de código G.711 conocidas (ITU-T G.711, tablas 1a y 2a)
+ *
+ * @author xexpl
+ */
+class CompandingQuantizerTest {
+
+    private static final short[] PCM16 = {0, -1, 32767, -32768};
+
+    @Test
+    void muLawCodeWords() {
+        CompandingQuantizer q = new CompandingQuantizer(CompandingQuantizer.Law.MU_LAW);
+        int[] codes = new int[PCM16.length];
+        q.quantizeLevels(PCM16, 0, PCM16.length, codes, 0);
+        assertArrayEquals(new int[]{0xFF, 0x7E, 0x80, 0x00}, codes);
+    }
+
+    @Test
+    void aLawCodeWords() {
+        CompandingQuantizer q = new CompandingQuantizer(CompandingQuantizer.Law.A_LAW);
+        int[] codes = new int[PCM16.length];
+        q.quantizeLevels(PCM16, 0, PCM16.length, codes, 0);
+        assertArrayEquals(new int[]{0xD5, 0x55, 0xAA, 0x2A}, codes);
+    }
+
+    @Test
+    void doubleInputMatchesShortInput() {
+        for (CompandingQuantizer.Law law : CompandingQuantizer.Law.values()) {
+            CompandingQuantizer q = new CompandingQuantizer(law);
+            double[] x = {0.0, 1.0, -1.0, 0.5, -0.25};
+            short[] s = new short[x.length];
+            for (int i = 0; i < x.length; i++) {
+                s[i] = (short) Math.round(x[i] * 32767);
+            }
+            int[] fromDouble = new int[x.length];
+            int[] fromShort = new int[x.length];
+            q.quantizeLevels(x, 0, x.length, fromDouble, 0);
+            q.quantizeLevels(s, 0, s.length, fromShort, 0);
+            assertArrayEquals(fromShort, fromDouble, law.toString());
+        }
+    }
+
+    @Test
+    void decodedValueStaysCloseToInput() {
+        for (CompandingQuantizer.Law law : CompandingQuantizer.Law.values()) {
+            CompandingQuantizer q = new CompandingQuantizer(law);
+            double[] x = {0.9, -0.3, 0.01, -0.002};
+            int[] codes = q.quantizeLevels(x);
+            for (int i = 0; i < x.length; i++) {
+                // Error relativo de los segmentos logarítmicos: menos de 1/16 del valor (más el paso mínimo)
+                assertEquals(x[i], q.value(codes[i]), Math.abs(x[i]) / 16 + 2.0 / 4096, law + " x=" + x[i]);
+            }
+        }
+    }
+}
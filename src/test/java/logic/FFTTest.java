@@ -0,0 +1,128 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * FFT frente a la DFT directa y espectro de Welch de un tono conocido
+ *
+ * @author xexpl
+ */
+class FFTTest {
+
+    private static final double EPS = 1e-9;
+
+    private static double[] randomSignal(int n, long seed) {
+        Random rnd = new Random(seed);
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = rnd.nextGaussian();
+        }
+        return x;
+    }
+
+    /**
+     * DFT O(n²) de referencia: X[k] = Σ x[j]·e^{-2πi·jk/n}
+     */
+    private static double[][] dft(double[] re, double[] im) {
+        int n = re.length;
+        double[][] out = new double[2][n];
+        for (int k = 0; k < n; k++) {
+            for (int j = 0; j < n; j++) {
+                double a = -2 * Math.PI * ((long) j * k % n) / n;
+                out[0][k] += re[j] * Math.cos(a) - im[j] * Math.sin(a);
+                out[1][k] += re[j] * Math.sin(a) + im[j] * Math.cos(a);
+            }
+        }
+        return out;
+    }
+
+    @Test
+    void complexForwardMatchesDftAndInverseRestores() {
+        for (int n = 2; n <= 512; n <<= 1) {
+            double[] re = randomSignal(n, n);
+            double[] im = randomSignal(n, n + 1);
+            double[][] expected = dft(re, im);
+            double[] r = re.clone();
+            double[] i = im.clone();
+            FFT fft = new FFT(n);
+            fft.forward(r, i);
+            for (int k = 0; k < n; k++) {
+                assertEquals(expected[0][k], r[k], EPS * n, "n=" + n + " Re k=" + k);
+                assertEquals(expected[1][k], i[k], EPS * n, "n=" + n + " Im k=" + k);
+            }
+            fft.inverse(r, i);
+            for (int k = 0; k < n; k++) {
+                assertEquals(re[k], r[k], EPS, "n=" + n);
+                assertEquals(im[k], i[k], EPS, "n=" + n);
+            }
+        }
+    }
+
+    @Test
+    void realForwardMatchesComplexForward() {
+        for (int n = 2; n <= 1024; n <<= 1) {
+            double[] x = randomSignal(n + 3, 7 * n);
+            int off = 3;
+            double[] re = new double[n];
+            double[] im = new double[n];
+            System.arraycopy(x, off, re, 0, n);
+            FFT fft = new FFT(n);
+            fft.forward(re, im);
+
+            double[] rRe = new double[n / 2 + 1];
+            double[] rIm = new double[n / 2 + 1];
+            fft.realForward(x, off, rRe, rIm);
+            for (int k = 0; k <= n / 2; k++) {
+                assertEquals(re[k], rRe[k], EPS * n, "n=" + n + " Re k=" + k);
+                assertEquals(im[k], rIm[k], EPS * n, "n=" + n + " Im k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void welchFindsToneAndCountsSegments() {
+        int n = 256;
+        double fs = 8000;
+        int bin = 40;                 // 40·fs/n = 1250 Hz, centrado en un bin
+        double[] x = new double[10 * n];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = Math.sin(2 * Math.PI * bin * fs / n * i / fs);
+        }
+        double[] psd = new double[n / 2 + 1];
+        int segments = new FFT(n).welch(x, psd);
+        assertEquals((x.length - n) / (n / 2) + 1, segments);
+
+        int peak = 0;
+        for (int k = 1; k < psd.length; k++) {
+            if (psd[k] > psd[peak]) peak = k;
+        }
+        assertEquals(bin, peak);
+        // Hann: el tono se reparte en los bins vecinos y nada más
+        for (int k = 0; k < psd.length; k++) {
+            if (Math.abs(k - bin) > 1) assertEquals(0.0, psd[k], 1e-9 * psd[bin], "bin " + k);
+        }
+        // Σ|X|² / Σw² = n·potencia media (Parseval), y el tono tiene potencia 1/2
+        double total = 0;
+        for (int k = 1; k < n / 2; k++) total += 2 * psd[k];
+        assertEquals(0.5 * n, total, 1e-6 * n);
+    }
+
+    @Test
+    void shortSignalIsZeroPaddedIntoOneSegment() {
+        double[] psd = new double[33];
+        assertEquals(1, new FFT(64).welch(new double[]{1, 2, 3}, psd));
+    }
+
+    @Test
+    void rejectsSizesThatAreNotPowersOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new FFT(1));
+        assertThrows(IllegalArgumentException.class, () -> new FFT(96));
+        assertEquals(128, FFT.nextPowerOfTwo(100));
+        assertEquals(2, FFT.nextPowerOfTwo(1));
+    }
+}
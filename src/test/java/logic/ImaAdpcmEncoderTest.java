@@ -0,0 +1,116 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * IMA ADPCM frente al algoritmo de referencia IMA/DVI
+ *
+ * @author xexpl
+ */
+class ImaAdpcmEncoderTest {
+
+    /**
+     * Primeros pasos calculados a mano con las tablas del estándar:
+     * paso 7 → 16 → 34, predictor 0 → 11 → 41 → -22
+     */
+    @Test
+    void knownSequence() {
+        short[] pcm16 = {0, 1000, 2000, -3000};
+        int[] codes = new int[pcm16.length];
+        new ImaAdpcmEncoder().quantizeLevels(pcm16, 0, pcm16.length, codes, 0);
+        assertArrayEquals(new int[]{0x0, 0x7, 0x7, 0xF}, codes);
+
+        ImaAdpcmEncoder.Decoder decoder = new ImaAdpcmEncoder().decoder();
+        int[] decoded = new int[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            decoded[i] = decoder.next(codes[i]);
+        }
+        assertArrayEquals(new int[]{0, 11, 41, -22}, decoded);
+    }
+
+    @Test
+    void encodeDecodeMatchesReference() {
+        Random rnd = new Random(3);
+        short[] pcm16 = new short[5000];
+        for (int i = 0; i < pcm16.length; i++) {
+            double v = 12000 * Math.sin(i * 0.07) + 3000 * rnd.nextGaussian();
+            pcm16[i] = (short) Math.max(-32768, Math.min(32767, Math.round(v)));
+        }
+
+        int[] codes = new int[pcm16.length];
+        new ImaAdpcmEncoder().quantizeLevels(pcm16, 0, pcm16.length, codes, 0);
+        Reference ref = new Reference();
+        ImaAdpcmEncoder.Decoder decoder = new ImaAdpcmEncoder().decoder();
+        for (int i = 0; i < pcm16.length; i++) {
+            assertEquals(ref.encode(pcm16[i]), codes[i], "código " + i);
+            assertEquals(ref.predictor, decoder.next(codes[i]), "muestra " + i);
+        }
+    }
+
+    @Test
+    void chunkedEncodingAndBitPathMatchWholeSignal() {
+        double[] x = new double[3000];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = 0.6 * Math.sin(2 * Math.PI * 440 * i / 8000.0);
+        }
+        ImaAdpcmEncoder encoder = new ImaAdpcmEncoder();
+        int[] whole = encoder.quantizeLevels(x);
+
+        encoder.reset();
+        int[] chunked = new int[x.length];
+        Random rnd = new Random(5);
+        for (int pos = 0; pos < x.length; ) {
+            int len = Math.min(x.length - pos, 1 + rnd.nextInt(200));
+            encoder.quantizeLevels(x, pos, len, chunked, pos);
+            pos += len;
+        }
+        assertArrayEquals(whole, chunked);
+
+        boolean[] bits = new boolean[whole.length * 4];
+        encoder.levelsToBits(whole, 0, whole.length, bits, 0);
+        double[] fromCodes = new double[x.length];
+        double[] fromBits = new double[x.length];
+        encoder.decoder().decode(whole, 0, whole.length, fromCodes, 0);
+        encoder.decoder().decode(bits, 0, x.length, fromBits, 0);
+        assertArrayEquals(fromCodes, fromBits);
+    }
+
+    /**
+     * Codificador de la recomendación IMA/DVI escrito de forma literal
+     * (paso a paso, sin tablas compartidas con la implementación)
+     */
+    private static final class Reference {
+        private static final int[] INDEX = {-1, -1, -1, -1, 2, 4, 6, 8};
+        private static final int[] STEP = {
+                7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+                50, 55, 60, 66, 73, 80, 88, 97, 107, 118, 130, 143, 157, 173, 190, 209, 230, 253, 279, 307,
+                337, 371, 408, 449, 494, 544, 598, 658, 724, 796, 876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066,
+                2272, 2499, 2749, 3024, 3327, 3660, 4026, 4428, 4871, 5358, 5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487, 12635, 13899,
+                15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+        };
+
+        int predictor = 0;
+        int index = 0;
+
+        int encode(int sample) {
+            int step = STEP[index];
+            int diff = sample - predictor;
+            int sign = diff < 0 ? 8 : 0;
+            if (sign != 0) diff = -diff;
+            int delta = 0;
+            int vpdiff = step / 8;
+            if (diff >= step) { delta = 4; diff -= step; vpdiff += step; }
+            if (diff >= step / 2) { delta |= 2; diff -= step / 2; vpdiff += step / 2; }
+            if (diff >= step / 4) { delta |= 1; vpdiff += step / 4; }
+            predictor += sign != 0 ? -vpdiff : vpdiff;
+            predictor = Math.max(-32768, Math.min(32767, predictor));
+            index = Math.max(0, Math.min(88, index + INDEX[delta]));
+            return sign | delta;
+        }
+    }
+}
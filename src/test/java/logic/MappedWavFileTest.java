@@ -0,0 +1,67 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Lectura de cabeceras WAV válidas y dañadas
+ *
+ * @author xexpl
+ */
+class MappedWavFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsPcm16Samples() throws Exception {
+        Path wav = write("ok.wav", fmt(16, 1, 8000), new short[]{0, 16384, -32768});
+        try (MappedWavFile file = MappedWavFile.open(wav.toString())) {
+            assertEquals(8000, file.getFs());
+            assertEquals(3, file.length());
+            assertEquals(0.5, file.sample(1), 1e-12);
+            assertEquals(-1.0, file.sample(2), 1e-12);
+        }
+    }
+
+    @Test
+    void rejectsTruncatedFmtChunk() throws Exception {
+        Path wav = write("short-fmt.wav", fmt(8, 1, 8000), new short[]{0, 1});
+        assertThrows(IOException.class, () -> MappedWavFile.open(wav.toString()));
+    }
+
+    /**
+     * Cuerpo de un bloque fmt PCM 16-bit recortado a size bytes
+     */
+    private static byte[] fmt(int size, int channels, int fs) {
+        ByteBuffer b = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        b.putShort((short) 1).putShort((short) channels).putInt(fs).putInt(fs * channels * 2)
+                .putShort((short) (channels * 2)).putShort((short) 16);
+        byte[] out = new byte[size];
+        System.arraycopy(b.array(), 0, out, 0, size);
+        return out;
+    }
+
+    private Path write(String name, byte[] fmt, short[] samples) throws IOException {
+        int fmtSize = fmt.length + (fmt.length & 1);
+        ByteBuffer b = ByteBuffer.allocate(12 + 8 + fmtSize + 8 + 2 * samples.length).order(ByteOrder.LITTLE_ENDIAN);
+        b.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(b.capacity() - 8).put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        b.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(fmt.length).put(fmt);
+        if ((fmt.length & 1) != 0) b.put((byte) 0);
+        b.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(2 * samples.length);
+        for (short s : samples) b.putShort(s);
+        Path p = dir.resolve(name);
+        Files.write(p, b.array());
+        return p;
+    }
+}
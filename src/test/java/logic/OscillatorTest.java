@@ -0,0 +1,55 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Paso del acumulador de fase y generación por tramos
+ *
+ * @author xexpl
+ */
+class OscillatorTest {
+
+    @Test
+    void integerRatioStepIsRoundedTo64Bits() {
+        // 2000/48000 = 1/24 no es representable: 24·paso debe quedar a menos de 12 de 2⁶⁴ (≡ 0)
+        long step = Oscillator.phaseStep(2000, 48000);
+        assertTrue(Math.abs(step * 24) <= 12, "24·paso mod 2⁶⁴ = " + step * 24);
+        // fc múltiplo de fs: paso nulo; fc negativa: complemento
+        assertEquals(0, Oscillator.phaseStep(96000, 48000));
+        assertEquals(-step, Oscillator.phaseStep(-2000, 48000));
+    }
+
+    @Test
+    void seekMatchesSequentialGenerationInEveryMode() {
+        for (Oscillator.Mode mode : Oscillator.Mode.values()) {
+            Oscillator sequential = new Oscillator(mode, 1234.5, 44100, 0.8);
+            double[] all = new double[5000];
+            sequential.fill(all, 0, all.length);
+
+            Oscillator jumped = new Oscillator(mode, 1234.5, 44100, 0.8);
+            double[] tail = new double[1777];
+            jumped.seek(all.length - tail.length);
+            jumped.fill(tail, 0, tail.length);
+
+            double[] expected = new double[tail.length];
+            System.arraycopy(all, all.length - tail.length, expected, 0, tail.length);
+            assertArrayEquals(expected, tail, mode.toString());
+        }
+    }
+
+    @Test
+    void tableModeStaysCloseToExactAfterLongRuns() {
+        Oscillator exact = new Oscillator(Oscillator.Mode.EXACT, 2000, 48000, 1.0);
+        Oscillator table = new Oscillator(Oscillator.Mode.TABLE, 2000, 48000, 1.0);
+        long n = 48000L * 3600; // Una hora
+        exact.seek(n);
+        table.seek(n);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(exact.next(), table.next(), 1e-6);
+        }
+    }
+}
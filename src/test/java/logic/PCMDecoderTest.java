@@ -0,0 +1,71 @@
+package logic;
+
+import models.PackedBits;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Decodificación por trozos frente a decodificación de una vez
+ *
+ * @author xexpl
+ */
+class PCMDecoderTest {
+
+    private static final int N_BITS = 5;
+
+    @Test
+    void pushInRandomChunksMatchesBulkDecode() {
+        PCMEncoder pcm = new PCMEncoder(N_BITS, -1.0, 1.0);
+        Random rnd = new Random(7);
+        boolean[] bits = encode(pcm, rnd, 2000);
+
+        PCMDecoder decoder = new PCMDecoder(pcm);
+        double[] expected = decoder.decode(bits);
+
+        double[] pushed = new double[expected.length];
+        int written = 0;
+        for (int pos = 0; pos < bits.length; ) {
+            int len = Math.min(bits.length - pos, 1 + rnd.nextInt(13)); // Cortes a mitad de muestra
+            int max = decoder.maxSamples(len);
+            int n = decoder.push(bits, pos, len, pushed, written);
+            assertEquals(max, n);
+            written += n;
+            pos += len;
+        }
+        assertEquals(expected.length, written);
+        assertArrayEquals(expected, pushed);
+    }
+
+    @Test
+    void packedDecodeMatchesBooleanDecode() {
+        PCMEncoder pcm = new PCMEncoder(N_BITS, -1.0, 1.0);
+        Random rnd = new Random(11);
+        double[] x = new double[777];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = 2 * rnd.nextDouble() - 1;
+        }
+        int[] levels = pcm.quantizeLevels(x);
+        boolean[] bits = new boolean[levels.length * N_BITS];
+        pcm.levelsToBits(levels, 0, levels.length, bits, 0);
+        PackedBits packed = pcm.levelsToPackedBits(levels);
+
+        PCMDecoder decoder = new PCMDecoder(pcm);
+        assertArrayEquals(decoder.decode(bits), decoder.decode(packed));
+        assertArrayEquals(decoder.levelsToValues(levels), decoder.decode(bits));
+    }
+
+    private static boolean[] encode(PCMEncoder pcm, Random rnd, int n) {
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = 2 * rnd.nextDouble() - 1;
+        }
+        int[] levels = pcm.quantizeLevels(x);
+        boolean[] bits = new boolean[levels.length * N_BITS];
+        pcm.levelsToBits(levels, 0, levels.length, bits, 0);
+        return bits;
+    }
+}
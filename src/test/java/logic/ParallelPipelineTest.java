@@ -0,0 +1,74 @@
+package logic;
+
+import models.Signal;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * La ejecución por segmentos debe dar exactamente lo mismo que la secuencial
+ *
+ * @author xexpl
+ */
+class ParallelPipelineTest {
+
+    private static final double FS = 8000;
+    private static final double FC = 2000;
+    private static final double BIT_RATE = 1000;
+
+    @Test
+    void encodeAndModulateMatchesStreamingPipeline() throws IOException {
+        // Longitud que no es múltiplo del segmento ni del bloque
+        double[] x = new double[10_007];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = 0.8 * Math.sin(2 * Math.PI * 440 * i / FS) + 0.1 * Math.sin(2 * Math.PI * 1234 * i / FS);
+        }
+        Signal signal = new Signal(x, FS);
+        PCMEncoder pcm = new PCMEncoder(8, -1.0, 1.0);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Oscillator.Mode mode : Oscillator.Mode.values()) {
+                double[] parallel = new ParallelPipeline(pcm, pool, 1000)
+                        .encodeAndModulate(signal, FC, BIT_RATE, 0.1, 1.0, mode).getSamples();
+
+                StreamingPipeline serial = new StreamingPipeline(pcm, FC, BIT_RATE, 0.1, 1.0, 700);
+                serial.setOscillatorMode(mode);
+                double[] expected = new double[parallel.length];
+                int[] pos = {0};
+                serial.run(StreamingPipeline.fromSampleSource(signal), FS, block -> {
+                    System.arraycopy(block.ask, 0, expected, pos[0], block.nAsk);
+                    pos[0] += block.nAsk;
+                });
+
+                assertArrayEquals(expected, parallel, mode.toString());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void levelsAndBitsMatchSerialEncoder() {
+        double[] x = new double[3001];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = Math.cos(i * 0.013);
+        }
+        PCMEncoder pcm = new PCMEncoder(6, -1.0, 1.0);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ParallelPipeline parallel = new ParallelPipeline(pcm, pool, 256);
+            int[] levels = parallel.quantizeLevels(x);
+            assertArrayEquals(pcm.quantizeLevels(x), levels);
+
+            boolean[] expected = new boolean[levels.length * 6];
+            pcm.levelsToBits(levels, 0, levels.length, expected, 0);
+            assertArrayEquals(expected, parallel.levelsToBits(levels));
+            assertArrayEquals(Polar.encode(expected), parallel.polarEncode(expected));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rearranque de la cadena en tiempo real
+ *
+ * @author xexpl
+ */
+class RealtimeChainTest {
+
+    private static final int BLOCK = 256;
+
+    /**
+     * Entrega un número fijo de muestras constantes por apertura y luego termina
+     */
+    private static final class ConstantSource implements LineSource {
+        private double value;
+        private long remaining;
+        private final long perRun;
+
+        ConstantSource(long perRun) {
+            this.perRun = perRun;
+        }
+
+        @Override public double getFs() { return 8000; }
+        @Override public void open() { remaining = perRun; }
+        @Override public void close() { }
+
+        @Override
+        public int read(double[] dst, int off, int len) {
+            if (remaining <= 0) return -1;
+            int n = (int) Math.min(len, remaining);
+            for (int i = 0; i < n; i++) dst[off + i] = value;
+            remaining -= n;
+            return n;
+        }
+    }
+
+    @Test
+    void restartStartsFromAnEmptyRingAndZeroedStats() throws Exception {
+        ConstantSource source = new ConstantSource(10 * BLOCK);
+        StreamingPipeline pipeline = new StreamingPipeline(new PCMEncoder(8, -1.0, 1.0), 2000, 1000, 0.1, 1.0, BLOCK);
+        RealtimeChain chain = new RealtimeChain(source, pipeline, 4 * BLOCK);
+
+        source.value = 0.5;
+        chain.start(block -> { });
+        assertTrue(chain.awaitCompletion(5000));
+        chain.stop();
+        assertEquals(10 * BLOCK, chain.getSamplesCaptured());
+
+        source.value = -0.5;
+        long[] firstSample = {-1};
+        boolean[] stale = {false};
+        chain.start(block -> {
+            if (firstSample[0] < 0) firstSample[0] = block.firstSample;
+            for (int i = 0; i < block.nSamples; i++) {
+                if (block.samples[i] != -0.5) stale[0] = true;
+            }
+        });
+        assertTrue(chain.awaitCompletion(5000));
+        chain.stop();
+
+        assertEquals(0, firstSample[0]);
+        assertTrue(!stale[0], "muestras de la ejecución anterior en la nueva");
+        assertEquals(10 * BLOCK, chain.getSamplesCaptured());
+        assertTrue(chain.getBlocksProcessed() <= 10 + chain.getOverrunEvents());
+        assertTrue(chain.getMaxLatencyMillis() < 1000);
+    }
+
+    @Test
+    void refusesToStartWhileAPreviousThreadIsAlive() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LineSource stuck = new LineSource() {
+            @Override public double getFs() { return 8000; }
+            @Override public void open() { }
+            @Override public void close() { } // No desbloquea read()
+
+            @Override
+            public int read(double[] dst, int off, int len) {
+                reading.countDown();
+                while (true) {
+                    try {
+                        release.await();
+                        return -1;
+                    } catch (InterruptedException ignored) {
+                        // Lectura no interrumpible, como un dispositivo bloqueado
+                    }
+                }
+            }
+        };
+        StreamingPipeline pipeline = new StreamingPipeline(new PCMEncoder(8, -1.0, 1.0), 2000, 1000, 0.1, 1.0, BLOCK);
+        RealtimeChain chain = new RealtimeChain(stuck, pipeline, 4 * BLOCK);
+        chain.start(block -> { });
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        chain.stop(); // El hilo de captura sigue dentro de read()
+        try {
+            assertThrows(IllegalStateException.class, () -> chain.start(block -> { }));
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package logic;
+
+import models.Signal;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Remuestreo: frecuencia de salida, amplitud en banda y atenuación fuera de banda
+ *
+ * @author xexpl
+ */
+class ResamplerTest {
+
+    @Test
+    void approximatedRatioLabelsTheActualOutputRate() {
+        // Frecuencia no entera: la relación se aproxima con MAX_PHASES fases
+        Resampler r = new Resampler(44100, 8000.5);
+        assertTrue(r.getOutputRate() != 8000.5);
+        Signal y = Resampler.resample(new Signal(new double[44100], 44100), 8000.5, Resampler.Quality.STANDARD);
+        assertEquals(r.getOutputRate(), y.getFs(), 0.0);
+        assertEquals(Math.round(44100 * r.getOutputRate() / 44100), y.getSamples().length);
+    }
+
+    @Test
+    void exactRatioKeepsRequestedRate() {
+        Signal y = Resampler.resample(new Signal(new double[4410], 44100), 8000, Resampler.Quality.STANDARD);
+        assertEquals(8000, y.getFs(), 0.0);
+        assertEquals(800, y.getSamples().length);
+    }
+
+    @Test
+    void passbandToneKeepsAmplitudeAndStopbandToneIsRemoved() {
+        double fsIn = 44100, fsOut = 8000;
+        assertEquals(1.0, rms(resampleTone(1000, fsIn, fsOut)) * Math.sqrt(2), 0.01);
+        // 6 kHz está por encima del Nyquist de salida (4 kHz): debe atenuarse más de 60 dB
+        assertTrue(rms(resampleTone(6000, fsIn, fsOut)) * Math.sqrt(2) < 1e-3);
+    }
+
+    @Test
+    void streamingMatchesWholeArrayAfterDelay() {
+        double fsIn = 48000, fsOut = 16000;
+        double[] x = tone(700, fsIn, 4800);
+        Resampler whole = new Resampler(fsIn, fsOut);
+        double[] expected = new double[1600];
+        whole.resample(x, expected);
+
+        Resampler stream = new Resampler(fsIn, fsOut);
+        double[] out = new double[expected.length + stream.maxOutput(x.length) + stream.maxOutput(stream.getTaps())];
+        int n = 0;
+        for (int off = 0; off < x.length; off += 333) {
+            n += stream.process(x, off, Math.min(333, x.length - off), out, n);
+        }
+        n += stream.flush(out, n);
+        assertTrue(n >= expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], out[i], 1e-12, "muestra " + i);
+        }
+    }
+
+    private static double[] resampleTone(double f, double fsIn, double fsOut) {
+        double[] y = Resampler.resample(new Signal(tone(f, fsIn, (int) fsIn), fsIn), fsOut, Resampler.Quality.STANDARD).getSamples();
+        // Descartar los bordes, donde la entrada se extiende con ceros
+        return java.util.Arrays.copyOfRange(y, y.length / 4, 3 * y.length / 4);
+    }
+
+    private static double[] tone(double f, double fs, int n) {
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = Math.sin(2 * Math.PI * f * i / fs);
+        }
+        return x;
+    }
+
+    private static double rms(double[] x) {
+        double e = 0;
+        for (double v : x) e += v * v;
+        return Math.sqrt(e / x.length);
+    }
+}
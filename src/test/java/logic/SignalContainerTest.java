@@ -0,0 +1,151 @@
+package logic;
+
+import logic.SignalContainerFile.SampleFormat;
+import models.PackedBits;
+import models.Signal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ida y vuelta del contenedor binario: lo que escribe SignalContainerWriter
+ * (en memoria y por bloques) debe leerse igual con SignalContainerFile
+ *
+ * @author xexpl
+ */
+class SignalContainerTest {
+
+    private static final double FS = 8000;
+    private static final double FC = 2000;
+    private static final double BIT_RATE = 1000;
+
+    @TempDir
+    Path dir;
+
+    private static boolean[] randomBits(int n, long seed) {
+        Random rnd = new Random(seed);
+        boolean[] bits = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            bits[i] = rnd.nextBoolean();
+        }
+        return bits;
+    }
+
+    private static void assertBits(boolean[] expected, SignalContainerFile f) {
+        assertEquals(expected.length, f.getBitCount());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], f.bit(i), "bit " + i);
+        }
+    }
+
+    @Test
+    void inMemoryRoundTripForEachFormat() throws IOException {
+        PCMEncoder pcm = new PCMEncoder(8, -1.0, 1.0);
+        boolean[] bits = randomBits(8 * 101, 1); // No múltiplo de 64 tras el relleno a bytes
+        double[] ask = ASKModulator.modulate(bits, FC, FS, BIT_RATE, 0.1, 1.0).getSamples();
+        for (SampleFormat format : SampleFormat.values()) {
+            Path path = dir.resolve(format + ".sgnc");
+            SignalContainerWriter.write(path, pcm, PackedBits.fromBooleans(bits), new Signal(ask, FS),
+                    FS, BIT_RATE, FC, 0.1, 1.0, format);
+            try (SignalContainerFile f = SignalContainerFile.open(path)) {
+                assertEquals(FS, f.getFs());
+                assertEquals(8, f.getNBits());
+                assertEquals(-1.0, f.getXmin());
+                assertEquals(1.0, f.getXmax(), 1e-12);
+                assertEquals(BIT_RATE, f.getBitRate());
+                assertEquals(FC, f.getCarrier());
+                assertEquals(0.1, f.getA0());
+                assertEquals(1.0, f.getA1());
+                assertEquals(101, f.getSampleCount());
+                assertEquals(format, f.getAskFormat());
+                assertBits(bits, f);
+
+                assertEquals(ask.length, f.getAskLength());
+                // float32: redondeo a float; int16: medio paso de 1/32767 del pico
+                double tol = format == SampleFormat.FLOAT32 ? 1e-7 : 0.5 / 32767 + 1e-12;
+                for (int i = 0; i < ask.length; i++) {
+                    assertEquals(ask[i], f.askSample(i), tol, format + " muestra " + i);
+                }
+                assertEquals(ask.length, f.ask().length());
+            }
+        }
+    }
+
+    @Test
+    void bitsOnlyContainer() throws IOException {
+        boolean[] bits = randomBits(8 * 13, 2);
+        Path path = dir.resolve("bits.sgnc");
+        CompandingQuantizer mu = new CompandingQuantizer(CompandingQuantizer.Law.MU_LAW);
+        SignalContainerWriter.write(path, mu, PackedBits.fromBooleans(bits), null,
+                FS, BIT_RATE, FC, 0.1, 1.0, SampleFormat.FLOAT32);
+        try (SignalContainerFile f = SignalContainerFile.open(path)) {
+            assertFalse(f.hasAsk());
+            assertBits(bits, f);
+            assertTrue(f.quantizer() instanceof CompandingQuantizer);
+            assertEquals(CompandingQuantizer.Law.MU_LAW, ((CompandingQuantizer) f.quantizer()).getLaw());
+            assertThrows(IllegalStateException.class, f::encoder);
+            assertThrows(IllegalStateException.class, f::ask);
+        }
+    }
+
+    @Test
+    void streamedContainerMatchesInMemoryOne() throws IOException {
+        double[] x = new double[3001];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = 0.7 * Math.sin(2 * Math.PI * 300 * i / FS);
+        }
+        Signal signal = new Signal(x, FS);
+        PCMEncoder pcm = new PCMEncoder(6, -1.0, 1.0);
+
+        Path streamed = dir.resolve("streamed.sgnc");
+        StreamingPipeline pipeline = new StreamingPipeline(pcm, FC, BIT_RATE, 0.1, 1.0, 700);
+        try (SignalContainerWriter w = new SignalContainerWriter(streamed, pcm, FS, BIT_RATE, FC, 0.1, 1.0,
+                SampleFormat.INT16)) {
+            pipeline.run(StreamingPipeline.fromSampleSource(signal), FS, w);
+        }
+
+        int[] levels = pcm.quantizeLevels(x);
+        boolean[] bits = new boolean[levels.length * 6];
+        pcm.levelsToBits(levels, 0, levels.length, bits, 0);
+        double[] ask = ASKModulator.modulate(bits, FC, FS, BIT_RATE, 0.1, 1.0).getSamples();
+        Path whole = dir.resolve("whole.sgnc");
+        SignalContainerWriter.write(whole, pcm, PackedBits.fromBooleans(bits), new Signal(ask, FS),
+                FS, BIT_RATE, FC, 0.1, 1.0, SampleFormat.INT16);
+
+        try (SignalContainerFile a = SignalContainerFile.open(streamed);
+             SignalContainerFile b = SignalContainerFile.open(whole)) {
+            assertEquals(x.length, a.getSampleCount());
+            assertBits(bits, a);
+            for (long s = 0; s < a.getSampleCount(); s++) {
+                assertEquals(levels[(int) s], a.level(s), "nivel " + s);
+            }
+            assertEquals(b.getAskLength(), a.getAskLength());
+            for (long i = 0; i < a.getAskLength(); i++) {
+                assertEquals(b.askSample(i), a.askSample(i), "muestra " + i);
+            }
+        }
+        // El temporal de los bits no debe quedar en el directorio
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotContainers() throws IOException {
+        Path path = dir.resolve("junk.sgnc");
+        Files.write(path, new byte[200]);
+        assertThrows(IOException.class, () -> SignalContainerFile.open(path));
+        Files.write(path, new byte[10]);
+        assertThrows(IOException.class, () -> SignalContainerFile.open(path));
+    }
+}
@@ -0,0 +1,108 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Consultas del índice de mínimos y máximos frente a un recorrido completo
+ *
+ * @author xexpl
+ */
+class MinMaxPyramidTest {
+
+    /**
+     * Valores representables exactamente en float, para comparar sin tolerancia
+     */
+    private static double[] signal(int n, long seed) {
+        Random rnd = new Random(seed);
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = (rnd.nextInt(4097) - 2048) / 1024.0;
+        }
+        return x;
+    }
+
+    private static void assertMatchesScan(double[] x, MinMaxPyramid p, int from, int to) {
+        double mn = Double.POSITIVE_INFINITY, mx = Double.NEGATIVE_INFINITY;
+        for (int i = Math.max(0, from); i < Math.min(x.length, to); i++) {
+            mn = Math.min(mn, x[i]);
+            mx = Math.max(mx, x[i]);
+        }
+        double[] out = new double[2];
+        p.minMax(from, to, out);
+        assertEquals(mn, out[0], "min [" + from + ", " + to + ") de " + x.length);
+        assertEquals(mx, out[1], "max [" + from + ", " + to + ") de " + x.length);
+    }
+
+    @Test
+    void randomRangesMatchScan() {
+        Random rnd = new Random(1);
+        // Longitudes múltiplo y no múltiplo del bloque y del abanico
+        for (int n : new int[]{1, 15, 16, 17, 64, 65, 1000, 4096, 12_345}) {
+            double[] x = signal(n, n);
+            MinMaxPyramid p = new MinMaxPyramid(x);
+            for (int t = 0; t < 300; t++) {
+                int from = rnd.nextInt(n + 1);
+                int to = from + rnd.nextInt(n - from + 1);
+                assertMatchesScan(x, p, from, to);
+            }
+            assertMatchesScan(x, p, 0, n);
+            assertMatchesScan(x, p, -5, n + 5);
+        }
+    }
+
+    @Test
+    void everyRangeOfASmallSignal() {
+        double[] x = signal(300, 2);
+        MinMaxPyramid p = new MinMaxPyramid(x);
+        for (int from = 0; from <= x.length; from++) {
+            for (int to = from; to <= x.length; to++) {
+                assertMatchesScan(x, p, from, to);
+            }
+        }
+    }
+
+    @Test
+    void globalExtremaAndLevels() {
+        double[] x = signal(16 * 4 * 4 + 1, 3);
+        x[123] = 5.0;
+        x[200] = -7.0;
+        MinMaxPyramid p = new MinMaxPyramid(x);
+        assertEquals(-7.0, p.getMin());
+        assertEquals(5.0, p.getMax());
+        assertEquals(x.length, p.length());
+        // 257 muestras → 17 bloques → 5 → 2 → 1
+        assertEquals(4, p.levels());
+    }
+
+    @Test
+    void emptyRangeGivesInfinities() {
+        MinMaxPyramid p = new MinMaxPyramid(signal(100, 4));
+        double[] out = new double[2];
+        p.minMax(40, 40, out);
+        assertEquals(Double.POSITIVE_INFINITY, out[0]);
+        assertEquals(Double.NEGATIVE_INFINITY, out[1]);
+    }
+
+    @Test
+    void interiorBlocksDifferOnlyByFloatRounding() {
+        Random rnd = new Random(5);
+        double[] x = new double[5000];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = rnd.nextGaussian();
+        }
+        MinMaxPyramid p = new MinMaxPyramid(x);
+        double[] out = new double[2];
+        p.minMax(3, 4990, out);
+        double mn = Double.POSITIVE_INFINITY, mx = Double.NEGATIVE_INFINITY;
+        for (int i = 3; i < 4990; i++) {
+            mn = Math.min(mn, x[i]);
+            mx = Math.max(mx, x[i]);
+        }
+        assertEquals(mn, out[0], Math.ulp((float) mn));
+        assertEquals(mx, out[1], Math.ulp((float) mx));
+    }
+}
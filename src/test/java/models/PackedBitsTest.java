@@ -0,0 +1,105 @@
+package models;
+
+import logic.Polar;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bits empaquetados frente a boolean[], incluidos los campos que cruzan palabras
+ *
+ * @author xexpl
+ */
+class PackedBitsTest {
+
+    private static boolean[] randomBits(int n, long seed) {
+        Random rnd = new Random(seed);
+        boolean[] bits = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            bits[i] = rnd.nextBoolean();
+        }
+        return bits;
+    }
+
+    @Test
+    void booleansRoundTrip() {
+        boolean[] bits = randomBits(1000, 1);
+        PackedBits p = PackedBits.fromBooleans(bits);
+        assertEquals(bits.length, p.length());
+        assertArrayEquals(bits, p.toBooleans());
+
+        boolean[] part = new boolean[70];
+        p.toBooleans(60, part, 0, part.length);
+        for (int i = 0; i < part.length; i++) {
+            assertEquals(bits[60 + i], part[i], "bit " + (60 + i));
+        }
+    }
+
+    @Test
+    void getBitsAcrossWordBoundaries() {
+        boolean[] bits = randomBits(300, 2);
+        PackedBits p = PackedBits.fromBooleans(bits);
+        for (int count = 1; count <= 32; count++) {
+            for (long index = 0; index + count <= bits.length; index += 7) {
+                int expected = 0;
+                for (int k = 0; k < count; k++) {
+                    expected = (expected << 1) | (bits[(int) index + k] ? 1 : 0);
+                }
+                assertEquals(expected, p.getBits(index, count), "index=" + index + " count=" + count);
+            }
+        }
+    }
+
+    @Test
+    void putBitsOnlyTouchesTheField() {
+        boolean[] bits = randomBits(200, 3);
+        PackedBits p = PackedBits.fromBooleans(bits);
+        Random rnd = new Random(4);
+        for (int t = 0; t < 500; t++) {
+            int count = 1 + rnd.nextInt(32);
+            int index = rnd.nextInt(bits.length - count + 1);
+            int value = rnd.nextInt();
+            p.putBits(index, value, count);
+            for (int k = 0; k < count; k++) {
+                bits[index + k] = ((value >>> (count - 1 - k)) & 1) != 0;
+            }
+        }
+        assertArrayEquals(bits, p.toBooleans());
+        assertEquals(PackedBits.fromBooleans(bits), p);
+    }
+
+    @Test
+    void readerMatchesRandomAccess() {
+        boolean[] bits = randomBits(257, 5);
+        PackedBits p = PackedBits.fromBooleans(bits);
+        PackedBits.Reader r = p.reader();
+        assertEquals(p.getBits(0, 3), r.nextBits(3));
+        assertEquals(bits[3], r.nextBit());
+        assertEquals(p.getBits(4, 32), r.nextBits(32));
+        r.seek(250);
+        int n = 0;
+        while (r.hasNext()) {
+            assertEquals(bits[250 + n], r.nextBit());
+            n++;
+        }
+        assertEquals(7, n);
+    }
+
+    @Test
+    void polarEncodeMatchesBooleanPath() {
+        boolean[] bits = randomBits(333, 6);
+        PackedBits p = PackedBits.fromBooleans(bits);
+        assertArrayEquals(Polar.encode(bits), Polar.encode(p));
+
+        // Bloque desalineado respecto a las palabras
+        double[] block = new double[100];
+        Polar.encode(p, 37, block.length, block, 0);
+        double[] expected = Polar.encode(bits);
+        for (int i = 0; i < block.length; i++) {
+            assertEquals(expected[37 + i], block[i], "bit " + (37 + i));
+        }
+    }
+}